@@ -0,0 +1,82 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * VoyageRegistryCheck class checks the VoyageRegistry against a HashMap of the same voyages.
+ * Random voyages are added and removed, and after every step the bus of the voyage,
+ * the number of voyages and, at the end of a round, the sorted voyage IDs must be the same in both.
+ * The first rounds use few voyage IDs, so the same slots are emptied and filled again many times,
+ * and the later rounds use many voyage IDs, so the table is doubled many times.
+ * The exit status is 1 if the registry and the HashMap differ and 0 otherwise.
+ */
+public class VoyageRegistryCheck {
+
+    private static final int ROUNDS = 200; // number of rounds, every round starts with an empty registry
+    private static final int STEPS = 5000; // number of steps of every round
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the command line arguments, which are not used
+     */
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        for (int round = 0; round < ROUNDS; round++) {
+            VoyageRegistry registry = new VoyageRegistry();
+            HashMap<Integer, Bus> expected = new HashMap<>();
+            int idRange = 1 + random.nextInt(round < ROUNDS / 2 ? 50 : 100000);
+            for (int step = 0; step < STEPS; step++) {
+                int voyageID = 1 + random.nextInt(idRange);
+                int action = random.nextInt(3);
+                if (action == 0 && !expected.containsKey(voyageID)) {
+
+                    Bus bus = new Bus("Standard", String.valueOf(voyageID), "A", "B", 1, 1);
+                    registry.put(voyageID, bus);
+                    expected.put(voyageID, bus);
+                } else if (action == 1) {
+
+                    registry.remove(voyageID);
+                    expected.remove(voyageID);
+                }
+                if (registry.get(voyageID) != expected.get(voyageID) || registry.size() != expected.size()
+                        || registry.isEmpty() != expected.isEmpty()) {
+
+                    fail(round, step, voyageID);
+                }
+            }
+            // Every voyage ID of the round is looked up, not only the ones of the steps.
+            for (int voyageID = 1; voyageID <= idRange; voyageID++) {
+
+                if (registry.get(voyageID) != expected.get(voyageID)) {
+
+                    fail(round, STEPS, voyageID);
+                }
+            }
+            int[] expectedIDs = new int[expected.size()];
+            int i = 0;
+            for (int voyageID : expected.keySet()) {
+                expectedIDs[i++] = voyageID;
+            }
+            Arrays.sort(expectedIDs);
+            if (!Arrays.equals(registry.getSortedVoyageIDs(), expectedIDs)) {
+
+                fail(round, STEPS, 0);
+            }
+        }
+        System.out.println(ROUNDS + " rounds checked, no differences");
+    }
+
+    /**
+     * Prints where the registry and the HashMap differ and ends the program.
+     *
+     * @param round    the round of the difference
+     * @param step     the step of the difference
+     * @param voyageID the voyage ID of the difference, 0 for the sorted voyage IDs
+     */
+    private static void fail(int round, int step, int voyageID) {
+        System.out.println("The registry differs from the HashMap in round " + round + " at step " + step
+                + (voyageID == 0 ? " in the sorted voyage IDs" : " for the voyage " + voyageID));
+        System.exit(1);
+    }
+}
@@ -1,5 +1,4 @@
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Locale;
 
 /**
@@ -16,12 +15,15 @@ public class BookingSystem {
      *             - The path to the input file containing booking commands.
      *             - The path to the output file where the results will be written.
      *             Sample usage: "java8 BookingSystem input.txt output.txt"
+     *             The output is written at the end of every command and forced to the disk
+     *             when the "booking.durable" system property is true,
+     *             for example "java8 -Dbooking.durable=true BookingSystem input.txt output.txt".
      */
     public static void main(String[] args) {
         // Set default locale to US to ensure proper number formatting.
         Locale.setDefault(Locale.US);
-        // ArrayList to store Bus objects.
-        ArrayList<Bus> buses = new ArrayList<>();
+        // Registry to store Bus objects by their voyage IDs.
+        VoyageRegistry buses = new VoyageRegistry();
 
         try {
             // Check if the correct number of command line arguments is provided.
@@ -40,8 +42,11 @@ public class BookingSystem {
                 }
                 // Read booking commands from the input file.
                 String[] commandsRows = Reader.readFile(args[0], true, true);
-                // Create a Bus object and perform booking operations.
-                Bus bus = new Bus(commandsRows, buses, args[1]);
+                // Open the output once, it is written through a buffer and closed when the operations end.
+                try (OutputSink output = new OutputSink(args[1], Boolean.getBoolean("booking.durable"))) {
+                    // Create a Bus object and perform booking operations.
+                    Bus bus = new Bus(commandsRows, buses, output);
+                }
 
             }
         } catch (Exception e) {
@@ -1,6 +1,3 @@
-import java.util.ArrayList;
-import java.util.Collections;
-
 /**
  * This class is a parent class of other Bus classes.
  * It contains the properties of a bus.
@@ -17,7 +14,7 @@ public class Bus {
     private int seatRows; // number of rows of seats in the bus
     private double seatFee; // general voyage fee of the bus
     private double revenue; // revenue of the bus
-    protected ArrayList<Seat> seats = new ArrayList<>(); // seats of the bus
+    protected SeatMap seats; // seats of the bus
 
     /**
      * Constructor for the class.
@@ -43,12 +40,12 @@ public class Bus {
      * Constructor for initialize the entire system.
      *
      * @param commandRow an array of strings representing the booking commands
-     * @param buses an ArrayList of Bus objects representing all buses
-     * @param outputFilePath the path to the output file where the results of booking operations will be written
+     * @param buses the registry of all buses and their voyages
+     * @param output the output where the results of booking operations will be written
      */
-    public Bus(String[] commandRow, ArrayList<Bus> buses, String outputFilePath) {
+    public Bus(String[] commandRow, VoyageRegistry buses, OutputSink output) {
         // Calls the commandReader method to process booking commands.
-        commandReader(commandRow, buses, outputFilePath);
+        commandReader(commandRow, buses, output);
     }
 
     /**
@@ -56,17 +53,17 @@ public class Bus {
      * It is overridden and filled in by subclasses.
      *
      * @param row a string representing the data row for initializing the voyage
-     * @param outputFilePath the path to the output file where the results of the voyage initialization will be written
+     * @param output the output where the results of the voyage initialization will be written
      */
-    public void initializeVoyage(String row, String outputFilePath) {}
+    public void initializeVoyage(String row, OutputSink output) {}
 
     /**
      * Generates and writes the seat layout to the specified output file based on the type of the bus.
      * It is overridden and filled in by subclasses.
      *
-     * @param outputFilePath the path to the output file where the seat layout will be written
+     * @param output the output where the seat layout will be written
      */
-    public void seatLayout(String outputFilePath) {}
+    public void seatLayout(OutputSink output) {}
 
     /**
      * Adds seats to the bus adds seats to the bus based on the type of the bus.
@@ -103,103 +100,40 @@ public class Bus {
 
     /**
      * Generates and writes a Z Report
-     * to the specified output file based on the provided list of buses.
+     * to the specified output file based on the provided registry of buses.
      * The Z Report includes seat layouts and revenue information for each bus voyage.
      *
-     * @param buses an ArrayList of Bus objects representing all buses
-     * @param outputFilePath the path to the output file where the Z Report will be written
+     * @param buses the registry of all buses and their voyages
+     * @param output the output where the Z Report will be written
      * @param isLastRow a boolean value indicating whether the Z Report is the last row of a report series
      *                      if true, additional formatting will be applied to the report
      *                      if false, no additional formatting will be applied.
      *
      */
-    public void zReport(ArrayList<Bus> buses, String outputFilePath, boolean isLastRow) {
+    public void zReport(VoyageRegistry buses, OutputSink output, boolean isLastRow) {
         // Write Z Report header.
-        Writer.writeToFile(outputFilePath, "Z Report:", true, true);
-        Writer.writeToFile(outputFilePath, "----------------", true, true);
-
-        if (isLastRow) {
-            // Check if there are any voyages available.
-            if (buses.isEmpty()) {
-                // Write message if no voyages are available.
-                Writer.writeToFile(outputFilePath, "No Voyages Available!", true, true);
-                Writer.writeToFile(outputFilePath, "----------------", true, false);
-
-            } else if (buses.size() == 1) {
-                // Write seat layout and revenue for a single voyage.
-                buses.get(0).seatLayout(outputFilePath);
-
-                Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", buses.get(0).getRevenue()), true, true);
-                Writer.writeToFile(outputFilePath, "----------------", true, false);
-
-            } else {
-                // Sort voyages by ID to comply with the sample io files, it sorts the buses
-                // according to their voyage id from smallest to largest.
-                ArrayList<Integer> sortedVoyageIDS = new ArrayList<>();
-                for (Bus bus : buses) {
-
-                    sortedVoyageIDS.add(Integer.parseInt(bus.getVoyageID()));
-                }
-                Collections.sort(sortedVoyageIDS);
-                // Write seat layout and revenue for each voyage.
-                int counter = 0; // A counter to use the "Z_REPORT" command correctly.
-                for (int i : sortedVoyageIDS) {
-
-                    for (Bus bus : buses) {
-
-                        if ( bus.getVoyageID().contentEquals(Integer.toString(i))) {
-
-                            counter++;
-
-                            if (buses.size() == counter) {
-
-                                bus.seatLayout(outputFilePath);
+        output.write("Z Report:", true);
+        output.write("----------------", true);
 
-                                Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", bus.getRevenue()), true, true);
-                                Writer.writeToFile(outputFilePath, "----------------", true, false);
+        // Check if there are any voyages available.
+        if (buses.isEmpty()) {
+            // Write message if no voyages are available.
+            output.write("No Voyages Available!", true);
+            output.write("----------------", !isLastRow);
 
-                            } else {
-
-                                bus.seatLayout(outputFilePath);
-
-                                Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", bus.getRevenue()), true, true);
-                                Writer.writeToFile(outputFilePath, "----------------", true, true);
-                            }
-                            break;
-                        }
-                    }
-                }
-            }
         } else {
-            // Write seat layout and revenue for each voyage without additional formatting.
-            if (buses.isEmpty()) {
-
-                Writer.writeToFile(outputFilePath, "No Voyages Available!", true, true);
-                Writer.writeToFile(outputFilePath, "----------------", true, true);
-
-            } else {
-
-                ArrayList<Integer> sortedVoyageIDS = new ArrayList<>();
-                for (Bus bus : buses) {
-
-                    sortedVoyageIDS.add(Integer.parseInt(bus.getVoyageID()));
-                }
-                Collections.sort(sortedVoyageIDS);
-
-                for (int i : sortedVoyageIDS) {
-
-                    for (Bus bus : buses) {
-
-                        if ( bus.getVoyageID().contentEquals(Integer.toString(i))) {
-
-                            bus.seatLayout(outputFilePath);
-
-                            Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", bus.getRevenue()), true, true);
-                            Writer.writeToFile(outputFilePath, "----------------", true, true);
-                            break;
-                        }
-                    }
-                }
+            // Write seat layout and revenue for each voyage, sorted by ID from smallest to largest
+            // to comply with the sample io files.
+            int[] sortedVoyageIDs = buses.getSortedVoyageIDs();
+            for (int i = 0; i < sortedVoyageIDs.length; i++) {
+
+                Bus bus = buses.get(sortedVoyageIDs[i]);
+                bus.seatLayout(output);
+
+                output.write(String.format("Revenue: %.2f", bus.getRevenue()), true);
+                // The last line of the last report does not end with a new line.
+                output.write("----------------",
+                        !isLastRow || i < sortedVoyageIDs.length - 1);
             }
         }
     }
@@ -210,45 +144,36 @@ public class Bus {
      * @param voyageID the ID of the voyage for which tickets will be sold
      * @param seatNumbers a string representing the seat numbers to be sold, separated by underscores
      *                    example: "1_2_3" represents selling tickets for seats 1, 2, and 3
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
+     * @param buses the registry of all buses and their voyages
      *              this parameter is used to find the bus associated with the provided voyage ID
-     * @param outputFilePath the path to the output file where the result of the ticket selling will be written
-     *                       his parameter is used for writing the result to the output file
+     * @param output the output where the result of the ticket selling will be written
+     *               his parameter is used for writing the result to the output file
      */
-    public void sellTicket(String voyageID, String seatNumbers, ArrayList<Bus> buses, String outputFilePath) {
-        // Loop through all buses to find the bus associated with the provided voyage ID.
-        for (Bus bus : buses) {
-            // Check if the current bus has the provided voyage ID.
-            if (bus.getVoyageID().contentEquals(voyageID)) {
-                // Variable to store the total price of sold tickets.
-                double priceOfSoldTickets = 0;
-                // Split the seat numbers string into individual seat numbers.
-                String[] seatNumbersForSelling = seatNumbers.split("_");
-                // Loop through each seat number for selling.
-                for (String seatNumber : seatNumbersForSelling) {
-                    // Loop through each seat of the current bus.
-                    for (Seat seat : bus.getSeats()) {
-                        // Check if the current seat matches the seat number for selling.
-                        if (seat.getSeatNumber() == Integer.parseInt(seatNumber)) {
-                            // Check if the seat is available (marked as '*').
-                            if (seat.getSeatSituation() == '*') {
-                                // Mark the seat as sold (marked as 'X').
-                                seat.setSeatSituation('X');
-                                // Add the price of the sold ticket to the total price.
-                                priceOfSoldTickets += seat.getSeatFee();
-                            }
-                            break;
-                        }
-                    }
+    public void sellTicket(String voyageID, String seatNumbers, VoyageRegistry buses, OutputSink output) {
+        // Find the bus associated with the provided voyage ID.
+        Bus bus = buses.get(Integer.parseInt(voyageID));
+        if (bus != null) {
+            // Variable to store the total price of sold tickets.
+            double priceOfSoldTickets = 0;
+            // Split the seat numbers string into individual seat numbers.
+            String[] seatNumbersForSelling = seatNumbers.split("_");
+            // Loop through each seat number for selling.
+            for (String seatNumber : seatNumbersForSelling) {
+                // Find the seat by its number.
+                int number = Integer.parseInt(seatNumber);
+                // Check if the seat exists and is available (marked as '*').
+                if (bus.getSeats().hasSeat(number) && !bus.getSeats().isSold(number)) {
+                    // Mark the seat as sold (marked as 'X').
+                    bus.getSeats().sell(number);
+                    // Add the price of the sold ticket to the total price.
+                    priceOfSoldTickets += bus.getSeats().getSeatFee(number);
                 }
-                // Update the revenue of the bus.
-                bus.revenue += priceOfSoldTickets;
-                // Write the result of the ticket selling to the output file.
-                Writer.writeToFile(outputFilePath, String.format("Seat %s of the Voyage %s from %s to %s was successfully sold for %.2f TL.",
-                        seatNumbers.replaceAll("_", "-"), voyageID, bus.getDeparture(), bus.getDestination(), priceOfSoldTickets), true, true);
-                // Stop searching for the bus associated with the provided voyage ID.
-                break;
             }
+            // Update the revenue of the bus.
+            bus.revenue += priceOfSoldTickets;
+            // Write the result of the ticket selling to the output file.
+            output.write(String.format("Seat %s of the Voyage %s from %s to %s was successfully sold for %.2f TL.",
+                    seatNumbers.replaceAll("_", "-"), voyageID, bus.getDeparture(), bus.getDestination(), priceOfSoldTickets), true);
         }
     }
 
@@ -258,45 +183,36 @@ public class Bus {
      * @param voyageID the ID of the voyage for which tickets will be refunded
      * @param seatNumbers a string representing the seat numbers to be refunded, separated by underscores
      *                    example: "1_2_3" represents refunding tickets for seats 1, 2, and 3
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
+     * @param buses the registry of all buses and their voyages
      *              this parameter is used to find the bus associated with the provided voyage ID
-     * @param outputFilePath the path to the output file where the result of the ticket refunding will be written
-     *                       this parameter is used for writing the result to the output file
+     * @param output the output where the result of the ticket refunding will be written
+     *               this parameter is used for writing the result to the output file
      */
-    public void refundTicket(String voyageID, String seatNumbers, ArrayList<Bus> buses, String outputFilePath) {
-        // Loop through all buses to find the bus associated with the provided voyage ID.
-        for (Bus bus : buses) {
-            // Check if the current bus has the provided voyage ID.
-            if (bus.getVoyageID().contentEquals(voyageID)) {
-                // Variable to store the total price of refunded tickets.
-                double priceOfRefundedTickets = 0;
-                // Split the seat numbers string into individual seat numbers.
-                String[] seatNumbersForSelling = seatNumbers.split("_");
-                // Loop through each seat number for refunding.
-                for (String seatNumber : seatNumbersForSelling) {
-                    // Loop through each seat of the current bus.
-                    for (Seat seat : bus.getSeats()) {
-                        // Check if the current seat matches the seat number for refunding.
-                        if (seat.getSeatNumber() == Integer.parseInt(seatNumber)) {
-                            // Check if the seat is sold (marked as 'X').
-                            if (seat.getSeatSituation() == 'X') {
-                                // Mark the seat as available (marked as '*').
-                                seat.setSeatSituation('*');
-                                // Add the refund amount of the seat to the total refund amount.
-                                priceOfRefundedTickets += seat.getSeatRefundFee();
-                            }
-                            break;
-                        }
-                    }
+    public void refundTicket(String voyageID, String seatNumbers, VoyageRegistry buses, OutputSink output) {
+        // Find the bus associated with the provided voyage ID.
+        Bus bus = buses.get(Integer.parseInt(voyageID));
+        if (bus != null) {
+            // Variable to store the total price of refunded tickets.
+            double priceOfRefundedTickets = 0;
+            // Split the seat numbers string into individual seat numbers.
+            String[] seatNumbersForSelling = seatNumbers.split("_");
+            // Loop through each seat number for refunding.
+            for (String seatNumber : seatNumbersForSelling) {
+                // Find the seat by its number.
+                int number = Integer.parseInt(seatNumber);
+                // Check if the seat exists and is sold (marked as 'X').
+                if (bus.getSeats().hasSeat(number) && bus.getSeats().isSold(number)) {
+                    // Mark the seat as available (marked as '*').
+                    bus.getSeats().refund(number);
+                    // Add the refund amount of the seat to the total refund amount.
+                    priceOfRefundedTickets += bus.getSeats().getSeatRefundFee(number);
                 }
-                // Update the revenue of the bus.
-                bus.revenue -= priceOfRefundedTickets;
-                // Write the result of the ticket refunding to the output file.
-                Writer.writeToFile(outputFilePath, String.format("Seat %s of the Voyage %s from %s to %s was successfully refunded for %.2f TL.",
-                        seatNumbers.replaceAll("_", "-"), voyageID, bus.getDeparture(), bus.getDestination(), priceOfRefundedTickets), true, true);
-                // Stop searching for the bus associated with the provided voyage ID.
-                break;
             }
+            // Update the revenue of the bus.
+            bus.revenue -= priceOfRefundedTickets;
+            // Write the result of the ticket refunding to the output file.
+            output.write(String.format("Seat %s of the Voyage %s from %s to %s was successfully refunded for %.2f TL.",
+                    seatNumbers.replaceAll("_", "-"), voyageID, bus.getDeparture(), bus.getDestination(), priceOfRefundedTickets), true);
         }
     }
 
@@ -304,23 +220,19 @@ public class Bus {
      * Prints the seat layout and revenue information for a specific voyage to the specified output file.
      *
      * @param commandRow a string representing the command row containing information about the voyage
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
-     * @param outputFilePath the path to the output file where the seat layout and revenue information will be written
+     * @param buses the registry of all buses and their voyages
+     * @param output the output where the seat layout and revenue information will be written
      */
-    public void printVoyage(String commandRow, ArrayList<Bus> buses, String outputFilePath) {
+    public void printVoyage(String commandRow, VoyageRegistry buses, OutputSink output) {
         // Split the command row into individual commands.
         String[] commands = commandRow.split("\t");
-        // Loop through all buses to find the bus associated with the provided voyage ID.
-        for (Bus bus : buses) {
-            // Check if the current bus has the provided voyage ID.
-            if (bus.getVoyageID().contentEquals(commands[1])) {
-                // Print the seat layout of the bus to the output file.
-                bus.seatLayout(outputFilePath);
-                // Write the revenue information of the bus to the output file.
-                Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", bus.getRevenue()), true, true);
-                // Stop searching for the bus associated with the provided voyage ID.
-                break;
-            }
+        // Find the bus associated with the provided voyage ID.
+        Bus bus = buses.get(Integer.parseInt(commands[1]));
+        if (bus != null) {
+            // Print the seat layout of the bus to the output file.
+            bus.seatLayout(output);
+            // Write the revenue information of the bus to the output file.
+            output.write(String.format("Revenue: %.2f", bus.getRevenue()), true);
         }
     }
 
@@ -328,30 +240,27 @@ public class Bus {
      * Cancels a specific voyage and refunds all sold tickets for that voyage.
      *
      * @param commandRow a string representing the command row containing information about the voyage
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
-     * @param outputFilePath the path to the output file where the seat layout and revenue information will be written
+     * @param buses the registry of all buses and their voyages
+     * @param output the output where the seat layout and revenue information will be written
      */
-    public void cancellingVoyage(String commandRow, ArrayList<Bus> buses, String outputFilePath) {
+    public void cancellingVoyage(String commandRow, VoyageRegistry buses, OutputSink output) {
         // Split the command row into individual commands.
         String[] commands = commandRow.split("\t");
-        // Loop through all buses to find the bus associated with the provided voyage ID.
-        for (Bus bus : buses) {
-
-            if (bus.getVoyageID().contentEquals(commands[1])) {
-                // Write the cancellation result to the output file.
-                Writer.writeToFile(outputFilePath, String.format("Voyage %S was successfully cancelled!", bus.getVoyageID()), true, true);
-                Writer.writeToFile(outputFilePath, "Voyage details can be found below:", true, true);
-                // Print the seat layout of the bus to the output file.
-                bus.seatLayout(outputFilePath);
-                // Refund all sold tickets for the cancelled voyage.
-                bus.refundAllSeats(bus.getVoyageID(), buses);
-                // Write the revenue information of the cancelled voyage to the output file.
-                Writer.writeToFile(outputFilePath, String.format("Revenue: %.2f", bus.getRevenue()), true, true);
-                // Remove the cancelled bus from the list of buses.
-                buses.remove(bus);
-                // Stop searching for the bus associated with the provided voyage ID.
-                break;
-            }
+        // Find the bus associated with the provided voyage ID.
+        int voyageID = Integer.parseInt(commands[1]);
+        Bus bus = buses.get(voyageID);
+        if (bus != null) {
+            // Write the cancellation result to the output file.
+            output.write(String.format("Voyage %S was successfully cancelled!", bus.getVoyageID()), true);
+            output.write("Voyage details can be found below:", true);
+            // Print the seat layout of the bus to the output file.
+            bus.seatLayout(output);
+            // Refund all sold tickets for the cancelled voyage.
+            bus.refundAllSeats(bus.getVoyageID(), buses);
+            // Write the revenue information of the cancelled voyage to the output file.
+            output.write(String.format("Revenue: %.2f", bus.getRevenue()), true);
+            // Remove the cancelled bus from the registry of buses.
+            buses.remove(voyageID);
         }
     }
 
@@ -359,23 +268,17 @@ public class Bus {
      * Refunds all sold tickets for a specific voyage.
      *
      * @param voyageID the ID of the voyage for which tickets will be refunded
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
+     * @param buses the registry of all buses and their voyages
      */
-    public void refundAllSeats(String voyageID, ArrayList<Bus> buses) {
-        // Loop through all buses to find the bus associated with the provided voyage ID.
-        for (Bus bus : buses) {
-            // Check if the current bus has the provided voyage ID.
-            if (bus.getVoyageID().contentEquals(voyageID)) {
-                // Loop through all seats of the current bus.
-                for (Seat seat : bus.getSeats()) {
-                    // Check if the seat is sold (marked as 'X').
-                    if (seat.getSeatSituation() == 'X') {
-                        // Refund the ticket by deducting its price from the revenue of the bus.
-                        bus.revenue -= seat.getSeatFee();
-                    }
-                }
-                // Stop searching for the bus associated with the provided voyage ID.
-                break;
+    public void refundAllSeats(String voyageID, VoyageRegistry buses) {
+        // Find the bus associated with the provided voyage ID.
+        Bus bus = buses.get(Integer.parseInt(voyageID));
+        if (bus != null) {
+            // Loop through the sold seats (marked as 'X') of the bus in the order of their numbers.
+            for (int number = bus.getSeats().nextSoldSeat(1); number != -1;
+                 number = bus.getSeats().nextSoldSeat(number + 1)) {
+                // Refund the ticket by deducting its price from the revenue of the bus.
+                bus.revenue -= bus.getSeats().getSeatFee(number);
             }
         }
     }
@@ -384,10 +287,10 @@ public class Bus {
      * Reads and processes commands from the provided rows, executing corresponding actions for each command.
      *
      * @param rows an array of strings representing the command rows to be processed
-     * @param buses an ArrayList of Bus objects representing all buses and their voyages
-     * @param outputFilePath the path to the output file where the results of the command processing will be written
+     * @param buses the registry of all buses and their voyages
+     * @param output the output where the results of the command processing will be written
      */
-    private void commandReader(String[] rows, ArrayList<Bus> buses, String outputFilePath) {
+    private void commandReader(String[] rows, VoyageRegistry buses, OutputSink output) {
         // Create an instance of ErrorChecker to check for errors in commands.
         ErrorChecker errorChecker = new ErrorChecker();
         // Counter for keeping track of the row number.
@@ -400,50 +303,53 @@ public class Bus {
             String[] commands = row.split("\t");
             // Check the type of command and execute corresponding action.
             if (commands[0].contentEquals("INIT_VOYAGE") &&
-                    errorChecker.initVoyageChecker(row, commands, buses, outputFilePath)) {
-                // Initialize a new voyage and add it to the list of buses.
+                    errorChecker.initVoyageChecker(row, commands, buses, output)) {
+                // Initialize a new voyage and add it to the registry of buses.
                 Bus bus = busFactory(commands);
-                buses.add(bus);
-                bus.initializeVoyage(row, outputFilePath);
+                buses.put(Integer.parseInt(commands[2]), bus);
+                bus.initializeVoyage(row, output);
 
             } else if (commands[0].contentEquals("Z_REPORT") &&
-                    errorChecker.zReportChecker(row, commands, outputFilePath)) {
+                    errorChecker.zReportChecker(row, commands, output)) {
                 // Generate and print a Z Report.
-                zReport(buses, outputFilePath, rows.length == counter);
+                zReport(buses, output, rows.length == counter);
 
             } else if (commands[0].contentEquals("SELL_TICKET") &&
-                    errorChecker.sellTicketChecker(row, commands, buses, outputFilePath)) {
+                    errorChecker.sellTicketChecker(row, commands, buses, output)) {
                 // Sell tickets for a specific voyage.
-                sellTicket(commands[1], commands[2], buses, outputFilePath);
+                sellTicket(commands[1], commands[2], buses, output);
 
             } else if (commands[0].contentEquals("REFUND_TICKET") &&
-                    errorChecker.refundTicketChecker(row, commands, buses, outputFilePath)) {
+                    errorChecker.refundTicketChecker(row, commands, buses, output)) {
                 // Refund tickets for a specific voyage.
-                refundTicket(commands[1], commands[2], buses, outputFilePath);
+                refundTicket(commands[1], commands[2], buses, output);
 
             } else if (commands[0].contentEquals("PRINT_VOYAGE") &&
-                    errorChecker.printVoyageChecker(row, commands, buses, outputFilePath)) {
+                    errorChecker.printVoyageChecker(row, commands, buses, output)) {
                 // Print details of a specific voyage.
-                printVoyage(row, buses, outputFilePath);
+                printVoyage(row, buses, output);
 
             } else if (commands[0].contentEquals("CANCEL_VOYAGE") &&
-                    errorChecker.cancelVoyageChecker(row, commands, buses, outputFilePath)) {
+                    errorChecker.cancelVoyageChecker(row, commands, buses, output)) {
                 // Cancel a specific voyage.
-                cancellingVoyage(row, buses, outputFilePath);
+                cancellingVoyage(row, buses, output);
             } else if (!commands[0].contentEquals("INIT_VOYAGE") && !commands[0].contentEquals("Z_REPORT") &&
                     !commands[0].contentEquals("SELL_TICKET") &&
                     !commands[0].contentEquals("REFUND_TICKET") &&
                     !commands[0].contentEquals("PRINT_VOYAGE") &&
                     !commands[0].contentEquals("CANCEL_VOYAGE")) {
                 // Handle unrecognized commands.
-                Writer.writeToFile(outputFilePath, String.format("COMMAND: %s", row), true, true);
-                Writer.writeToFile(outputFilePath, String.format("ERROR: There is no command namely %s!", commands[0]), true, true);
+                output.write(String.format("COMMAND: %s", row), true);
+                output.write(String.format("ERROR: There is no command namely %s!", commands[0]), true);
             }
+            // The output of the command is complete.
+            output.endCommand();
         }
         // If there are no rows or the last row does not end with "Z_REPORT", generate a final Z Report.
         if (rows.length == 0 || !rows[rows.length - 1].endsWith("Z_REPORT")) {
 
-            zReport(buses, outputFilePath, true);
+            zReport(buses, output, true);
+            output.endCommand();
         }
     }
 
@@ -511,11 +417,11 @@ public class Bus {
     }
 
     /**
-     * Gets the list of seats in the bus.
+     * Gets the seats of the bus.
      *
-     * @return the list of seats in the bus
+     * @return the seats of the bus
      */
-    public ArrayList<Seat> getSeats() {
+    public SeatMap getSeats() {
         return seats;
     }
 }
\ No newline at end of file
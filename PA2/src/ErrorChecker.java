@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-
 /**
  * ErrorChecker class provides methods to check for errors in different commands related to bus operations.
  */
@@ -10,29 +8,29 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param buses           The list of buses.
-     * @param outputFilePath  The file path for the output.
+     * @param buses           The registry of buses.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean initVoyageChecker(String commandRow, String[] commandsRow, ArrayList<Bus> buses, String outputFilePath) {
+    public boolean initVoyageChecker(String commandRow, String[] commandsRow, VoyageRegistry buses, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow[1].contentEquals("Premium")) {
 
-            return sortCheckerForInitVoyageChecker(commandsRow,buses,outputFilePath,"Premium");
+            return sortCheckerForInitVoyageChecker(commandsRow,buses,output,"Premium");
 
         } else if (commandsRow[1].contentEquals("Standard")) {
 
-            return sortCheckerForInitVoyageChecker(commandsRow,buses,outputFilePath,"Standard");
+            return sortCheckerForInitVoyageChecker(commandsRow,buses,output,"Standard");
 
         } else if (commandsRow[1].contentEquals("Minibus")) {
 
-            return sortCheckerForInitVoyageChecker(commandsRow,buses,outputFilePath,"Minibus");
+            return sortCheckerForInitVoyageChecker(commandsRow,buses,output,"Minibus");
 
         } else {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true);
             return false;
         }
     }
@@ -42,12 +40,12 @@ public class ErrorChecker {
      * Writes error messages to a specified output file if any checks fail.
      *
      * @param commandsRow An array of strings representing command parameters
-     * @param buses An ArrayList of Bus objects to check for existing voyages with the same ID
-     * @param outputFilePath The file path where error messages or logs are written
+     * @param buses The registry of buses to check for existing voyages with the same ID
+     * @param output The output where error messages or logs are written
      * @param busType The type of bus, which can affect validation rules (e.g., "Premium" or "Standard")
      * @return true if the voyage is successfully initialized without any validation errors, otherwise false
      */
-    public boolean sortCheckerForInitVoyageChecker(String[] commandsRow, ArrayList<Bus> buses, String outputFilePath, String busType) {
+    public boolean sortCheckerForInitVoyageChecker(String[] commandsRow, VoyageRegistry buses, OutputSink output, String busType) {
 
         try {
             try {
@@ -55,22 +53,19 @@ public class ErrorChecker {
                 int voyageId = Integer.parseInt(commandsRow[2]);
                 if (voyageId <= 0) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[2]), true, true);
+                    output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[2]), true);
                     return false;
                 }
             } catch (Exception e) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[2]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[2]), true);
                 return false;
             }
 
-            for (Bus bus : buses) {
-
-                if (bus.getVoyageID().contentEquals(commandsRow[2])) {
+            if (buses.contains(Integer.parseInt(commandsRow[2]))) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: There is already a voyage with ID of %s!", commandsRow[2]), true, true);
-                    return false;
-                }
+                output.write(String.format("ERROR: There is already a voyage with ID of %s!", commandsRow[2]), true);
+                return false;
             }
 
             try {
@@ -78,12 +73,12 @@ public class ErrorChecker {
                 int seatRows = Integer.parseInt(commandsRow[5]);
                 if (seatRows <= 0) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, number of seat rows of a voyage must be a positive integer!", commandsRow[5]), true, true);
+                    output.write(String.format("ERROR: %s is not a positive integer, number of seat rows of a voyage must be a positive integer!", commandsRow[5]), true);
                     return false;
                 }
             } catch (Exception e) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, number of seat rows of a voyage must be a positive integer!", commandsRow[5]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, number of seat rows of a voyage must be a positive integer!", commandsRow[5]), true);
                 return false;
             }
 
@@ -92,12 +87,12 @@ public class ErrorChecker {
                 double seatPrice = Double.parseDouble(commandsRow[6]);
                 if (seatPrice <= 0) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive number, price must be a positive number!", commandsRow[6]), true, true);
+                    output.write(String.format("ERROR: %s is not a positive number, price must be a positive number!", commandsRow[6]), true);
                     return false;
                 }
             } catch (Exception e) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive number, price must be a positive number!", commandsRow[6]), true, true);
+                output.write(String.format("ERROR: %s is not a positive number, price must be a positive number!", commandsRow[6]), true);
                 return false;
             }
 
@@ -108,12 +103,12 @@ public class ErrorChecker {
                     int refundCut = Integer.parseInt(commandsRow[7]);
                     if (refundCut < 0 || 100 < refundCut) {
 
-                        Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true, true);
+                        output.write(String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true);
                         return false;
                     }
                 } catch (Exception e) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true, true);
+                    output.write(String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true);
                     return false;
                 }
 
@@ -122,18 +117,18 @@ public class ErrorChecker {
                     int premiumFee = Integer.parseInt(commandsRow[8]);
                     if (premiumFee < 0) {
 
-                        Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a non-negative integer, premium fee must be a non-negative integer!", commandsRow[8]), true, true);
+                        output.write(String.format("ERROR: %s is not a non-negative integer, premium fee must be a non-negative integer!", commandsRow[8]), true);
                         return false;
                     }
 
                     if (commandsRow.length != 9) {
 
-                        Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true, true);
+                        output.write("ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true);
                         return false;
                     }
                 } catch (Exception e) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a non-negative integer, premium fee must be a non-negative integer!", commandsRow[8]), true, true);
+                    output.write(String.format("ERROR: %s is not a non-negative integer, premium fee must be a non-negative integer!", commandsRow[8]), true);
                     return false;
                 }
 
@@ -144,31 +139,31 @@ public class ErrorChecker {
                     int refundCut = Integer.parseInt(commandsRow[7]);
                     if (refundCut < 0 || 100 < refundCut) {
 
-                        Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true, true);
+                        output.write(String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true);
                         return false;
                     }
 
                     if (commandsRow.length != 8) {
 
-                        Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true, true);
+                        output.write("ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true);
                         return false;
                     }
                 } catch (Exception e) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true, true);
+                    output.write(String.format("ERROR: %s is not an integer that is in range of [0, 100], refund cut must be an integer that is in range of [0, 100]!", commandsRow[7]), true);
                     return false;
                 }
             } else {
 
                 if (commandsRow.length != 7) {
 
-                    Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true, true);
+                    output.write("ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true);
                     return false;
                 }
             }
         } catch (ArrayIndexOutOfBoundsException e) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"INIT_VOYAGE\" command!", true);
             return false;
         }
         return true;
@@ -179,16 +174,16 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param outputFilePath  The file path for the output.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean zReportChecker(String commandRow, String[] commandsRow, String outputFilePath) {
+    public boolean zReportChecker(String commandRow, String[] commandsRow, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow.length != 1) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"Z_REPORT\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"Z_REPORT\" command!", true);
             return false;
         }
 
@@ -200,17 +195,17 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param buses           The list of buses.
-     * @param outputFilePath  The file path for the output.
+     * @param buses           The registry of buses.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean sellTicketChecker(String commandRow, String[] commandsRow, ArrayList<Bus> buses, String outputFilePath) {
+    public boolean sellTicketChecker(String commandRow, String[] commandsRow, VoyageRegistry buses, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow.length != 3) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"SELL_TICKET\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"SELL_TICKET\" command!", true);
             return false;
         }
 
@@ -219,28 +214,18 @@ public class ErrorChecker {
             int voyageId = Integer.parseInt(commandsRow[1]);
             if (voyageId <= 0) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
                 return false;
             }
 
-            boolean hasABusWithId = false;
-            for (Bus bus : buses) {
-
-                if (bus.getVoyageID().contentEquals(commandsRow[1])) {
-
-                    hasABusWithId = true;
-                    break;
-                }
-            }
-
-            if (!hasABusWithId) {
+            if (!buses.contains(voyageId)) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true);
                 return false;
             }
         } catch (Exception e) {
 
-            Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+            output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
             return false;
         }
 
@@ -252,41 +237,25 @@ public class ErrorChecker {
                 int numberOfSeat = Integer.parseInt(seatNumber);
                 if (numberOfSeat <= 0) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true, true);
+                    output.write(String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true);
                     return false;
                 }
 
-                boolean isThereSeat = false;
-                for (Bus bus : buses) {
+                SeatMap seats = buses.get(Integer.parseInt(commandsRow[1])).getSeats();
+                if (seats.hasSeat(numberOfSeat) && seats.isSold(numberOfSeat)) {
 
-                    if (bus.getVoyageID().contentEquals(commandsRow[1])) {
-
-                        for (Seat seat : bus.getSeats()) {
-
-                            if (seat.getSeatNumber() == numberOfSeat) {
-
-                                if (seat.getSeatSituation() == 'X') {
-
-                                    Writer.writeToFile(outputFilePath, "ERROR: One or more seats already sold!", true, true);
-                                    return false;
-
-                                }
-                                isThereSeat = true;
-                                break;
-                            }
-                        }
-                        break;
-                    }
+                    output.write("ERROR: One or more seats already sold!", true);
+                    return false;
                 }
 
-                if (!isThereSeat) {
+                if (!seats.hasSeat(numberOfSeat)) {
 
-                    Writer.writeToFile(outputFilePath, "ERROR: There is no such a seat!", true, true);
+                    output.write("ERROR: There is no such a seat!", true);
                     return false;
                 }
             } catch (Exception e) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true);
                 return false;
             }
         }
@@ -298,17 +267,17 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param buses           The list of buses.
-     * @param outputFilePath  The file path for the output.
+     * @param buses           The registry of buses.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean refundTicketChecker(String commandRow, String[] commandsRow, ArrayList<Bus> buses, String outputFilePath) {
+    public boolean refundTicketChecker(String commandRow, String[] commandsRow, VoyageRegistry buses, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow.length != 3) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"REFUND_TICKET\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"REFUND_TICKET\" command!", true);
             return false;
         }
 
@@ -317,33 +286,25 @@ public class ErrorChecker {
             int voyageId = Integer.parseInt(commandsRow[1]);
             if (voyageId <= 0) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
                 return false;
             }
 
-            boolean hasABusWithId = false;
-            for (Bus bus : buses) {
-
-                if (bus.getVoyageID().contentEquals(commandsRow[1])) {
+            Bus bus = buses.get(voyageId);
+            if (bus == null) {
 
-                    if (bus.getBusType().contentEquals("Minibus")) {
-
-                        Writer.writeToFile(outputFilePath, "ERROR: Minibus tickets are not refundable!", true, true);
-                        return false;
-                    }
-                    hasABusWithId = true;
-                    break;
-                }
+                output.write(String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true);
+                return false;
             }
 
-            if (!hasABusWithId) {
+            if (bus.getBusType().contentEquals("Minibus")) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true, true);
+                output.write("ERROR: Minibus tickets are not refundable!", true);
                 return false;
             }
         } catch (Exception e) {
 
-            Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+            output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
             return false;
         }
 
@@ -355,41 +316,25 @@ public class ErrorChecker {
                 int numberOfSeat = Integer.parseInt(seatNumber);
                 if (numberOfSeat <= 0) {
 
-                    Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true, true);
+                    output.write(String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true);
                     return false;
                 }
 
-                boolean isThereSeat = false;
-                for (Bus bus : buses) {
-
-                    if (bus.getVoyageID().contentEquals(commandsRow[1])) {
-
-                        for (Seat seat : bus.getSeats()) {
+                SeatMap seats = buses.get(Integer.parseInt(commandsRow[1])).getSeats();
+                if (seats.hasSeat(numberOfSeat) && !seats.isSold(numberOfSeat)) {
 
-                            if (seat.getSeatNumber() == numberOfSeat) {
-
-                                if (seat.getSeatSituation() == '*') {
-
-                                    Writer.writeToFile(outputFilePath, "ERROR: One or more seats are already empty!", true, true);
-                                    return false;
-
-                                }
-                                isThereSeat = true;
-                                break;
-                            }
-                        }
-                        break;
-                    }
+                    output.write("ERROR: One or more seats are already empty!", true);
+                    return false;
                 }
 
-                if (!isThereSeat) {
+                if (!seats.hasSeat(numberOfSeat)) {
 
-                    Writer.writeToFile(outputFilePath, "ERROR: There is no such a seat!", true, true);
+                    output.write("ERROR: There is no such a seat!", true);
                     return false;
                 }
             } catch (Exception e) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, seat number must be a positive integer!", seatNumber), true);
                 return false;
             }
         }
@@ -401,17 +346,17 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param buses           The list of buses.
-     * @param outputFilePath  The file path for the output.
+     * @param buses           The registry of buses.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean cancelVoyageChecker(String commandRow, String[] commandsRow, ArrayList<Bus> buses, String outputFilePath) {
+    public boolean cancelVoyageChecker(String commandRow, String[] commandsRow, VoyageRegistry buses, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow.length != 2) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"CANCEL_VOYAGE\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"CANCEL_VOYAGE\" command!", true);
             return false;
         }
 
@@ -420,28 +365,18 @@ public class ErrorChecker {
             int voyageId = Integer.parseInt(commandsRow[1]);
             if (voyageId <= 0) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
                 return false;
             }
 
-            boolean hasABusWithId = false;
-            for (Bus bus : buses) {
+            if (!buses.contains(voyageId)) {
 
-                if (bus.getVoyageID().contentEquals(commandsRow[1])) {
-
-                    hasABusWithId = true;
-                    break;
-                }
-            }
-
-            if (!hasABusWithId) {
-
-                Writer.writeToFile(outputFilePath, String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true);
                 return false;
             }
         } catch (Exception e) {
 
-            Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+            output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
             return false;
         }
         return true;
@@ -453,17 +388,17 @@ public class ErrorChecker {
      *
      * @param commandRow      The entire command row.
      * @param commandsRow     An array of individual command elements.
-     * @param buses           The list of buses.
-     * @param outputFilePath  The file path for the output.
+     * @param buses           The registry of buses.
+     * @param output          The output of the booking system.
      * @return true if there are no errors, false otherwise.
      */
-    public boolean printVoyageChecker(String commandRow, String[] commandsRow, ArrayList<Bus> buses, String outputFilePath) {
+    public boolean printVoyageChecker(String commandRow, String[] commandsRow, VoyageRegistry buses, OutputSink output) {
 
-        Writer.writeToFile(outputFilePath, "COMMAND: " + commandRow, true, true);
+        output.write("COMMAND: " + commandRow, true);
 
         if (commandsRow.length != 2) {
 
-            Writer.writeToFile(outputFilePath, "ERROR: Erroneous usage of \"PRINT_VOYAGE\" command!", true, true);
+            output.write("ERROR: Erroneous usage of \"PRINT_VOYAGE\" command!", true);
             return false;
         }
 
@@ -472,28 +407,18 @@ public class ErrorChecker {
             int voyageId = Integer.parseInt(commandsRow[1]);
             if (voyageId <= 0) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
                 return false;
             }
 
-            boolean hasABusWithId = false;
-            for (Bus bus : buses) {
-
-                if (bus.getVoyageID().contentEquals(commandsRow[1])) {
-
-                    hasABusWithId = true;
-                    break;
-                }
-            }
-
-            if (!hasABusWithId) {
+            if (!buses.contains(voyageId)) {
 
-                Writer.writeToFile(outputFilePath, String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true, true);
+                output.write(String.format("ERROR: There is no voyage with ID of %s!", commandsRow[1]), true);
                 return false;
             }
         } catch (Exception e) {
 
-            Writer.writeToFile(outputFilePath, String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true, true);
+            output.write(String.format("ERROR: %s is not a positive integer, ID of a voyage must be a positive integer!", commandsRow[1]), true);
             return false;
         }
         return true;
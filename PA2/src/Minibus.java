@@ -25,33 +25,31 @@ public class Minibus extends Bus{
      */
     @Override
     public void addSeats() {
-        int seatNumberCounter = 1;
-        for(int i = 0; i < this.getSeatRows() * 2; i++) {
-            seats.add(new Seat(this.getSeatFee(), seatNumberCounter));
-            seatNumberCounter++;
-        }
+        // Minibus tickets are not refundable, so the seats have no refund fee.
+        seats = new SeatMap(this.getSeatRows() * 2, this.getSeatFee(), 0);
     }
 
     /**
      * Generates the seat layout of the minibus.
      *
-     * @param outputFilePath The path to the output file where the seat layout will be written.
+     * @param output The output where the seat layout will be written.
      */
     @Override
-    public void seatLayout(String outputFilePath) {
+    public void seatLayout(OutputSink output) {
         // Write voyage details.
-        Writer.writeToFile(outputFilePath, String.format("Voyage %s", this.getVoyageID()), true, true);
-        Writer.writeToFile(outputFilePath, String.format("%s-%s", this.getDeparture(), this.getDestination()), true, true);
+        output.write(String.format("Voyage %s", this.getVoyageID()), true);
+        output.write(String.format("%s-%s", this.getDeparture(), this.getDestination()), true);
         // Write seat layout.
-        for (Seat seat : this.getSeats()) {
+        for (int seatNumber = 1; seatNumber <= this.getSeats().getSeatCount(); seatNumber++) {
 
-            if (seat.getSeatNumber() % 2 == 0) {
+            char seatSituation = this.getSeats().getSeatSituation(seatNumber);
+            if (seatNumber % 2 == 0) {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + "", true, true);
+                output.write(seatSituation + "", true);
 
             } else {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + " ", true, false);
+                output.write(seatSituation + " ", false);
             }
         }
     }
@@ -60,12 +58,12 @@ public class Minibus extends Bus{
      * Initializes the voyage of the minibus.
      *
      * @param row            The command row representing the voyage details.
-     * @param outputFilePath The path to the output file where the initialization message will be written.
+     * @param output The output where the initialization message will be written.
      */
     @Override
-    public void initializeVoyage(String row, String outputFilePath) {
+    public void initializeVoyage(String row, OutputSink output) {
         // Write initialization message.
-        Writer.writeToFile(outputFilePath, String.format("Voyage %s was initialized as a minibus (2) voyage from %s to %s with %.2f TL priced %d regular seats. Note that minibus tickets are not refundable.",
-                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 2), true, true);
+        output.write(String.format("Voyage %s was initialized as a minibus (2) voyage from %s to %s with %.2f TL priced %d regular seats. Note that minibus tickets are not refundable.",
+                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 2), true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * OutputSink class writes the output of the booking system to a file through one buffer.
+ * The output file is opened once, when the first bytes are written, and the text is collected and written
+ * in large blocks instead of opening and closing the file for every line.
+ * The text is encoded with the default charset, like a PrintStream does, so the written bytes are the same.
+ * In durable mode the collected text is written and forced to the disk at the end of every command,
+ * so the output of a finished command is never lost.
+ */
+public class OutputSink implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16; // Number of characters collected before they are encoded.
+
+    private final String path; // Path of the output file.
+    private final boolean durable; // Whether the output is forced to the disk after every command.
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE); // Characters that are not encoded yet.
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(4 * BUFFER_SIZE); // Encoded bytes that are not written yet.
+    private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private FileChannel channel; // The output file, null until the first bytes are written.
+    private boolean failed; // Whether the file could not be written, in which case the rest of the output is dropped.
+
+    /**
+     * Constructs a new OutputSink object for the given file. The file is not opened yet.
+     *
+     * @param path    The path of the output file, which is appended to.
+     * @param durable Whether the output is forced to the disk at the end of every command.
+     */
+    public OutputSink(String path, boolean durable) {
+        this.path = path;
+        this.durable = durable;
+    }
+
+    /**
+     * Writes the given content to the output.
+     *
+     * @param content Content that is going to be written.
+     * @param newLine True if wanted to append a new line after content, false if vice versa.
+     */
+    public void write(String content, boolean newLine) {
+        int written = 0;
+        while (written < content.length()) {
+
+            if (!chars.hasRemaining()) {
+
+                encode(false);
+            }
+            int count = Math.min(content.length() - written, chars.remaining());
+            chars.put(content, written, written + count);
+            written += count;
+        }
+        if (newLine) {
+
+            if (!chars.hasRemaining()) {
+
+                encode(false);
+            }
+            chars.put('\n');
+        }
+    }
+
+    /**
+     * Marks the end of a command. In durable mode the output so far is written and forced to the disk.
+     */
+    public void endCommand() {
+        if (durable) {
+
+            flush();
+            try {
+
+                if (channel != null) {
+
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+
+                printError();
+            }
+        }
+    }
+
+    /**
+     * Writes all the collected content to the file.
+     */
+    public void flush() {
+        encode(true);
+    }
+
+    /**
+     * Writes all the collected content to the file and closes it.
+     */
+    @Override
+    public void close() {
+        flush();
+        if (channel != null) {
+
+            try {
+
+                channel.close();
+            } catch (IOException e) {
+
+                printError();
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Encodes the collected characters and writes their bytes. A character that is split in two halves
+     * at the end of the buffer is kept until its second half is written, unless the output is flushed.
+     *
+     * @param flush Whether every collected character is written.
+     */
+    private void encode(boolean flush) {
+        chars.flip();
+        while (encoder.encode(chars, bytes, flush).isOverflow()) {
+
+            writeBytes();
+        }
+        if (flush) {
+
+            CoderResult result = encoder.flush(bytes);
+            while (result.isOverflow()) {
+
+                writeBytes();
+                result = encoder.flush(bytes);
+            }
+            encoder.reset();
+        }
+        chars.compact();
+        writeBytes();
+    }
+
+    /**
+     * Writes the encoded bytes to the file and opens the file first if it is not open.
+     */
+    private void writeBytes() {
+        bytes.flip();
+        try {
+
+            if (bytes.hasRemaining() && !failed) {
+
+                if (channel == null) {
+
+                    channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND);
+                }
+                while (bytes.hasRemaining()) {
+
+                    channel.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+
+            failed = true;
+            printError();
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Prints the error of a file that cannot be written.
+     */
+    private void printError() {
+        System.out.println(String.format("ERROR: This program cannot write to the \"%s\", ", path) +
+                "please check the permissions to write that directory. " +
+                "Program is going to terminate!");
+    }
+}
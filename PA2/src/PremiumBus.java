@@ -34,45 +34,36 @@ public class PremiumBus extends Bus {
     @Override
     public void addSeats() {
 
-        int seatNumber = 1;
-        for(int i = 0; i < this.getSeatRows() * 3; i++) {
-
-            if(seatNumber % 3 == 1) {
-
-                this.seats.add(new PremiumSeat(this.getPremiumSeatFee(), seatNumber, this.getRefundCut()));
-                seatNumber++;
-            } else if (seatNumber % 3 != 1) {
-
-                seats.add(new Seat(this.getSeatFee(), seatNumber, this.getRefundCut()));
-                seatNumber++;
-            }
-        }
+        seats = new SeatMap(this.getSeatRows() * 3,
+                this.getSeatFee(), (this.getSeatFee() * (100 - this.getRefundCut())) / 100,
+                this.getPremiumSeatFee(), (this.getPremiumSeatFee() * (100 - this.getRefundCut())) / 100, 3);
     }
 
     /**
      * Generates the seat layout of the bus.
      *
-     * @param outputFilePath the path to the output file where the seat layout will be written
+     * @param output the output where the seat layout will be written
      */
     @Override
-    public void seatLayout(String outputFilePath) {
+    public void seatLayout(OutputSink output) {
         // Write voyage details.
-        Writer.writeToFile(outputFilePath, String.format("Voyage %s", this.getVoyageID()), true, true);
-        Writer.writeToFile(outputFilePath, String.format("%s-%s", this.getDeparture(), this.getDestination()), true, true);
+        output.write(String.format("Voyage %s", this.getVoyageID()), true);
+        output.write(String.format("%s-%s", this.getDeparture(), this.getDestination()), true);
         // Write seat layout.
-        for (Seat seat : this.getSeats()) {
+        for (int seatNumber = 1; seatNumber <= this.getSeats().getSeatCount(); seatNumber++) {
 
-            if (seat.getSeatNumber() % 3 == 0) {
+            char seatSituation = this.getSeats().getSeatSituation(seatNumber);
+            if (seatNumber % 3 == 0) {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + "", true, true);
+                output.write(seatSituation + "", true);
 
-            } else if (seat.getSeatNumber() % 3 == 1) {
+            } else if (seatNumber % 3 == 1) {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + " | ", true, false);
+                output.write(seatSituation + " | ", false);
 
             } else {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + " ", true, false);
+                output.write(seatSituation + " ", false);
             }
         }
     }
@@ -81,13 +72,13 @@ public class PremiumBus extends Bus {
      * Initializes the voyage of the bus with premium seats.
      *
      * @param row             the command row representing the voyage details
-     * @param outputFilePath  the path to the output file where the initialization message will be written
+     * @param output  the output where the initialization message will be written
      */
     @Override
-    public void initializeVoyage(String row, String outputFilePath) {
+    public void initializeVoyage(String row, OutputSink output) {
         // Write initialization message.
-        Writer.writeToFile(outputFilePath, String.format("Voyage %s was initialized as a premium (1+2) voyage from %s to %s with %.2f TL priced %d regular seats and %.2f TL priced %d premium seats. Note that refunds will be %d%s less than the paid amount.",
-                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 2, this.getPremiumSeatFee(), this.getSeatRows(), (int)this.getRefundCut(), "%"), true, true);
+        output.write(String.format("Voyage %s was initialized as a premium (1+2) voyage from %s to %s with %.2f TL priced %d regular seats and %.2f TL priced %d premium seats. Note that refunds will be %d%s less than the paid amount.",
+                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 2, this.getPremiumSeatFee(), this.getSeatRows(), (int)this.getRefundCut(), "%"), true);
     }
 
     /**
@@ -0,0 +1,160 @@
+/**
+ * SeatMap class represents the seats of a bus.
+ * A seat is found by its number in constant time, and whether a seat is sold is kept as one bit of a long array,
+ * so a bus of many seats takes only a few bytes per eight seats.
+ * The fees are kept per seat class instead of per seat: a seat is either a regular seat or a premium seat,
+ * and the premium seats are the first seat of every group of seats of the given size.
+ */
+public class SeatMap {
+
+    private final int seatCount; // Number of seats, numbered from 1.
+    private final long[] soldSeats; // Bit (n - 1) is set if seat n is sold.
+    private final double seatFee; // Fee of the regular seats.
+    private final double seatRefundFee; // Refund fee of the regular seats.
+    private final double premiumSeatFee; // Fee of the premium seats.
+    private final double premiumSeatRefundFee; // Refund fee of the premium seats.
+    private final int premiumGroupSize; // Size of the groups whose first seat is premium, 0 if there are no premium seats.
+
+    /**
+     * Constructs a new SeatMap object with regular seats only.
+     *
+     * @param seatCount     The number of seats.
+     * @param seatFee       The fee for the seats.
+     * @param seatRefundFee The refund fee for the seats.
+     */
+    public SeatMap(int seatCount, double seatFee, double seatRefundFee) {
+        this(seatCount, seatFee, seatRefundFee, 0, 0, 0);
+    }
+
+    /**
+     * Constructs a new SeatMap object with regular and premium seats.
+     *
+     * @param seatCount            The number of seats.
+     * @param seatFee              The fee for the regular seats.
+     * @param seatRefundFee        The refund fee for the regular seats.
+     * @param premiumSeatFee       The fee for the premium seats.
+     * @param premiumSeatRefundFee The refund fee for the premium seats.
+     * @param premiumGroupSize     The size of the groups of seats whose first seat is premium,
+     *                             for example 3 for seats 1, 4, 7 and so on, or 0 for no premium seats.
+     */
+    public SeatMap(int seatCount, double seatFee, double seatRefundFee,
+                   double premiumSeatFee, double premiumSeatRefundFee, int premiumGroupSize) {
+        this.seatCount = seatCount;
+        this.soldSeats = new long[(seatCount + 63) >>> 6];
+        this.seatFee = seatFee;
+        this.seatRefundFee = seatRefundFee;
+        this.premiumSeatFee = premiumSeatFee;
+        this.premiumSeatRefundFee = premiumSeatRefundFee;
+        this.premiumGroupSize = premiumGroupSize;
+    }
+
+    /**
+     * Gets the number of seats.
+     *
+     * @return The number of seats.
+     */
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    /**
+     * Checks whether there is a seat with the given number.
+     *
+     * @param seatNumber The number of the seat.
+     * @return true if the seat exists, false otherwise.
+     */
+    public boolean hasSeat(int seatNumber) {
+        return 1 <= seatNumber && seatNumber <= seatCount;
+    }
+
+    /**
+     * Checks whether a seat is sold.
+     *
+     * @param seatNumber The number of the seat.
+     * @return true if the seat is sold, false if it is available.
+     */
+    public boolean isSold(int seatNumber) {
+        return (soldSeats[(seatNumber - 1) >>> 6] & (1L << (seatNumber - 1))) != 0;
+    }
+
+    /**
+     * Marks a seat as sold.
+     *
+     * @param seatNumber The number of the seat.
+     */
+    public void sell(int seatNumber) {
+        soldSeats[(seatNumber - 1) >>> 6] |= 1L << (seatNumber - 1);
+    }
+
+    /**
+     * Marks a seat as available.
+     *
+     * @param seatNumber The number of the seat.
+     */
+    public void refund(int seatNumber) {
+        soldSeats[(seatNumber - 1) >>> 6] &= ~(1L << (seatNumber - 1));
+    }
+
+    /**
+     * Gets the situation of a seat as it is shown in the seat layout.
+     *
+     * @param seatNumber The number of the seat.
+     * @return 'X' if the seat is sold, '*' if it is available.
+     */
+    public char getSeatSituation(int seatNumber) {
+        return isSold(seatNumber) ? 'X' : '*';
+    }
+
+    /**
+     * Checks whether a seat is a premium seat.
+     *
+     * @param seatNumber The number of the seat.
+     * @return true if the seat is a premium seat, false if it is a regular seat.
+     */
+    public boolean isPremium(int seatNumber) {
+        return premiumGroupSize > 0 && (seatNumber - 1) % premiumGroupSize == 0;
+    }
+
+    /**
+     * Gets the fee for a seat.
+     *
+     * @param seatNumber The number of the seat.
+     * @return The fee for the seat.
+     */
+    public double getSeatFee(int seatNumber) {
+        return isPremium(seatNumber) ? premiumSeatFee : seatFee;
+    }
+
+    /**
+     * Gets the refund fee for a seat.
+     *
+     * @param seatNumber The number of the seat.
+     * @return The refund fee for the seat.
+     */
+    public double getSeatRefundFee(int seatNumber) {
+        return isPremium(seatNumber) ? premiumSeatRefundFee : seatRefundFee;
+    }
+
+    /**
+     * Gets the number of the first sold seat from the given seat on.
+     * The sold seats are found a long of the bit array at a time.
+     *
+     * @param seatNumber The number of the seat to start from.
+     * @return The number of the first sold seat, or -1 if no seat from the given one on is sold.
+     */
+    public int nextSoldSeat(int seatNumber) {
+        int index = seatNumber - 1;
+        if (index >= seatCount) {
+            return -1;
+        }
+        int word = index >>> 6;
+        long bits = soldSeats[word] & (-1L << index);
+        while (bits == 0) {
+            if (++word == soldSeats.length) {
+                return -1;
+            }
+            bits = soldSeats[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits) + 1;
+    }
+}
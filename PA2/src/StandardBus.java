@@ -27,42 +27,39 @@ public class StandardBus extends Bus {
     }
 
     /**
-     * Adds seats to the standard bus, each row having two regular seats.
+     * Adds seats to the standard bus, each row having four regular seats.
      */
     @Override
     public void addSeats() {
 
-        int seatNumberCounter = 1;
-        for(int i = 0; i < this.getSeatRows() * 4; i++) {
-            seats.add(new Seat(this.getSeatFee(), seatNumberCounter, this.getRefundCut()));
-            seatNumberCounter++;
-        }
+        seats = new SeatMap(this.getSeatRows() * 4, this.getSeatFee(), this.seatRefundFee);
     }
 
     /**
      * Generates the seat layout of the standard bus.
      *
-     * @param outputFilePath The path to the output file where the seat layout will be written.
+     * @param output The output where the seat layout will be written.
      */
     @Override
-    public void seatLayout(String outputFilePath) {
+    public void seatLayout(OutputSink output) {
         // Write voyage details
-        Writer.writeToFile(outputFilePath, String.format("Voyage %s", this.getVoyageID()), true, true);
-        Writer.writeToFile(outputFilePath, String.format("%s-%s", this.getDeparture(), this.getDestination()), true, true);
+        output.write(String.format("Voyage %s", this.getVoyageID()), true);
+        output.write(String.format("%s-%s", this.getDeparture(), this.getDestination()), true);
         // Write seat layout
-        for (Seat seat : this.getSeats()) {
+        for (int seatNumber = 1; seatNumber <= this.getSeats().getSeatCount(); seatNumber++) {
 
-            if (seat.getSeatNumber() % 4 == 0) {
+            char seatSituation = this.getSeats().getSeatSituation(seatNumber);
+            if (seatNumber % 4 == 0) {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + "", true, true);
+                output.write(seatSituation + "", true);
 
-            } else if (seat.getSeatNumber() % 2 == 0) {
+            } else if (seatNumber % 2 == 0) {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + " | ", true, false);
+                output.write(seatSituation + " | ", false);
 
             } else {
 
-                Writer.writeToFile(outputFilePath, seat.getSeatSituation() + " ", true, false);
+                output.write(seatSituation + " ", false);
             }
         }
     }
@@ -71,13 +68,13 @@ public class StandardBus extends Bus {
      * Initializes the voyage of the standard bus.
      *
      * @param row            The command row representing the voyage details.
-     * @param outputFilePath The path to the output file where the initialization message will be written.
+     * @param output The output where the initialization message will be written.
      */
     @Override
-    public void initializeVoyage(String row, String outputFilePath) {
+    public void initializeVoyage(String row, OutputSink output) {
         // Write initialization message.
-        Writer.writeToFile(outputFilePath, String.format("Voyage %S was initialized as a standard (2+2) voyage from %s to %s with %.2f TL priced %d regular seats. Note that refunds will be %d%s less than the paid amount.",
-                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 4, (int)this.getRefundCut(), "%"), true, true);
+        output.write(String.format("Voyage %S was initialized as a standard (2+2) voyage from %s to %s with %.2f TL priced %d regular seats. Note that refunds will be %d%s less than the paid amount.",
+                this.getVoyageID(), this.getDeparture(), this.getDestination(), this.getSeatFee(), this.getSeatRows() * 4, (int)this.getRefundCut(), "%"), true);
     }
 
     /**
@@ -0,0 +1,157 @@
+import java.util.Arrays;
+
+/**
+ * VoyageRegistry class holds the active voyages of the booking system and finds a voyage by its ID.
+ * The voyages are kept in an open addressing hash table keyed by the voyage ID as an int,
+ * so finding, adding and removing a voyage takes constant time however many voyages there are.
+ * Since a voyage ID is a positive integer, an empty slot of the table holds 0.
+ */
+public class VoyageRegistry {
+
+    private int[] keys = new int[16]; // voyage IDs of the slots, 0 for an empty slot
+    private Bus[] buses = new Bus[16]; // buses of the slots
+    private int size; // number of voyages in the registry
+
+    /**
+     * Gets the bus of a voyage.
+     *
+     * @param voyageID the ID of the voyage
+     * @return the bus of the voyage, or null if there is no voyage with the ID
+     */
+    public Bus get(int voyageID) {
+        int mask = keys.length - 1;
+        for (int slot = hash(voyageID) & mask; keys[slot] != 0; slot = (slot + 1) & mask) {
+
+            if (keys[slot] == voyageID) {
+
+                return buses[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether there is a voyage with the given ID.
+     *
+     * @param voyageID the ID of the voyage
+     * @return true if there is a voyage with the ID, false otherwise
+     */
+    public boolean contains(int voyageID) {
+        return get(voyageID) != null;
+    }
+
+    /**
+     * Adds a voyage to the registry. The table is doubled when it is half full.
+     *
+     * @param voyageID the ID of the voyage, a positive integer that is not in the registry
+     * @param bus      the bus of the voyage
+     */
+    public void put(int voyageID, Bus bus) {
+        if (2 * (size + 1) > keys.length) {
+            // Move every voyage to a table twice as large.
+            int[] oldKeys = keys;
+            Bus[] oldBuses = buses;
+            keys = new int[2 * oldKeys.length];
+            buses = new Bus[2 * oldKeys.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+
+                if (oldKeys[i] != 0) {
+
+                    put(oldKeys[i], oldBuses[i]);
+                }
+            }
+        }
+        int mask = keys.length - 1;
+        int slot = hash(voyageID) & mask;
+        while (keys[slot] != 0) {
+
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = voyageID;
+        buses[slot] = bus;
+        size++;
+    }
+
+    /**
+     * Removes a voyage from the registry. The voyages after the removed one are moved back,
+     * so every voyage can still be found from the slot of its hash without a gap.
+     *
+     * @param voyageID the ID of the voyage
+     */
+    public void remove(int voyageID) {
+        int mask = keys.length - 1;
+        int slot = hash(voyageID) & mask;
+        while (keys[slot] != voyageID) {
+
+            if (keys[slot] == 0) {
+
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size--;
+        // Fill the gap with a later voyage of the same run whose hash slot is not between the gap and its slot.
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+
+                keys[gap] = keys[next];
+                buses[gap] = buses[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        buses[gap] = null;
+    }
+
+    /**
+     * Gets the number of voyages in the registry.
+     *
+     * @return the number of voyages
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the registry has no voyages.
+     *
+     * @return true if there are no voyages, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the IDs of all voyages from smallest to largest.
+     *
+     * @return the sorted voyage IDs
+     */
+    public int[] getSortedVoyageIDs() {
+        int[] voyageIDs = new int[size];
+        int count = 0;
+        for (int key : keys) {
+
+            if (key != 0) {
+
+                voyageIDs[count++] = key;
+            }
+        }
+        Arrays.sort(voyageIDs);
+        return voyageIDs;
+    }
+
+    /**
+     * Mixes the bits of a voyage ID, so that consecutive IDs are spread over the table.
+     *
+     * @param voyageID the ID of the voyage
+     * @return the hash of the ID
+     */
+    private static int hash(int voyageID) {
+        int h = voyageID * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
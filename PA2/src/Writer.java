@@ -1,34 +0,0 @@
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.PrintStream;
-
-public class Writer {
-
-    /**
-     * This method writes given content to file at given path.
-     *
-     * @param path    Path for the file content is going to be written.
-     * @param content Content that is going to be written to file.
-     * @param append  Append status, true if wanted to append to file if it exists, false if wanted to create file from zero.
-     * @param newLine True if wanted to append a new line after content, false if vice versa.
-     */
-    public static void writeToFile(String path, String content, boolean append, boolean newLine) {
-        PrintStream ps = null;
-        try {
-            ps = new PrintStream(new FileOutputStream(path, append));
-            ps.print(content + (newLine ? "\n" : ""));
-        } catch (IOException e) {
-
-            System.out.println(String.format("ERROR: This program cannot write to the \"%s\", ", path) +
-                    "please check the permissions to write that directory. " +
-                    "Program is going to terminate!");
-
-        } finally {
-            if (ps != null) { //Flushes all the content and closes the stream if it has been successfully created.
-                ps.flush();
-                ps.close();
-            }
-        }
-    }
-}
@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class checks the {@link AlternativeRoutes} of small random maps against every route that does not visit a
+ * city twice, which are found by a depth-first search. The lengths of the k routes must be the k shortest of those
+ * routes in order, and every route must lead from the starting city to the destination without visiting a city twice,
+ * with the lengths of its roads adding up to its length. The maps have many short roads of equal length and roads
+ * between the same cities, so the routes have many ties.
+ * <p>
+ * The exit status is 1 if a route is wrong and 0 otherwise.
+ */
+public class AlternativeRoutesCheck {
+
+    private static final String USAGE = "Usage: java AlternativeRoutesCheck [--maps <count>] [--cities <count>]";
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the options of the check, see {@link #USAGE}
+     */
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        int maps = 400;
+        int maxCities = 9;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i]) {
+                case "--maps":
+                    maps = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--cities":
+                    maxCities = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        int checked = 0;
+        for (int seed = 0; seed < maps; seed++) {
+            Random random = new Random(seed);
+            int cityCount = 3 + random.nextInt(Math.max(1, maxCities - 2));
+            int roadCount = cityCount + random.nextInt(2 * cityCount);
+            // The first roads connect every city, the others are random and may repeat an ID
+            RoadGraphBuilder builder = new RoadGraphBuilder();
+            for (int i = 1; i < cityCount; i++) {
+                builder.addRoad("C" + i, "C" + random.nextInt(i), 1 + random.nextInt(4), i);
+            }
+            for (int i = cityCount; i < roadCount; i++) {
+                builder.addRoad("C" + random.nextInt(cityCount), "C" + random.nextInt(cityCount),
+                        1 + random.nextInt(4), random.nextInt(roadCount));
+            }
+            RoadGraph graph = builder.build();
+            String startingPoint = "C0";
+            String endPoint = "C" + (cityCount - 1);
+            ArrayList<Long> lengths = new ArrayList<>();
+            boolean[] visited = new boolean[graph.getCityCount()];
+            visited[graph.getCityIndex(startingPoint)] = true;
+            addRouteLengths(graph, graph.getCityIndex(startingPoint), graph.getCityIndex(endPoint), visited, 0,
+                    lengths);
+            Collections.sort(lengths);
+            int count = 1 + random.nextInt(12);
+            AlternativeRoutes routes = new AlternativeRoutes(graph, startingPoint, endPoint, count, SearchState.AUTO);
+            String error = findError(routes, startingPoint, endPoint, lengths.subList(0, Math.min(count,
+                    lengths.size())));
+            if (error != null) {
+                System.out.println(String.format("The map with seed %d has wrong routes from %s to %s: %s", seed,
+                        startingPoint, endPoint, error));
+                System.exit(1);
+            }
+            checked++;
+        }
+        System.out.println(String.format("%d maps checked, no errors", checked));
+    }
+
+    /**
+     * Adds the lengths of every route from a city to the destination that does not visit a city twice.
+     *
+     * @param graph   the graph of the map
+     * @param city    the index of the city the routes continue from
+     * @param endCity the index of the destination
+     * @param visited the cities of the route so far
+     * @param length  the length of the route so far
+     * @param lengths the list the lengths are added to
+     */
+    private static void addRouteLengths(RoadGraph graph, int city, int endCity, boolean[] visited, long length,
+                                        List<Long> lengths) {
+        if (city == endCity) {
+            lengths.add(length);
+            return;
+        }
+        for (int edge = graph.getOffsets()[city]; edge < graph.getOffsets()[city + 1]; edge++) {
+            int otherCity = graph.getTargets()[edge];
+            if (!visited[otherCity]) {
+                visited[otherCity] = true;
+                addRouteLengths(graph, otherCity, endCity, visited, length + graph.getLengths()[edge], lengths);
+                visited[otherCity] = false;
+            }
+        }
+    }
+
+    /**
+     * Checks the alternative routes against the lengths of the shortest routes.
+     *
+     * @param routes          the alternative routes
+     * @param startingPoint   the name of the starting city
+     * @param endPoint        the name of the destination city
+     * @param expectedLengths the lengths of the shortest routes in order
+     * @return the error, or {@code null} if the routes are right
+     */
+    private static String findError(AlternativeRoutes routes, String startingPoint, String endPoint,
+                                    List<Long> expectedLengths) {
+        ArrayList<Long> lengths = new ArrayList<>();
+        for (int i = 0; i < routes.getRouteCount(); i++) {
+            lengths.add(routes.getRouteLength(i));
+            HashSet<String> visited = new HashSet<>();
+            visited.add(startingPoint);
+            String city = startingPoint;
+            long length = 0;
+            for (Road road : routes.getRoute(i)) {
+                if (road.getPoint1().equals(city)) {
+                    city = road.getPoint2();
+                } else if (road.getPoint2().equals(city)) {
+                    city = road.getPoint1();
+                } else {
+                    return String.format("the road %s of route %d does not start from %s", road, i + 1, city);
+                }
+                if (!visited.add(city)) {
+                    return String.format("route %d visits %s twice", i + 1, city);
+                }
+                length += road.getRoadLength();
+            }
+            if (!city.equals(endPoint) || length != routes.getRouteLength(i)) {
+                return String.format("route %d ends at %s after %d KM instead of %d KM", i + 1, city, length,
+                        routes.getRouteLength(i));
+            }
+        }
+        return lengths.equals(expectedLengths) ? null
+                : String.format("the lengths are %s instead of %s", lengths, expectedLengths);
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class compares the output of the map analyzer with another engine against its output with the default
+ * {@link FastestRoute} and {@link BarelyConnectedRoute} on generated maps. Every map is analyzed twice in the same
+ * program, once with the default options and once with the options of the other engine, and the first line where
+ * the two outputs differ is printed with the map, whose file is kept so the run can be repeated. The maps are
+ * generated with ties by default, because the order of routes and roads of equal length is where engines differ.
+ * <p>
+ * Every map is checked in every mode of the analysis the compared options can be given with: the route analysis, a
+ * batch of random questions, the alternative routes, the isochrone of random sources and a list of random updates.
+ * The updates mode cannot be given the engine options, so it is compared with a full analysis of the changed map with
+ * those options after every update, as {@link UpdateCheck} does. Comparing {@code --queue heap} checks the bucket
+ * queue and the radix heap against the binary heap.
+ * <p>
+ * The check needs no input and prints only text, so it can be run by a script; the exit status is 1 if an output
+ * differs and 0 otherwise.
+ */
+public class DifferentialCheck {
+
+    private static final String USAGE = "Usage: java DifferentialCheck [--sizes 100,1000] "
+            + "[--maps grid,geometric,scale-free] [--seeds <count>] [--ties <density>] "
+            + "[--modes route,batch,alternatives,isochrone,updates] [--queries <count>] [MapAnalyzer options]";
+    private static final String ROUTE = "route"; // mode of the route analysis of the first line of the map
+    private static final String BATCH = "batch"; // mode of the questions of a query file
+    private static final String ALTERNATIVES = "alternatives"; // mode of the alternative routes
+    private static final String ISOCHRONE = "isochrone"; // mode of the cities near the sources of a source file
+    private static final String UPDATES = "updates"; // mode of the analysis after every update of an update file
+    private static final int ALTERNATIVE_COUNT = 5; // number of alternative routes of the alternatives mode
+    private static final int UPDATE_COUNT = 20; // number of updates of the updates mode
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the options of the check, see {@link #USAGE}; the other options are the options of the engine
+     *             that is compared, such as {@code --engine ch --mst boruvka}
+     * @throws IOException if a map or output file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        String[] sizes = {"100", "1000"};
+        String[] maps = {RoadMapGenerator.GRID, RoadMapGenerator.GEOMETRIC, RoadMapGenerator.SCALE_FREE};
+        int seeds = 20;
+        double ties = 0.5;
+        String[] modes = {ROUTE, BATCH, ALTERNATIVES, ISOCHRONE, UPDATES};
+        int queries = 300;
+        ArrayList<String> engineArgs = new ArrayList<>(); // options of the engine that is compared
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1].split(",");
+                    break;
+                case "--maps":
+                    maps = args[i + 1].split(",");
+                    break;
+                case "--seeds":
+                    seeds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--ties":
+                    ties = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--modes":
+                    modes = args[i + 1].split(",");
+                    break;
+                case "--queries":
+                    queries = Integer.parseInt(args[i + 1]);
+                    break;
+                default:
+                    engineArgs.add(args[i]);
+                    engineArgs.add(args[i + 1]);
+            }
+        }
+        if (AnalysisOptions.parse(buildArgs("map.txt", "output.txt", engineArgs)) == null) {
+            System.out.println(USAGE);
+            System.out.println(AnalysisOptions.USAGE);
+            return;
+        }
+        // The modes whose options the compared options cannot be given with are left out
+        ArrayList<String> checkedModes = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> modeArgs = getModeArgs(mode, "mode.txt", Long.MAX_VALUE);
+            if (modeArgs == null) {
+                System.out.println(USAGE);
+                return;
+            }
+            modeArgs.addAll(engineArgs);
+            if (mode.equals(UPDATES) || AnalysisOptions.parse(buildArgs("map.txt", "output.txt", modeArgs)) != null) {
+                checkedModes.add(mode);
+            } else {
+                System.out.println(String.format("The %s mode is skipped, the compared options cannot be given with "
+                        + "it", mode));
+            }
+        }
+        int checked = 0;
+        for (String map : maps) {
+            for (String size : sizes) {
+                for (int seed = 1; seed <= seeds; seed++) {
+                    RoadMapGenerator generator = new RoadMapGenerator(map, Integer.parseInt(size), seed, ties);
+                    File input = File.createTempFile("map", ".txt");
+                    generator.writeMap(input.getPath());
+                    RoadGraph graph = generator.buildGraph();
+                    Random random = new Random(seed);
+                    for (String mode : checkedModes) {
+                        String difference = mode.equals(UPDATES)
+                                ? UpdateCheck.findDifference(input, UPDATE_COUNT, random, engineArgs)
+                                : findDifference(input, mode, graph, queries, random, engineArgs);
+                        if (difference != null) {
+                            System.out.println(String.format("The %s map of %d roads with seed %d differs in the %s "
+                                    + "mode %s", map, generator.getRoadCount(), seed, mode, difference));
+                            System.exit(1);
+                        }
+                    }
+                    input.delete();
+                    checked++;
+                }
+            }
+        }
+        System.out.println(String.format("%d maps checked in the %s modes, no differences", checked,
+                String.join(", ", checkedModes)));
+    }
+
+    /**
+     * Returns the options of a mode of the analysis.
+     *
+     * @param mode     the mode
+     * @param modePath the path of the query, source or update file of the mode
+     * @param cutoff   the distance limit of the isochrone mode, {@link Long#MAX_VALUE} for no limit
+     * @return the options, or {@code null} if the mode is not known
+     */
+    private static List<String> getModeArgs(String mode, String modePath, long cutoff) {
+        ArrayList<String> modeArgs = new ArrayList<>();
+        switch (mode) {
+            case ROUTE:
+                break;
+            case BATCH:
+                Collections.addAll(modeArgs, "--batch", modePath);
+                break;
+            case ALTERNATIVES:
+                Collections.addAll(modeArgs, "--alternatives", String.valueOf(ALTERNATIVE_COUNT));
+                break;
+            case ISOCHRONE:
+                Collections.addAll(modeArgs, "--isochrone", modePath);
+                if (cutoff != Long.MAX_VALUE) {
+                    Collections.addAll(modeArgs, "--cutoff", String.valueOf(cutoff));
+                }
+                break;
+            case UPDATES:
+                Collections.addAll(modeArgs, "--updates", modePath);
+                break;
+            default:
+                return null;
+        }
+        return modeArgs;
+    }
+
+    /**
+     * Analyzes a map in a mode with the default options and with the compared options and compares the outputs.
+     * The batch mode asks random questions, some of them about a city that is not on the map, and the isochrone
+     * mode starts from a few random sources with a random distance limit or none. The query or source file is
+     * deleted unless the outputs differ.
+     *
+     * @param input      the map file
+     * @param mode       the mode, any mode but {@link #UPDATES}
+     * @param graph      the graph of the map, whose cities the questions and sources are picked from
+     * @param queries    the number of questions of the batch mode
+     * @param random     the random numbers of the questions and sources
+     * @param engineArgs the compared options
+     * @return the files and the first different lines, or {@code null} if the outputs are the same
+     * @throws IOException if a map, mode or output file cannot be written or read
+     */
+    private static String findDifference(File input, String mode, RoadGraph graph, int queries, Random random,
+                                         List<String> engineArgs) throws IOException {
+        File modeFile = File.createTempFile(mode, ".txt");
+        ArrayList<String> modeLines = new ArrayList<>();
+        long cutoff = Long.MAX_VALUE;
+        if (mode.equals(BATCH)) {
+            for (int i = 0; i < queries; i++) {
+                modeLines.add(getRandomCity(graph, random) + "\t" + getRandomCity(graph, random));
+            }
+        } else if (mode.equals(ISOCHRONE)) {
+            int sourceCount = 1 + random.nextInt(4);
+            for (int i = 0; i < sourceCount; i++) {
+                modeLines.add(getRandomCity(graph, random));
+            }
+            if (random.nextBoolean()) {
+                cutoff = random.nextInt(1 + 10 * graph.getLongestLength());
+            }
+        }
+        Files.write(modeFile.toPath(), modeLines, StandardCharsets.UTF_8);
+        List<String> modeArgs = getModeArgs(mode, modeFile.getPath(), cutoff);
+        List<String> expected = analyze(input, modeArgs);
+        modeArgs.addAll(engineArgs);
+        List<String> actual = analyze(input, modeArgs);
+        int line = findDifference(expected, actual);
+        if (line == -1) {
+            modeFile.delete();
+            return null;
+        }
+        String modeFileText = modeLines.isEmpty() ? "" : " and the " + mode + " file in " + modeFile.getPath();
+        return String.format("at line %d of the output, the map is kept in %s%s%nexpected: %s%nactual:   %s",
+                line + 1, input.getPath(), modeFileText, line < expected.size() ? expected.get(line) : "<end>",
+                line < actual.size() ? actual.get(line) : "<end>");
+    }
+
+    /**
+     * Picks a random city of a map, or one time in twenty a city that is not on the map.
+     *
+     * @param graph  the graph of the map
+     * @param random the random numbers
+     * @return the name of the city
+     */
+    private static String getRandomCity(RoadGraph graph, Random random) {
+        return random.nextInt(20) == 0 ? "Nowhere" : graph.getCityName(random.nextInt(graph.getCityCount()));
+    }
+
+    /**
+     * Analyzes a map with the given options and returns the lines of the output.
+     *
+     * @param input      the map file
+     * @param engineArgs the options of the analysis
+     * @return the lines of the output
+     * @throws IOException if the output file cannot be created or read
+     */
+    static List<String> analyze(File input, List<String> engineArgs) throws IOException {
+        File output = File.createTempFile("output", ".txt");
+        try {
+            // The output file is appended to, so it must not exist
+            output.delete();
+            new MapAnalyzer(AnalysisOptions.parse(buildArgs(input.getPath(), output.getPath(), engineArgs))).run();
+            return output.exists() ? Files.readAllLines(output.toPath(), Charset.defaultCharset())
+                    : Collections.emptyList();
+        } finally {
+            output.delete();
+        }
+    }
+
+    /**
+     * Builds the command line arguments of an analysis.
+     *
+     * @param input      the path of the map file
+     * @param output     the path of the output file
+     * @param engineArgs the options of the analysis
+     * @return the arguments
+     */
+    private static String[] buildArgs(String input, String output, List<String> engineArgs) {
+        String[] args = new String[engineArgs.size() + 2];
+        args[0] = input;
+        args[1] = output;
+        for (int i = 0; i < engineArgs.size(); i++) {
+            args[i + 2] = engineArgs.get(i);
+        }
+        return args;
+    }
+
+    /**
+     * Finds the first line where two outputs differ.
+     *
+     * @param expected the lines of the default output
+     * @param actual   the lines of the output of the compared engine
+     * @return the index of the first different line, or -1 if the outputs are the same
+     */
+    static int findDifference(List<String> expected, List<String> actual) {
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            if (i == expected.size() || i == actual.size() || !expected.get(i).equals(actual.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
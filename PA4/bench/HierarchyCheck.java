@@ -0,0 +1,123 @@
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class checks the routes of the {@code ch-fast} engine, whose shortcuts are unpacked into the roads of the
+ * map. When routes have the same length the engine may pick another route than the plain search, so its output
+ * cannot be compared line by line like {@link DifferentialCheck} does. Instead, for random pairs of cities of
+ * generated maps, the length of its route must be the length the plain search finds, and its roads must lead from
+ * the starting city to the destination one after another with the lengths adding up to that length.
+ * <p>
+ * The exit status is 1 if a route is wrong and 0 otherwise.
+ */
+public class HierarchyCheck {
+
+    private static final String USAGE = "Usage: java HierarchyCheck [--sizes 100,1000] "
+            + "[--maps grid,geometric,scale-free] [--seeds <count>] [--queries <count>] [--ties <density>]";
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the options of the check, see {@link #USAGE}
+     */
+    public static void main(String[] args) {
+        Locale.setDefault(Locale.US);
+        String[] sizes = {"100", "1000"};
+        String[] maps = {RoadMapGenerator.GRID, RoadMapGenerator.GEOMETRIC, RoadMapGenerator.SCALE_FREE};
+        int seeds = 10;
+        int queries = 200;
+        double ties = 0.5;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1].split(",");
+                    break;
+                case "--maps":
+                    maps = args[i + 1].split(",");
+                    break;
+                case "--seeds":
+                    seeds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--queries":
+                    queries = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--ties":
+                    ties = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        int checked = 0;
+        for (String map : maps) {
+            for (String size : sizes) {
+                for (int seed = 1; seed <= seeds; seed++) {
+                    RoadMapGenerator generator = new RoadMapGenerator(map, Integer.parseInt(size), seed, ties);
+                    RoadGraph graph = generator.buildGraph();
+                    FastestRoute plainRoute = new FastestRoute(graph);
+                    FastestRoute unpackedRoute = new FastestRoute(graph, FastestRoute.CH_FAST, null,
+                            new HierarchyBuilder(graph).build());
+                    Random random = new Random(seed);
+                    for (int query = 0; query < queries; query++) {
+                        String startingPoint = graph.getCityName(random.nextInt(graph.getCityCount()));
+                        String endPoint = graph.getCityName(random.nextInt(graph.getCityCount()));
+                        plainRoute.findFastestRoute(startingPoint, endPoint);
+                        unpackedRoute.findFastestRoute(startingPoint, endPoint);
+                        String error = findError(startingPoint, endPoint, plainRoute.getRouteLength(endPoint),
+                                unpackedRoute.getRoute(endPoint), unpackedRoute.getRouteLength(endPoint));
+                        if (error != null) {
+                            System.out.println(String.format("The %s map of %d roads with seed %d has a wrong route "
+                                    + "from %s to %s: %s", map, generator.getRoadCount(), seed, startingPoint,
+                                    endPoint, error));
+                            System.exit(1);
+                        }
+                        checked++;
+                    }
+                }
+            }
+        }
+        System.out.println(String.format("%d routes checked, no errors", checked));
+    }
+
+    /**
+     * Checks an unpacked route against the length of the fastest route.
+     *
+     * @param startingPoint  the name of the starting city
+     * @param endPoint       the name of the destination city
+     * @param expectedLength the length of the fastest route, or -1 if there is no route
+     * @param route          the roads of the unpacked route, or {@code null}
+     * @param routeLength    the length the engine gives for the unpacked route
+     * @return the error, or {@code null} if the route is right
+     */
+    private static String findError(String startingPoint, String endPoint, int expectedLength, ArrayList<Road> route,
+                                    int routeLength) {
+        if (routeLength != expectedLength) {
+            return String.format("the length is %d instead of %d", routeLength, expectedLength);
+        }
+        if (route == null) {
+            return expectedLength == -1 ? null : "the route is missing";
+        }
+        String city = startingPoint;
+        int length = 0;
+        for (Road road : route) {
+            if (road.getPoint1().equals(city)) {
+                city = road.getPoint2();
+            } else if (road.getPoint2().equals(city)) {
+                city = road.getPoint1();
+            } else {
+                return String.format("the road %s does not start from %s", road, city);
+            }
+            length += road.getRoadLength();
+        }
+        if (!city.equals(endPoint)) {
+            return String.format("the route ends at %s", city);
+        }
+        return length == expectedLength ? null : String.format("the roads add up to %d", length);
+    }
+}
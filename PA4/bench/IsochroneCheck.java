@@ -0,0 +1,182 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * This class checks the {@code --isochrone} mode of the map analyzer against a plain Dijkstra search from the sources
+ * on small random maps. The reference search keeps every source and distance in a priority queue of its own, so the
+ * nearest source of a city is the first one in the source file among the equally near sources. The maps have roads of
+ * length zero, roads from a city to itself and roads of a few lengths, some of the sources are given twice or are not
+ * on the map, and the distance limit is random or missing.
+ * <p>
+ * Every city of the output must have the distance and the nearest source of the reference, the same cities must be
+ * written, and the distances must not decrease. The order of the cities at the same distance is not checked, because
+ * it is the order of the queue. The exit status is 1 if an output is wrong and 0 otherwise.
+ */
+public class IsochroneCheck {
+
+    private static final String USAGE = "Usage: java IsochroneCheck [--maps <count>]";
+    private static final int[] LONGEST_LENGTHS = {0, 1, 3, 50, 5000000}; // longest roads of the maps
+    private static final long[] CUTOFFS = {Long.MAX_VALUE, 0, 1, 5, 100, 10000000}; // distance limits of the checks
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the options of the check, see {@link #USAGE}
+     * @throws IOException if a map, source or output file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        int maps = 300;
+        if (args.length == 2 && args[0].equals("--maps")) {
+            maps = Integer.parseInt(args[1]);
+        } else if (args.length != 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        for (int seed = 0; seed < maps; seed++) {
+            Random random = new Random(seed);
+            int cityCount = 3 + random.nextInt(58);
+            int roadCount = cityCount + random.nextInt(3 * cityCount + 1);
+            int longestLength = LONGEST_LENGTHS[random.nextInt(LONGEST_LENGTHS.length)];
+            int[] roads = new int[3 * roadCount];
+            ArrayList<String> lines = new ArrayList<>();
+            lines.add("C0\tC1");
+            for (int i = 0; i < roadCount; i++) {
+                roads[3 * i] = random.nextInt(cityCount);
+                roads[3 * i + 1] = random.nextInt(cityCount);
+                roads[3 * i + 2] = random.nextInt(longestLength + 1);
+                lines.add(String.format("C%d\tC%d\t%d\t%d", roads[3 * i], roads[3 * i + 1], roads[3 * i + 2], i + 1));
+            }
+            ArrayList<String> sources = new ArrayList<>();
+            int sourceCount = 1 + random.nextInt(4);
+            for (int i = 0; i < sourceCount; i++) {
+                sources.add("C" + roads[random.nextInt(2 * roadCount) / 2 * 3 + random.nextInt(2)]);
+            }
+            if (random.nextInt(5) == 0) {
+                sources.add("Nowhere");
+            }
+            long cutoff = CUTOFFS[random.nextInt(CUTOFFS.length)];
+            File input = File.createTempFile("map", ".txt");
+            File sourceFile = File.createTempFile("sources", ".txt");
+            Files.write(input.toPath(), lines, StandardCharsets.UTF_8);
+            Files.write(sourceFile.toPath(), sources, StandardCharsets.UTF_8);
+            List<String> options = cutoff == Long.MAX_VALUE ? Arrays.asList("--isochrone", sourceFile.getPath())
+                    : Arrays.asList("--isochrone", sourceFile.getPath(), "--cutoff", String.valueOf(cutoff));
+            String error = findError(DifferentialCheck.analyze(input, options),
+                    findNearestSources(cityCount, roads, sources, cutoff));
+            if (error != null) {
+                System.out.println(String.format("The map with seed %d has a wrong isochrone, the map is kept in %s "
+                        + "and the sources in %s: %s", seed, input.getPath(), sourceFile.getPath(), error));
+                System.exit(1);
+            }
+            input.delete();
+            sourceFile.delete();
+        }
+        System.out.println(String.format("%d maps checked, no errors", maps));
+    }
+
+    /**
+     * Finds the nearest source and its distance of every city within the distance limit with a Dijkstra search
+     * whose queue holds the distance, the position of the source in the source file and the city.
+     *
+     * @param cityCount the number of cities, which are named C0, C1 and so on
+     * @param roads     the first city, the second city and the length of every road
+     * @param sources   the names of the sources in the order of the source file
+     * @param cutoff    the longest distance of a city, {@link Long#MAX_VALUE} for no limit
+     * @return the distance and the nearest source of every reached city, separated by a tab
+     */
+    private static HashMap<String, String> findNearestSources(int cityCount, int[] roads, List<String> sources,
+                                                              long cutoff) {
+        ArrayList<ArrayList<int[]>> neighbours = new ArrayList<>();
+        boolean[] onMap = new boolean[cityCount];
+        for (int city = 0; city < cityCount; city++) {
+            neighbours.add(new ArrayList<>());
+        }
+        for (int i = 0; i < roads.length; i += 3) {
+            neighbours.get(roads[i]).add(new int[]{roads[i + 1], roads[i + 2]});
+            neighbours.get(roads[i + 1]).add(new int[]{roads[i], roads[i + 2]});
+            onMap[roads[i]] = true;
+            onMap[roads[i + 1]] = true;
+        }
+        long[][] best = new long[cityCount][]; // the distance and the source position of every reached city
+        PriorityQueue<long[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : Long.compare(a[1], b[1]));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).startsWith("C")) {
+                continue;
+            }
+            int city = Integer.parseInt(sources.get(i).substring(1));
+            if (onMap[city] && best[city] == null) {
+                best[city] = new long[]{0, i};
+                queue.add(new long[]{0, i, city});
+            }
+        }
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int city = (int) entry[2];
+            if (best[city][0] != entry[0] || best[city][1] != entry[1]) {
+                continue;
+            }
+            for (int[] neighbour : neighbours.get(city)) {
+                long distance = entry[0] + neighbour[1];
+                if (distance > cutoff) {
+                    continue;
+                }
+                long[] other = best[neighbour[0]];
+                if (other == null || distance < other[0] || distance == other[0] && entry[1] < other[1]) {
+                    best[neighbour[0]] = new long[]{distance, entry[1]};
+                    queue.add(new long[]{distance, entry[1], neighbour[0]});
+                }
+            }
+        }
+        HashMap<String, String> nearestSources = new HashMap<>();
+        for (int city = 0; city < cityCount; city++) {
+            if (best[city] != null) {
+                nearestSources.put("C" + city, best[city][0] + "\t" + sources.get((int) best[city][1]));
+            }
+        }
+        return nearestSources;
+    }
+
+    /**
+     * Checks the output of the isochrone against the nearest sources of the reference search.
+     *
+     * @param output         the lines of the output
+     * @param nearestSources the distance and the nearest source of every reached city
+     * @return the error, or {@code null} if the output is right
+     */
+    private static String findError(List<String> output, HashMap<String, String> nearestSources) {
+        HashMap<String, String> written = new HashMap<>();
+        long lastDistance = 0;
+        for (String line : output) {
+            if (line.startsWith("ERROR") || line.startsWith("Cities")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            long distance = Long.parseLong(fields[2]);
+            if (distance < lastDistance) {
+                return String.format("%s is written after a city at %d KM", line, lastDistance);
+            }
+            lastDistance = distance;
+            if (!(distance + "\t" + fields[1]).equals(nearestSources.get(fields[0]))) {
+                return String.format("%s should be %s", line, nearestSources.get(fields[0]));
+            }
+            written.put(fields[0], line);
+        }
+        for (String city : nearestSources.keySet()) {
+            if (!written.containsKey(city)) {
+                return String.format("%s is missing", city);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,221 @@
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class measures the route and spanning tree calculations on generated maps. Every benchmark is repeated for a
+ * warm-up period and then for a measurement period, and the number of operations per second, the time of one
+ * operation and the bytes allocated by the benchmark thread per operation and per second are printed, like the
+ * throughput mode of JMH with its gc profiler. The results can be saved and compared between versions of the
+ * program. The benchmarks of a single kind of queue and of the contraction hierarchy are not run unless they are
+ * asked for; building the hierarchy of the largest maps takes minutes.
+ */
+public class MapBenchmark {
+
+    private static final String USAGE = "Usage: java MapBenchmark [--sizes 1000,10000,100000,1000000] "
+            + "[--maps grid,geometric,scale-free] [--benchmarks fastest-route,mst,mst-boruvka,pipeline,load-text"
+            + ",load-snapshot,fastest-route-heap,fastest-route-bucket,fastest-route-radix,ch-build,ch-route"
+            + ",ch-fast-route] [--warmup <seconds>] [--measure <seconds>]";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Object sink; // results of the operations, kept so they are not optimised away
+
+    /**
+     * An operation that is measured.
+     */
+    private interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @throws Exception if the operation fails
+         */
+        void run() throws Exception;
+    }
+
+    /**
+     * The entry point of the benchmarks.
+     *
+     * @param args the options of the benchmarks, see {@link #USAGE}
+     * @throws Exception if a benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        Locale.setDefault(Locale.US);
+        String[] sizes = {"1000", "10000", "100000", "1000000"};
+        String[] maps = {RoadMapGenerator.GRID, RoadMapGenerator.GEOMETRIC, RoadMapGenerator.SCALE_FREE};
+        String[] benchmarks = {"fastest-route", "mst", "mst-boruvka", "pipeline", "load-text", "load-snapshot"};
+        double warmup = 1;
+        double measure = 3;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1].split(",");
+                    break;
+                case "--maps":
+                    maps = args[i + 1].split(",");
+                    break;
+                case "--benchmarks":
+                    benchmarks = args[i + 1].split(",");
+                    break;
+                case "--warmup":
+                    warmup = Double.parseDouble(args[i + 1]);
+                    break;
+                case "--measure":
+                    measure = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        System.out.println(String.format("%-14s %-11s %9s %12s %12s %14s %12s",
+                "benchmark", "map", "roads", "ops/s", "ms/op", "alloc B/op", "alloc MB/s"));
+        for (String map : maps) {
+            for (String size : sizes) {
+                RoadMapGenerator generator = new RoadMapGenerator(map, Integer.parseInt(size), 42);
+                for (String benchmark : benchmarks) {
+                    List<File> files = new ArrayList<>();
+                    Operation operation = createOperation(benchmark, generator, files);
+                    run(benchmark, map, generator.getRoadCount(), operation, warmup, measure);
+                    for (File file : files) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates the operation of a benchmark.
+     *
+     * @param benchmark the name of the benchmark
+     * @param generator the generated map
+     * @param files     the list the temporary files of the benchmark are added to
+     * @return the operation
+     * @throws IOException if the map file cannot be written
+     */
+    private static Operation createOperation(String benchmark, RoadMapGenerator generator, List<File> files)
+            throws IOException {
+        switch (benchmark) {
+            case "fastest-route": {
+                RoadGraph graph = generator.buildGraph();
+                FastestRoute fastestRoute = new FastestRoute(graph);
+                return () -> {
+                    fastestRoute.findFastestRoute(generator.getStartingPoint(), generator.getEndPoint());
+                    sink = fastestRoute.getRoute(generator.getEndPoint());
+                };
+            }
+            case "fastest-route-heap":
+            case "fastest-route-bucket":
+            case "fastest-route-radix": {
+                // The plain search with one kind of queue, the fastest-route benchmark picks the queue itself
+                RoadGraph graph = generator.buildGraph();
+                FastestRoute fastestRoute = new FastestRoute(graph, FastestRoute.DIJKSTRA, null, null,
+                        benchmark.substring("fastest-route-".length()));
+                return () -> {
+                    fastestRoute.findFastestRoute(generator.getStartingPoint(), generator.getEndPoint());
+                    sink = fastestRoute.getRoute(generator.getEndPoint());
+                };
+            }
+            case "ch-build": {
+                RoadGraph graph = generator.buildGraph();
+                return () -> sink = new HierarchyBuilder(graph).build();
+            }
+            case "ch-route":
+            case "ch-fast-route": {
+                RoadGraph graph = generator.buildGraph();
+                FastestRoute fastestRoute = new FastestRoute(graph, benchmark.equals("ch-route") ? FastestRoute.CH
+                        : FastestRoute.CH_FAST, null, new HierarchyBuilder(graph).build());
+                return () -> {
+                    fastestRoute.findFastestRoute(generator.getStartingPoint(), generator.getEndPoint());
+                    sink = fastestRoute.getRoute(generator.getEndPoint());
+                };
+            }
+            case "mst": {
+                RoadGraph graph = generator.buildGraph();
+                return () -> sink = new BarelyConnectedRoute(graph, BarelyConnectedRoute.KRUSKAL);
+            }
+            case "mst-boruvka": {
+                RoadGraph graph = generator.buildGraph();
+                return () -> sink = new BarelyConnectedRoute(graph, BarelyConnectedRoute.BORUVKA);
+            }
+            case "pipeline": {
+                File input = File.createTempFile("map", ".txt");
+                File output = File.createTempFile("output", ".txt");
+                files.add(input);
+                files.add(output);
+                generator.writeMap(input.getPath());
+                return () -> {
+                    // The output file is appended to, so it is removed before every run
+                    output.delete();
+                    MapAnalyzer.main(new String[]{input.getPath(), output.getPath()});
+                };
+            }
+            case "load-text": {
+                File input = File.createTempFile("map", ".txt");
+                files.add(input);
+                generator.writeMap(input.getPath());
+                return () -> {
+                    RoadMapLoader loader = new RoadMapLoader();
+                    loader.load(input.getPath());
+                    sink = loader.getGraph();
+                };
+            }
+            case "load-snapshot": {
+                File snapshot = File.createTempFile("map", ".bin");
+                files.add(snapshot);
+                RoadGraph graph = generator.buildGraph();
+                MapSnapshot.write(snapshot.getPath(), generator.getStartingPoint(), generator.getEndPoint(), graph,
+                        new BarelyConnectedRoute(graph).getBarelyGraph());
+                return () -> sink = MapSnapshot.load(snapshot.getPath());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown benchmark: " + benchmark);
+        }
+    }
+
+    /**
+     * Runs an operation for the warm-up period, then measures it for the measurement period and prints the result.
+     * At least one operation is measured.
+     *
+     * @param benchmark the name of the benchmark
+     * @param map       the kind of the map
+     * @param roadCount the number of roads of the map
+     * @param operation the operation
+     * @param warmup    the length of the warm-up period in seconds
+     * @param measure   the length of the measurement period in seconds
+     * @throws Exception if the operation fails
+     */
+    private static void run(String benchmark, String map, int roadCount, Operation operation, double warmup,
+                            double measure) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long end = System.nanoTime() + (long) (warmup * 1e9);
+        do {
+            operation.run();
+        } while (System.nanoTime() < end);
+        long operations = 0;
+        long startBytes = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        end = start + (long) (measure * 1e9);
+        long now;
+        do {
+            operation.run();
+            operations++;
+            now = System.nanoTime();
+        } while (now < end);
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - startBytes;
+        double seconds = (now - start) / 1e9;
+        System.out.println(String.format("%-14s %-11s %9d %12.3f %12.3f %14d %12.1f",
+                benchmark, map, roadCount, operations / seconds, seconds * 1000 / operations, bytes / operations,
+                bytes / seconds / (1 << 20)));
+    }
+}
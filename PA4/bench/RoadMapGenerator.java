@@ -0,0 +1,369 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * This class generates synthetic road maps for the benchmarks. Three kinds of maps are supported: a grid, a random
+ * geometric map whose cities are random points connected to their close neighbours, and a scale-free map where new
+ * cities prefer to connect to cities that already have many roads. The same seed always gives the same map.
+ * <p>
+ * A tie density above zero gives some roads the same length and adds roads next to others with the same ends and
+ * length but another ID, so the maps have many routes and spanning trees of equal length, whose order is decided by
+ * the road IDs. The maps can also be written to files in the input format of the map analyzer by {@link #main}.
+ */
+public class RoadMapGenerator {
+
+    public static final String GRID = "grid";
+    public static final String GEOMETRIC = "geometric";
+    public static final String SCALE_FREE = "scale-free";
+
+    private static final String USAGE = "Usage: java RoadMapGenerator <grid|geometric|scale-free> <roads> <seed> "
+            + "<output.txt> [<tie density>]";
+
+    private final int cityCount; // number of cities of the map
+    private int[] roadPoints; // the cities at both ends of each road, two entries per road
+    private int[] roadLengths; // the length of each road
+    private int[] roadIDs; // the ID of each road
+    private int roadCount; // number of roads generated so far
+    private final int endCity; // the city the route questions end at
+
+    /**
+     * Generates a map of the given kind without ties.
+     *
+     * @param kind      the kind of the map, one of {@link #GRID}, {@link #GEOMETRIC} and {@link #SCALE_FREE}
+     * @param roadCount the number of roads of the map
+     * @param seed      the seed of the random numbers
+     */
+    public RoadMapGenerator(String kind, int roadCount, long seed) {
+        this(kind, roadCount, seed, 0);
+    }
+
+    /**
+     * Generates a map of the given kind. Every road gets the same length as the others with the probability of the
+     * tie density, and a road with the same ends and length is added next to it with the same probability, so the
+     * map has about {@code 1 + tieDensity} times as many roads. A map without ties is the same as the map of the
+     * same seed of {@link #RoadMapGenerator(String, int, long)}.
+     *
+     * @param kind       the kind of the map, one of {@link #GRID}, {@link #GEOMETRIC} and {@link #SCALE_FREE}
+     * @param roadCount  the number of roads of the map without the added roads
+     * @param seed       the seed of the random numbers
+     * @param tieDensity the probability of a tie for every road, from 0 to 1
+     */
+    public RoadMapGenerator(String kind, int roadCount, long seed, double tieDensity) {
+        Random random = new Random(seed);
+        roadPoints = new int[2 * roadCount];
+        roadLengths = new int[roadCount];
+        roadIDs = new int[roadCount];
+        switch (kind) {
+            case GRID:
+                cityCount = addGridRoads(roadCount, random);
+                break;
+            case GEOMETRIC:
+                cityCount = addGeometricRoads(roadCount, random);
+                break;
+            case SCALE_FREE:
+                cityCount = addScaleFreeRoads(roadCount, random);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown map kind: " + kind);
+        }
+        if (tieDensity > 0) {
+            addTies(tieDensity, random);
+        }
+        roadPoints = Arrays.copyOf(roadPoints, 2 * this.roadCount);
+        roadLengths = Arrays.copyOf(roadLengths, this.roadCount);
+        // Every road gets a different ID, in random order
+        roadIDs = new int[this.roadCount];
+        for (int i = 0; i < roadIDs.length; i++) {
+            roadIDs[i] = i + 1;
+        }
+        for (int i = roadIDs.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = roadIDs[i];
+            roadIDs[i] = roadIDs[j];
+            roadIDs[j] = swap;
+        }
+        endCity = findFarthestCity();
+    }
+
+    /**
+     * Writes a generated map to a file.
+     *
+     * @param args the kind, the number of roads, the seed and the path of the map, and the tie density, see
+     *             {@link #USAGE}
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4 && args.length != 5) {
+            System.out.println(USAGE);
+            return;
+        }
+        double tieDensity = args.length == 5 ? Double.parseDouble(args[4]) : 0;
+        new RoadMapGenerator(args[0], Integer.parseInt(args[1]), Long.parseLong(args[2]), tieDensity).writeMap(args[3]);
+    }
+
+    /**
+     * Adds ties to the generated roads. The roads that get a tie take the average length of the roads, so the
+     * lengths stay in the range of the map.
+     *
+     * @param tieDensity the probability of a tie for every road
+     * @param random     the random numbers
+     */
+    private void addTies(double tieDensity, Random random) {
+        int count = roadCount;
+        // There is room for a road next to every road
+        roadPoints = Arrays.copyOf(roadPoints, 4 * count);
+        roadLengths = Arrays.copyOf(roadLengths, 2 * count);
+        long totalLength = 0;
+        for (int i = 0; i < count; i++) {
+            totalLength += roadLengths[i];
+        }
+        int tieLength = (int) Math.max(1, totalLength / Math.max(1, count));
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < tieDensity) {
+                roadLengths[i] = tieLength;
+            }
+            if (random.nextDouble() < tieDensity) {
+                addRoad(roadPoints[2 * i], roadPoints[2 * i + 1], roadLengths[i]);
+            }
+        }
+    }
+
+    /**
+     * Finds the city that is the most roads away from the first city, so the route between them crosses the map.
+     *
+     * @return the index of the city
+     */
+    private int findFarthestCity() {
+        int[] offsets = new int[cityCount + 1];
+        for (int point : roadPoints) {
+            offsets[point + 1]++;
+        }
+        for (int i = 0; i < cityCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] next = Arrays.copyOf(offsets, cityCount);
+        int[] neighbours = new int[roadPoints.length];
+        for (int i = 0; i < roadCount; i++) {
+            neighbours[next[roadPoints[2 * i]]++] = roadPoints[2 * i + 1];
+            neighbours[next[roadPoints[2 * i + 1]]++] = roadPoints[2 * i];
+        }
+        boolean[] reached = new boolean[cityCount];
+        int[] queue = new int[cityCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = 0;
+        reached[0] = true;
+        while (head < tail) {
+            int city = queue[head++];
+            for (int i = offsets[city]; i < offsets[city + 1]; i++) {
+                if (!reached[neighbours[i]]) {
+                    reached[neighbours[i]] = true;
+                    queue[tail++] = neighbours[i];
+                }
+            }
+        }
+        return queue[tail - 1];
+    }
+
+    /**
+     * Adds a road between two cities if there is room for it.
+     *
+     * @param point1     the index of the first city
+     * @param point2     the index of the second city
+     * @param roadLength the length of the road
+     * @return {@code true} if the road is added; {@code false} if the map is full
+     */
+    private boolean addRoad(int point1, int point2, int roadLength) {
+        if (roadCount == roadLengths.length) {
+            return false;
+        }
+        roadPoints[2 * roadCount] = point1;
+        roadPoints[2 * roadCount + 1] = point2;
+        roadLengths[roadCount++] = roadLength;
+        return true;
+    }
+
+    /**
+     * Adds the roads of a square grid with random lengths. Every city is connected to its right and lower
+     * neighbours.
+     *
+     * @param roads  the number of roads
+     * @param random the random numbers
+     * @return the number of cities
+     */
+    private int addGridRoads(int roads, Random random) {
+        int side = 2;
+        while (2L * side * (side - 1) < roads) {
+            side++;
+        }
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int city = row * side + column;
+                if (column + 1 < side) {
+                    addRoad(city, city + 1, 1 + random.nextInt(100));
+                }
+                if (row + 1 < side) {
+                    addRoad(city, city + side, 1 + random.nextInt(100));
+                }
+            }
+        }
+        return side * side;
+    }
+
+    /**
+     * Adds the roads of a random geometric map. The cities are random points of a square and every two cities that
+     * are closer than a radius are connected by a road as long as it is the distance between them. The radius is
+     * chosen so that each city has about eight roads, and the cities are put into cells of that size so only the
+     * neighbouring cells are searched.
+     *
+     * @param roads  the number of roads
+     * @param random the random numbers
+     * @return the number of cities
+     */
+    private int addGeometricRoads(int roads, Random random) {
+        int cities = Math.max(2, roads / 4);
+        double radius = Math.sqrt(2.0 * roads / (Math.PI * cities * (double) cities));
+        int cells = Math.max(1, (int) (1 / radius));
+        double[] x = new double[cities];
+        double[] y = new double[cities];
+        int[] cellStarts = new int[cells * cells + 1];
+        int[] cellOf = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+            cellOf[i] = Math.min(cells - 1, (int) (y[i] * cells)) * cells + Math.min(cells - 1, (int) (x[i] * cells));
+            cellStarts[cellOf[i] + 1]++;
+        }
+        for (int i = 0; i < cells * cells; i++) {
+            cellStarts[i + 1] += cellStarts[i];
+        }
+        int[] next = Arrays.copyOf(cellStarts, cells * cells);
+        int[] cellCities = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            cellCities[next[cellOf[i]]++] = i;
+        }
+        for (int i = 0; i < cities; i++) {
+            int row = cellOf[i] / cells;
+            int column = cellOf[i] % cells;
+            for (int r = Math.max(0, row - 1); r <= Math.min(cells - 1, row + 1); r++) {
+                for (int c = Math.max(0, column - 1); c <= Math.min(cells - 1, column + 1); c++) {
+                    for (int k = cellStarts[r * cells + c]; k < cellStarts[r * cells + c + 1]; k++) {
+                        int j = cellCities[k];
+                        double distance = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                        if (j > i && distance < radius && !addRoad(i, j, 1 + (int) (distance * 100000))) {
+                            return cities;
+                        }
+                    }
+                }
+            }
+        }
+        return cities;
+    }
+
+    /**
+     * Adds the roads of a scale-free map with the Barabasi-Albert model. Every new city is connected to three
+     * cities chosen with probabilities proportional to the number of their roads.
+     *
+     * @param roads  the number of roads
+     * @param random the random numbers
+     * @return the number of cities
+     */
+    private int addScaleFreeRoads(int roads, Random random) {
+        int[] ends = new int[2 * roads]; // every end of every road, a city appears once for each of its roads
+        int endCount = 0;
+        int cities = 4;
+        // The map starts with four connected cities
+        for (int i = 0; i < 4; i++) {
+            for (int j = i + 1; j < 4; j++) {
+                if (!addRoad(i, j, 1 + random.nextInt(100))) {
+                    return cities;
+                }
+                ends[endCount++] = i;
+                ends[endCount++] = j;
+            }
+        }
+        while (true) {
+            int city = cities++;
+            for (int k = 0; k < 3; k++) {
+                int other = ends[random.nextInt(endCount)];
+                if (!addRoad(city, other, 1 + random.nextInt(100))) {
+                    return cities;
+                }
+                ends[endCount++] = city;
+                ends[endCount++] = other;
+            }
+        }
+    }
+
+    /**
+     * Returns the name of a city.
+     *
+     * @param city the index of the city
+     * @return the name of the city
+     */
+    private static String getCityName(int city) {
+        return "C" + city;
+    }
+
+    /**
+     * Returns the starting point of the map, which is the first city.
+     *
+     * @return the name of the starting point
+     */
+    public String getStartingPoint() {
+        return getCityName(0);
+    }
+
+    /**
+     * Returns the end point of the map, which is the city farthest from the first city that can be reached from it.
+     *
+     * @return the name of the end point
+     */
+    public String getEndPoint() {
+        return getCityName(endCity);
+    }
+
+    /**
+     * Returns the number of roads of the map.
+     *
+     * @return the number of roads
+     */
+    public int getRoadCount() {
+        return roadCount;
+    }
+
+    /**
+     * Builds the graph of the map.
+     *
+     * @return the graph of the map
+     */
+    public RoadGraph buildGraph() {
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        for (int i = 0; i < roadCount; i++) {
+            builder.addRoad(getCityName(roadPoints[2 * i]), getCityName(roadPoints[2 * i + 1]), roadLengths[i],
+                    roadIDs[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Writes the map to a file in the input format of the map analyzer.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeMap(String path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+            writer.write(getStartingPoint() + "\t" + getEndPoint() + "\n");
+            for (int i = 0; i < roadCount; i++) {
+                writer.write(getCityName(roadPoints[2 * i]) + "\t" + getCityName(roadPoints[2 * i + 1]) + "\t"
+                        + roadLengths[i] + "\t" + roadIDs[i] + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This class compares the output of the {@code --updates} mode of the map analyzer with a full analysis of the
+ * changed map after every update. Random maps are generated with ties, random additions, removals and length
+ * changes are applied to them, and the section of every update is compared with the output of the map analyzer for
+ * a map file that holds the roads after that update. The first line that differs is printed with the update, and the
+ * map and update files are kept so the run can be repeated. The updates mode of {@link DifferentialCheck} runs the
+ * same comparison with the options it compares given to the full analyses.
+ * <p>
+ * The roads that are removed or changed are found by their ID, the first one in the order the roads are added, like
+ * {@link UpdateAnalyzer} does. The exit status is 1 if an output differs and 0 otherwise.
+ */
+public class UpdateCheck {
+
+    private static final String USAGE = "Usage: java UpdateCheck [--sizes 100,300] "
+            + "[--maps grid,geometric,scale-free] [--seeds <count>] [--updates <count>] [--ties <density>]";
+
+    /**
+     * The entry point of the check.
+     *
+     * @param args the options of the check, see {@link #USAGE}
+     * @throws IOException if a map, update or output file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        Locale.setDefault(Locale.US);
+        String[] sizes = {"100", "300"};
+        String[] maps = {RoadMapGenerator.GRID, RoadMapGenerator.GEOMETRIC, RoadMapGenerator.SCALE_FREE};
+        int seeds = 17;
+        int updateCount = 40;
+        double ties = 0.5;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                System.out.println(USAGE);
+                return;
+            }
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1].split(",");
+                    break;
+                case "--maps":
+                    maps = args[i + 1].split(",");
+                    break;
+                case "--seeds":
+                    seeds = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--updates":
+                    updateCount = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--ties":
+                    ties = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    System.out.println(USAGE);
+                    return;
+            }
+        }
+        int checked = 0;
+        for (String map : maps) {
+            for (String size : sizes) {
+                for (int seed = 1; seed <= seeds; seed++) {
+                    RoadMapGenerator generator = new RoadMapGenerator(map, Integer.parseInt(size), seed, ties);
+                    File input = File.createTempFile("map", ".txt");
+                    generator.writeMap(input.getPath());
+                    String difference = findDifference(input, updateCount, new Random(seed), new ArrayList<>());
+                    if (difference != null) {
+                        System.out.println(String.format("The %s map of %d roads with seed %d differs %s", map,
+                                generator.getRoadCount(), seed, difference));
+                        System.exit(1);
+                    }
+                    input.delete();
+                    checked++;
+                }
+            }
+        }
+        System.out.println(String.format("%d maps checked, no differences", checked));
+    }
+
+    /**
+     * Applies random updates to a map and compares the output of the updates mode with a full analysis of the map
+     * after every update. The update file is deleted unless the outputs differ.
+     *
+     * @param input         the map file
+     * @param updateCount   the number of updates
+     * @param random        the random numbers of the updates
+     * @param referenceArgs the options of the full analyses
+     * @return the update, the files and the first different lines, or {@code null} if the outputs are the same
+     * @throws IOException if a map, update or output file cannot be written or read
+     */
+    static String findDifference(File input, int updateCount, Random random, List<String> referenceArgs)
+            throws IOException {
+        List<String> lines = Files.readAllLines(input.toPath(), StandardCharsets.UTF_8);
+        ArrayList<String[]> roads = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            roads.add(line.split("\t"));
+        }
+        String[] updates = generateUpdates(roads, updateCount, random);
+        File updatesFile = File.createTempFile("updates", ".txt");
+        Files.write(updatesFile.toPath(), Arrays.asList(updates), StandardCharsets.UTF_8);
+        List<String> actual = DifferentialCheck.analyze(input, Arrays.asList("--updates", updatesFile.getPath()));
+        String header = lines.get(0);
+        int line = 0;
+        File changedMap = File.createTempFile("changed", ".txt");
+        try {
+            for (String update : updates) {
+                // The section of every update starts with the update or its error
+                List<String> expected = new ArrayList<>();
+                if (apply(roads, update)) {
+                    expected.add("Update: " + update);
+                    writeMap(changedMap, header, roads);
+                    expected.addAll(DifferentialCheck.analyze(changedMap, referenceArgs));
+                } else {
+                    expected.add("ERROR: \"" + update + "\" is not a valid update.");
+                }
+                int end = Math.min(line + expected.size(), actual.size());
+                int difference = DifferentialCheck.findDifference(expected, actual.subList(line, end));
+                if (difference != -1) {
+                    return String.format("after the update \"%s\", the map is kept in %s and the updates in %s%n"
+                            + "expected: %s%nactual:   %s", update, input.getPath(), updatesFile.getPath(),
+                            difference < expected.size() ? expected.get(difference) : "<end>",
+                            line + difference < end ? actual.get(line + difference) : "<end>");
+                }
+                line = end;
+            }
+        } finally {
+            changedMap.delete();
+        }
+        updatesFile.delete();
+        return null;
+    }
+
+    /**
+     * Generates random updates of a map. Most of them are valid, but some remove or change a road that does not
+     * exist or are not updates at all. New roads connect the cities of the map, sometimes to a new city, and some of
+     * them get the ID of another road.
+     *
+     * @param roads       the roads of the map, which are not changed
+     * @param updateCount the number of updates
+     * @param random      the random numbers
+     * @return the lines of the updates
+     */
+    private static String[] generateUpdates(List<String[]> roads, int updateCount, Random random) {
+        ArrayList<String> cities = new ArrayList<>();
+        ArrayList<Integer> roadIDs = new ArrayList<>();
+        int nextID = 1;
+        for (String[] road : roads) {
+            for (int i = 0; i < 2; i++) {
+                if (!cities.contains(road[i])) {
+                    cities.add(road[i]);
+                }
+            }
+            roadIDs.add(Integer.parseInt(road[3]));
+            nextID = Math.max(nextID, Integer.parseInt(road[3]) + 1);
+        }
+        String[] updates = new String[updateCount];
+        for (int i = 0; i < updateCount; i++) {
+            double kind = random.nextDouble();
+            if (kind < 0.35) {
+                String point1 = random.nextInt(10) == 0 ? "N" + random.nextInt(5)
+                        : cities.get(random.nextInt(cities.size()));
+                String point2 = cities.get(random.nextInt(cities.size()));
+                int roadID = random.nextInt(5) == 0 ? roadIDs.get(random.nextInt(roadIDs.size())) : nextID++;
+                roadIDs.add(roadID);
+                updates[i] = String.format("add\t%s\t%s\t%d\t%d", point1, point2, 1 + random.nextInt(20), roadID);
+            } else if (kind < 0.6) {
+                int roadID = random.nextInt(20) == 0 ? nextID + 1000 : roadIDs.get(random.nextInt(roadIDs.size()));
+                updates[i] = "remove\t" + roadID;
+            } else if (kind < 0.97) {
+                updates[i] = String.format("change\t%d\t%d", roadIDs.get(random.nextInt(roadIDs.size())),
+                        1 + random.nextInt(20));
+            } else {
+                updates[i] = "close\t" + roadIDs.get(random.nextInt(roadIDs.size()));
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Applies an update to the roads of a map.
+     *
+     * @param roads  the roads of the map in the order they are added, each as its fields
+     * @param update the line of the update
+     * @return {@code true} if the update is applied; {@code false} if it is not valid
+     */
+    private static boolean apply(List<String[]> roads, String update) {
+        String[] fields = update.split("\t");
+        switch (fields[0]) {
+            case "add":
+                roads.add(new String[]{fields[1], fields[2], fields[3], fields[4]});
+                return true;
+            case "remove":
+            case "change":
+                for (int i = 0; i < roads.size(); i++) {
+                    if (roads.get(i)[3].equals(fields[1])) {
+                        if (fields[0].equals("remove")) {
+                            roads.remove(i);
+                        } else {
+                            roads.get(i)[2] = fields[2];
+                        }
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Writes the roads of a map to a map file.
+     *
+     * @param file   the map file
+     * @param header the first line of the map, which holds the starting and end points
+     * @param roads  the roads of the map
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeMap(File file, String header, List<String[]> roads) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(header + "\n");
+            for (String[] road : roads) {
+                writer.write(String.join("\t", road) + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class holds the fastest routes between every pair of cities of a small map. The route lengths and the last
+ * road of every route are stored in a binary cache file named after a hash of the roads, and the file is memory
+ * mapped, so later runs on the same map read the routes instead of finding them again.
+ * <p>
+ * Every row of the cache is the result of a {@link FastestRoute} search from one city, which keeps the routes with
+ * the same length exactly as the single search picks them.
+ */
+public class AllPairsRoutes {
+
+    public static final int MAX_CITIES = 5000; // maps with more cities are not precomputed
+
+    private static final int MAGIC = 0x50413444; // "PA4D", the first integer of every cache file
+    private static final int VERSION = 1; // version of the cache file format
+    private static final int HEADER_SIZE = 4; // number of integers before the route tables
+
+    private final RoadGraph graph; // Graph of the map
+    private final IntBuffer table; // mapped cache file, distances of every pair and then last roads of every pair
+    private final int cityCount; // number of cities on the map
+
+    /**
+     * Constructs a new {@code AllPairsRoutes} object over a mapped cache file.
+     *
+     * @param graph the graph of the map
+     * @param table the mapped cache file
+     */
+    private AllPairsRoutes(RoadGraph graph, IntBuffer table) {
+        this.graph = graph;
+        this.table = table;
+        this.cityCount = graph.getCityCount();
+    }
+
+    /**
+     * Returns the routes of the map. If the cache directory has a cache file of the same roads it is mapped,
+     * otherwise the routes are found in parallel and written to a new cache file first. A cache file of the wrong
+     * size or with a header of another map is written again the same way.
+     *
+     * @param graph          the graph of the map
+     * @param cacheDirectory the directory of the cache files
+     * @return the routes of the map, or {@code null} if the map is too large or the cache file cannot be used
+     */
+    public static AllPairsRoutes load(RoadGraph graph, String cacheDirectory) {
+        if (graph.getCityCount() > MAX_CITIES) {
+            return null;
+        }
+        try {
+            Path cacheFile = Paths.get(cacheDirectory, "routes-" + hashRoads(graph) + ".bin");
+            long size = 4L * (HEADER_SIZE + 2L * graph.getCityCount() * graph.getCityCount());
+            IntBuffer table = null;
+            if (Files.exists(cacheFile) && Files.size(cacheFile) == size) {
+                table = mapCacheFile(graph, cacheFile, size);
+            }
+            if (table == null) {
+                writeCacheFile(graph, cacheFile, size);
+                table = mapCacheFile(graph, cacheFile, size);
+            }
+            if (table == null) {
+                System.out.printf("ERROR: The cache file \"%s\" does not belong to this map.%n", cacheFile);
+                return null;
+            }
+            return new AllPairsRoutes(graph, table);
+        } catch (IOException | InterruptedException | ExecutionException e) {
+            System.out.printf("ERROR: This program cannot use the cache directory \"%s\": %s%n", cacheDirectory, e);
+            return null;
+        }
+    }
+
+    /**
+     * Maps a cache file and checks that its header belongs to the map.
+     *
+     * @param graph     the graph of the map
+     * @param cacheFile the path of the cache file
+     * @param size      the size of the cache file in bytes
+     * @return the mapped cache file, or {@code null} if its header belongs to another map or version
+     * @throws IOException if the file cannot be mapped
+     */
+    private static IntBuffer mapCacheFile(RoadGraph graph, Path cacheFile, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            IntBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+            if (table.get(0) != MAGIC || table.get(1) != VERSION || table.get(2) != graph.getCityCount()
+                    || table.get(3) != graph.getRoadCount()) {
+                return null;
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Finds the routes from every city and writes them to the cache file. The file is written under a temporary
+     * name and renamed at the end, so other runs never see a half written file, and it is deleted if the routes
+     * cannot be written.
+     *
+     * @param graph     the graph of the map
+     * @param cacheFile the path of the cache file
+     * @param size      the size of the cache file in bytes
+     */
+    private static void writeCacheFile(RoadGraph graph, Path cacheFile, long size)
+            throws IOException, InterruptedException, ExecutionException {
+        Files.createDirectories(cacheFile.getParent());
+        Path temporaryFile = Files.createTempFile(cacheFile.getParent(), "routes-", ".tmp");
+        boolean moved = false; // Whether the temporary file became the cache file
+        try {
+            fillCacheFile(graph, temporaryFile, size);
+            Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            // A failed run must not leave a temporary file of up to the size of the whole cache behind
+            if (!moved) {
+                Files.deleteIfExists(temporaryFile);
+            }
+        }
+    }
+
+    /**
+     * Finds the routes from every city in parallel and writes them with the header to a file.
+     *
+     * @param graph the graph of the map
+     * @param file  the path of the file, which already exists
+     * @param size  the size of the cache file in bytes
+     */
+    private static void fillCacheFile(RoadGraph graph, Path file, long size)
+            throws IOException, InterruptedException, ExecutionException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            IntBuffer table = buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+            int cityCount = graph.getCityCount();
+            AtomicInteger nextCity = new AtomicInteger(); // Next starting city that is not taken by a worker
+            int workerCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), cityCount));
+            ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+            try {
+                ArrayList<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < workerCount; i++) {
+                    results.add(workers.submit(() -> {
+                        // Every worker has its own search arrays and writes its own rows
+                        FastestRoute fastestRoute = new FastestRoute(graph);
+                        IntBuffer rows = table.duplicate();
+                        int city;
+                        while ((city = nextCity.getAndIncrement()) < cityCount) {
+                            fastestRoute.findFastestRoutes(city);
+                            for (int target = 0; target < cityCount; target++) {
+                                rows.put(HEADER_SIZE + city * cityCount + target, fastestRoute.getDistance(target));
+                                rows.put(HEADER_SIZE + (cityCount + city) * cityCount + target,
+                                        fastestRoute.getLastEdge(target));
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } finally {
+                workers.shutdown();
+            }
+            table.put(0, MAGIC).put(1, VERSION).put(2, cityCount).put(3, graph.getRoadCount());
+            buffer.force();
+        }
+    }
+
+    /**
+     * Hashes the roads of the map. Maps with the same roads in the same order get the same hash, whatever the
+     * start and end points of the file are.
+     *
+     * @param graph the graph of the map
+     * @return the hash as hexadecimal digits
+     */
+    private static String hashRoads(RoadGraph graph) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (int road = 0; road < graph.getRoadCount(); road++) {
+                digest.update((graph.getRoad(road) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the length of the fastest route between two cities.
+     *
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
+     * @return the length of the route, or -1 if there is no route
+     */
+    public int getRouteLength(String startingPoint, String endPoint) {
+        int from = graph.getCityIndex(startingPoint);
+        int to = graph.getCityIndex(endPoint);
+        if (from == -1 || to == -1 || from == to) {
+            return -1;
+        }
+        return table.get(HEADER_SIZE + from * cityCount + to);
+    }
+
+    /**
+     * Returns the roads of the fastest route between two cities. The route is rebuilt by following the last roads
+     * in the row of the starting city.
+     *
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
+     * @return the roads of the route in order, or {@code null} if there is no route
+     */
+    public ArrayList<Road> getRoute(String startingPoint, String endPoint) {
+        if (getRouteLength(startingPoint, endPoint) == -1) {
+            return null;
+        }
+        int from = graph.getCityIndex(startingPoint);
+        int city = graph.getCityIndex(endPoint);
+        int lastEdgesRow = HEADER_SIZE + (cityCount + from) * cityCount;
+        ArrayList<Road> route = new ArrayList<>();
+        while (city != from) {
+            int edge = table.get(lastEdgesRow + city);
+            route.add(graph.getRoad(graph.getEdgeRoads()[edge]));
+            city = graph.getEdgeSource(edge);
+        }
+        Collections.reverse(route);
+        return route;
+    }
+
+}
@@ -0,0 +1,311 @@
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * This class finds the k shortest routes between two cities that do not visit a city twice, with Yen's algorithm.
+ * Every found route is split at each of its cities: the part before the city is kept, and a new route from the city
+ * to the destination is searched while the cities of the kept part and the next roads of the found routes that share
+ * that part are closed. The shortest of those routes is the next one.
+ * <p>
+ * A route only has to be split from the city where it left the route it was found from, because the routes through
+ * the earlier cities were searched for that route already (Lawler's improvement). The searches are A* searches whose
+ * lower bounds are the distances to the destination on the whole map, found once, and a search is stopped as soon as
+ * it cannot give a route shorter than the routes that are already waiting.
+ */
+public class AlternativeRoutes {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE; // distance of the cities with no route
+
+    private final RoadGraph graph; // Graph of the map
+    private final int[] endDistances; // length of the fastest route from each city to the destination
+    private final int[] distances; // length of the best known spur route to each city
+    private final int[] lastEdges; // the last road of the best known spur route to each city
+    private final int[] cityMarks; // the search that last closed or settled each city
+    private final int[] roadMarks; // the search that last closed each road
+    private final IndexedMinHeap heap; // cities of the spur search whose route is not final yet
+    private int mark; // the number of the current search
+    private final ArrayList<Route> routes = new ArrayList<>(); // the routes found so far, shortest first
+
+    /**
+     * Finds the shortest routes between two cities. The first route is the fastest route the plain Dijkstra
+     * search finds, so it is the same as the reported fastest route.
+     *
+     * @param graph         the graph of the map
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
+     * @param count         the number of routes to find
+     * @param queue         the kind of the queue of the fastest route searches, see {@link SearchState#createQueue}
+     */
+    public AlternativeRoutes(RoadGraph graph, String startingPoint, String endPoint, int count, String queue) {
+        this.graph = graph;
+        int cityCount = graph.getCityCount();
+        endDistances = new int[cityCount];
+        distances = new int[cityCount];
+        lastEdges = new int[cityCount];
+        cityMarks = new int[cityCount];
+        roadMarks = new int[graph.getRoadPoints().length / 2];
+        heap = new IndexedMinHeap(cityCount);
+        int startingCity = graph.getCityIndex(startingPoint);
+        int endCity = graph.getCityIndex(endPoint);
+        if (startingCity == -1 || endCity == -1 || startingCity == endCity) {
+            return;
+        }
+        FastestRoute fastestRoute = new FastestRoute(graph, FastestRoute.DIJKSTRA, null, null, queue);
+        fastestRoute.findFastestRoutes(endCity);
+        for (int city = 0; city < cityCount; city++) {
+            int distance = fastestRoute.getDistance(city);
+            endDistances[city] = distance == -1 ? UNREACHABLE : distance;
+        }
+        if (endDistances[startingCity] == UNREACHABLE) {
+            return;
+        }
+        fastestRoute.findFastestRoute(startingPoint, endPoint);
+        findRoutes(startingCity, endCity, getFirstRoute(fastestRoute, startingCity, endCity), count);
+    }
+
+    /**
+     * Returns the fastest route found by a search as a list of stored roads.
+     *
+     * @param fastestRoute the search from the starting city to the destination
+     * @param startingCity the index of the starting city
+     * @param endCity      the index of the destination city
+     * @return the route
+     */
+    private Route getFirstRoute(FastestRoute fastestRoute, int startingCity, int endCity) {
+        int roadCount = 0;
+        for (int city = endCity; city != startingCity; city = graph.getEdgeSource(fastestRoute.getLastEdge(city))) {
+            roadCount++;
+        }
+        int[] edges = new int[roadCount];
+        for (int city = endCity; city != startingCity; city = graph.getEdgeSource(fastestRoute.getLastEdge(city))) {
+            edges[--roadCount] = fastestRoute.getLastEdge(city);
+        }
+        return new Route(edges, fastestRoute.getDistance(endCity), 0, 0);
+    }
+
+    /**
+     * Finds the routes after the first one. The waiting routes are kept sorted by length and then by the order they
+     * are found, and only as many of them as are still needed are kept.
+     *
+     * @param startingCity the index of the starting city
+     * @param endCity      the index of the destination city
+     * @param firstRoute   the fastest route
+     * @param count        the number of routes to find
+     */
+    private void findRoutes(int startingCity, int endCity, Route firstRoute, int count) {
+        int[] lengths = graph.getLengths();
+        int[] targets = graph.getTargets();
+        ArrayList<Route> waitingRoutes = new ArrayList<>();
+        HashSet<IntBuffer> seenRoutes = new HashSet<>(); // roads of every route found, so none is found twice
+        seenRoutes.add(IntBuffer.wrap(firstRoute.edges));
+        int foundCount = 0; // Number of routes found, it orders the routes with the same length
+        Route route = firstRoute;
+        while (true) {
+            routes.add(route);
+            int needed = count - routes.size();
+            if (needed == 0) {
+                break;
+            }
+            long rootLength = 0;
+            int[] edges = route.edges;
+            int spurCity = startingCity;
+            for (int i = 0; i < edges.length; i++) {
+                if (i >= route.deviation) {
+                    // A route that cannot be shorter than the waiting routes that are needed is not searched
+                    long limit = waitingRoutes.size() >= needed ? waitingRoutes.get(needed - 1).length - 1
+                            : Long.MAX_VALUE;
+                    int[] spurEdges = rootLength + endDistances[spurCity] <= limit
+                            ? findSpurRoute(route, i, spurCity, endCity, limit - rootLength) : null;
+                    if (spurEdges != null) {
+                        int[] newEdges = Arrays.copyOf(edges, i + spurEdges.length);
+                        System.arraycopy(spurEdges, 0, newEdges, i, spurEdges.length);
+                        if (seenRoutes.add(IntBuffer.wrap(newEdges))) {
+                            long newLength = rootLength + distances[endCity];
+                            Route newRoute = new Route(newEdges, newLength, i, ++foundCount);
+                            int position = waitingRoutes.size();
+                            while (position > 0 && waitingRoutes.get(position - 1).isAfter(newRoute)) {
+                                position--;
+                            }
+                            waitingRoutes.add(position, newRoute);
+                            if (waitingRoutes.size() > needed) {
+                                waitingRoutes.remove(waitingRoutes.size() - 1);
+                            }
+                        }
+                    }
+                }
+                rootLength += lengths[edges[i]];
+                spurCity = targets[edges[i]];
+            }
+            if (waitingRoutes.isEmpty()) {
+                break;
+            }
+            route = waitingRoutes.remove(0);
+        }
+    }
+
+    /**
+     * Searches the shortest route from a city of a route to the destination that leaves the route at that city.
+     * The cities before the city are closed, and so are the next roads of the found routes that share the part
+     * before the city.
+     *
+     * @param route    the route that is split
+     * @param position the position of the city on the route
+     * @param spurCity the index of the city
+     * @param endCity  the index of the destination city
+     * @param limit    the length of the longest spur route that is searched
+     * @return the stored roads of the spur route, or {@code null} if there is no route within the limit
+     */
+    private int[] findSpurRoute(Route route, int position, int spurCity, int endCity, long limit) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        int[] edgeRoads = graph.getEdgeRoads();
+        mark++;
+        int city = spurCity;
+        for (int i = 0; i < position; i++) {
+            cityMarks[graph.getEdgeSource(route.edges[i])] = mark;
+        }
+        for (Route foundRoute : routes) {
+            if (foundRoute.edges.length > position && startsWith(foundRoute.edges, route.edges, position)) {
+                roadMarks[edgeRoads[foundRoute.edges[position]]] = mark;
+            }
+        }
+        long reachOrder = 0; // Counter that orders the cities with the same priority in the order they are reached
+        heap.clear();
+        distances[city] = 0;
+        lastEdges[city] = -1;
+        heap.insert(city, (long) endDistances[city] << 32);
+        // Cities reached in this search are marked with -mark until they are settled with mark
+        cityMarks[city] = -mark;
+        while (!heap.isEmpty()) {
+            city = heap.poll();
+            cityMarks[city] = mark;
+            if (city == endCity) {
+                break;
+            }
+            for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+                int otherCity = targets[edge];
+                if (cityMarks[otherCity] == mark || roadMarks[edgeRoads[edge]] == mark
+                        || endDistances[otherCity] == UNREACHABLE) {
+                    continue;
+                }
+                int distance = distances[city] + lengths[edge];
+                long priority = (long) distance + endDistances[otherCity];
+                if (priority > limit) {
+                    continue;
+                }
+                if (cityMarks[otherCity] != -mark) {
+                    cityMarks[otherCity] = -mark;
+                    distances[otherCity] = distance;
+                    lastEdges[otherCity] = edge;
+                    heap.insert(otherCity, (priority << 32) | reachOrder++);
+                } else if (distance < distances[otherCity]) {
+                    distances[otherCity] = distance;
+                    lastEdges[otherCity] = edge;
+                    heap.decreasePriority(otherCity, (priority << 32) | reachOrder++);
+                }
+            }
+        }
+        if (city != endCity) {
+            return null;
+        }
+        int roadCount = 0;
+        for (int c = endCity; c != spurCity; c = graph.getEdgeSource(lastEdges[c])) {
+            roadCount++;
+        }
+        int[] spurEdges = new int[roadCount];
+        for (int c = endCity; c != spurCity; c = graph.getEdgeSource(lastEdges[c])) {
+            spurEdges[--roadCount] = lastEdges[c];
+        }
+        return spurEdges;
+    }
+
+    /**
+     * Checks whether two routes start with the same edges.
+     *
+     * @param edges      the edges of a route
+     * @param otherEdges the edges of the other route
+     * @param count      the number of edges that are compared, at most the length of both routes
+     * @return {@code true} if the first {@code count} edges of the routes are the same
+     */
+    private static boolean startsWith(int[] edges, int[] otherEdges, int count) {
+        for (int i = 0; i < count; i++) {
+            if (edges[i] != otherEdges[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of routes found. It is less than the requested number if there are not enough routes.
+     *
+     * @return the number of routes
+     */
+    public int getRouteCount() {
+        return routes.size();
+    }
+
+    /**
+     * Returns the roads of a route.
+     *
+     * @param index the place of the route, 0 for the shortest one
+     * @return the roads of the route in order
+     */
+    public ArrayList<Road> getRoute(int index) {
+        ArrayList<Road> roads = new ArrayList<>();
+        for (int edge : routes.get(index).edges) {
+            roads.add(graph.getRoad(graph.getEdgeRoads()[edge]));
+        }
+        return roads;
+    }
+
+    /**
+     * Returns the length of a route.
+     *
+     * @param index the place of the route, 0 for the shortest one
+     * @return the length of the route
+     */
+    public long getRouteLength(int index) {
+        return routes.get(index).length;
+    }
+
+    /**
+     * A route from the starting city to the destination.
+     */
+    private static final class Route {
+
+        private final int[] edges; // the stored roads of the route in order
+        private final long length; // the length of the route
+        private final int deviation; // the position where the route leaves the route it was found from
+        private final int order; // the number of routes found before this one
+
+        /**
+         * Constructs a route.
+         *
+         * @param edges     the stored roads of the route in order
+         * @param length    the length of the route
+         * @param deviation the position where the route leaves the route it was found from
+         * @param order     the number of routes found before this one
+         */
+        Route(int[] edges, long length, int deviation, int order) {
+            this.edges = edges;
+            this.length = length;
+            this.deviation = deviation;
+            this.order = order;
+        }
+
+        /**
+         * Checks if this route comes after another one, which is when it is longer or has the same length and was
+         * found later.
+         *
+         * @param other the other route
+         * @return {@code true} if this route comes after the other one; {@code false} otherwise
+         */
+        boolean isAfter(Route other) {
+            return length != other.length ? length > other.length : order > other.order;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class collects the metrics of an analysis: the wall time and the allocated bytes of every phase and the
+ * counters the phase reports, such as the settled cities and the heap operations of a route search. The metrics are
+ * written as one line of JSON, so the runs of many maps can be compared by a script.
+ * <p>
+ * The counters themselves are kept by the searches, which only add to a field, and a disabled object returns from
+ * every method at once, so the analysis pays almost nothing when the metrics are not asked for. The allocated bytes
+ * are those of the thread that runs the phase, so they are an estimate for the phases that use more threads.
+ */
+public class AnalysisMetrics {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final boolean enabled; // whether the metrics are collected
+    private final ArrayList<String> phaseNames = new ArrayList<>(); // names of the phases in the order they ran
+    private final ArrayList<long[]> phaseTimes = new ArrayList<>(); // wall time and allocated bytes of each phase
+    private final ArrayList<ArrayList<String>> counterNames = new ArrayList<>(); // names of the counters of each phase
+    private final ArrayList<ArrayList<Long>> counterValues = new ArrayList<>(); // values of the counters of each phase
+    private long phaseStart; // the time the current phase started at
+    private long phaseBytes; // the bytes the thread had allocated when the current phase started
+
+    /**
+     * Constructs a new {@code AnalysisMetrics} object.
+     *
+     * @param enabled whether the metrics are collected; a disabled object ignores every call
+     */
+    public AnalysisMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts a phase. The phase ends when {@link #endPhase} is called.
+     *
+     * @param name the name of the phase
+     */
+    public void startPhase(String name) {
+        if (!enabled) {
+            return;
+        }
+        phaseNames.add(name);
+        counterNames.add(new ArrayList<>());
+        counterValues.add(new ArrayList<>());
+        phaseBytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+        phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Ends the current phase and records its wall time and allocated bytes.
+     */
+    public void endPhase() {
+        if (!enabled) {
+            return;
+        }
+        long time = System.nanoTime() - phaseStart;
+        long bytes = THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) - phaseBytes;
+        phaseTimes.add(new long[]{time, bytes});
+    }
+
+    /**
+     * Adds a counter to the last phase.
+     *
+     * @param name  the name of the counter
+     * @param value the value of the counter
+     */
+    public void count(String name, long value) {
+        if (!enabled) {
+            return;
+        }
+        counterNames.get(counterNames.size() - 1).add(name);
+        counterValues.get(counterValues.size() - 1).add(value);
+    }
+
+    /**
+     * Adds the counters of the searches of {@link FastestRoute} objects to the last phase. The counters of all
+     * objects are added up, with the searches their engines run to find the length of a route first.
+     *
+     * @param fastestRoutes the objects whose searches are counted
+     */
+    public void countSearches(List<FastestRoute> fastestRoutes) {
+        if (!enabled) {
+            return;
+        }
+        long relaxed = 0;
+        long pushes = 0;
+        long pops = 0;
+        long decreases = 0;
+        for (FastestRoute fastestRoute : fastestRoutes) {
+            relaxed += fastestRoute.getRelaxedCount();
+            pushes += fastestRoute.getState().getPushCount();
+            pops += fastestRoute.getState().getPopCount();
+            decreases += fastestRoute.getState().getDecreaseCount();
+            for (SearchState state : fastestRoute.getLengthStates()) {
+                pushes += state.getPushCount();
+                pops += state.getPopCount();
+                decreases += state.getDecreaseCount();
+            }
+        }
+        count("citiesSettled", pops);
+        count("edgesRelaxed", relaxed);
+        count("heapPushes", pushes);
+        count("heapPops", pops);
+        count("heapDecreases", decreases);
+    }
+
+    /**
+     * Writes the metrics as one line of JSON. Times are in milliseconds.
+     *
+     * @param report the report the line is written to
+     */
+    public void write(ReportWriter report) {
+        if (!enabled) {
+            return;
+        }
+        report.write("{\"phases\":[");
+        for (int i = 0; i < phaseTimes.size(); i++) {
+            if (i > 0) {
+                report.write(',');
+            }
+            // The phase names and counter names are fixed words, so they need no escapes
+            report.write("{\"name\":\"").write(phaseNames.get(i)).write("\",\"wallMillis\":")
+                    .write(phaseTimes.get(i)[0] / 1e6, 3).write(",\"allocatedBytes\":").write(phaseTimes.get(i)[1])
+                    .write(",\"counters\":{");
+            for (int j = 0; j < counterNames.get(i).size(); j++) {
+                if (j > 0) {
+                    report.write(',');
+                }
+                report.write('"').write(counterNames.get(i).get(j)).write("\":").write(counterValues.get(i).get(j));
+            }
+            report.write("}}");
+        }
+        report.write("]}\n");
+    }
+}
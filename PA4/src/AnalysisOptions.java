@@ -0,0 +1,281 @@
+import java.util.ArrayList;
+
+/**
+ * This class holds the command line arguments of the MapAnalyzer program.
+ */
+public class AnalysisOptions {
+
+    public static final String USAGE = "Usage of this program: MapAnalyzer <input.txt> <output.txt>"
+            + " [--batch <queries.txt>] [--all-pairs <cache directory>]"
+            + " [--engine dijkstra|bidirectional|alt|ch|ch-fast] [--hierarchy <hierarchy.bin>]"
+            + " [--queue auto|heap|bucket|radix] [--mst kruskal|boruvka] [--updates <updates.txt>] [--alternatives <k>]"
+            + " [--export-snapshot <snapshot.bin>]"
+            + " [--isochrone <sources.txt>] [--cutoff <km>] [--metrics report|<metrics.json>]";
+    public static final String METRICS_REPORT = "report"; // metrics option value that appends them to the report
+
+    private String inputPath; // path of the map file
+    private String outputPath; // path of the output file
+    private String batchPath; // path of the file of start and end points to answer, null if not in batch mode
+    private String cacheDirectory; // directory of the all pairs route cache files, null if routes are not cached
+    private String engine = FastestRoute.DIJKSTRA; // engine of the fastest route searches
+    private String hierarchyPath; // path of the contraction hierarchy file, null if the hierarchy is not kept
+    private String queue = SearchState.AUTO; // kind of the queue of the fastest route searches
+    private String mstEngine = BarelyConnectedRoute.KRUSKAL; // algorithm of the barely connected map
+    private int alternatives; // number of shortest routes written in the alternative routes section, 0 for none
+    private String updatesPath; // path of the file of road changes, null if the map is not changed
+    private String snapshotPath; // path of the snapshot file the map is written to, null if it is not written
+    private String isochronePath; // path of the file of source cities, null if not in isochrone mode
+    private long cutoff = Long.MAX_VALUE; // longest distance of the cities of the isochrone
+    private String metricsPath; // path of the metrics file or METRICS_REPORT, null if no metrics are collected
+
+    /**
+     * Parses the command line arguments. The first two arguments are the input and output files and the rest are
+     * options. The options of the route analysis cannot be given with {@code --updates}, whose analysis of the
+     * changed map does not use them, or with {@code --isochrone}, which is written instead of that analysis. The
+     * {@code --cutoff} option can only be given with {@code --isochrone}.
+     *
+     * @param args the command line arguments
+     * @return the parsed options, or {@code null} if the arguments are not valid
+     */
+    public static AnalysisOptions parse(String[] args) {
+        if (args.length < 2) {
+            return null;
+        }
+        AnalysisOptions options = new AnalysisOptions();
+        options.inputPath = args[0];
+        options.outputPath = args[1];
+        ArrayList<String> givenOptions = new ArrayList<>(); // names of the options that are given
+        for (int i = 2; i < args.length; i++) {
+            // Every option takes a value
+            if (i + 1 == args.length) {
+                return null;
+            }
+            givenOptions.add(args[i]);
+            switch (args[i]) {
+                case "--batch":
+                    options.batchPath = args[++i];
+                    break;
+                case "--all-pairs":
+                    options.cacheDirectory = args[++i];
+                    break;
+                case "--engine":
+                    options.engine = args[++i];
+                    if (!options.engine.equals(FastestRoute.DIJKSTRA)
+                            && !options.engine.equals(FastestRoute.BIDIRECTIONAL)
+                            && !options.engine.equals(FastestRoute.ALT) && !options.engine.equals(FastestRoute.CH)
+                            && !options.engine.equals(FastestRoute.CH_FAST)) {
+                        return null;
+                    }
+                    break;
+                case "--hierarchy":
+                    options.hierarchyPath = args[++i];
+                    break;
+                case "--queue":
+                    options.queue = args[++i];
+                    if (!options.queue.equals(SearchState.AUTO) && !options.queue.equals(SearchState.HEAP)
+                            && !options.queue.equals(SearchState.BUCKET) && !options.queue.equals(SearchState.RADIX)) {
+                        return null;
+                    }
+                    break;
+                case "--mst":
+                    options.mstEngine = args[++i];
+                    if (!options.mstEngine.equals(BarelyConnectedRoute.KRUSKAL)
+                            && !options.mstEngine.equals(BarelyConnectedRoute.BORUVKA)) {
+                        return null;
+                    }
+                    break;
+                case "--alternatives":
+                    try {
+                        options.alternatives = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    if (options.alternatives < 1) {
+                        return null;
+                    }
+                    break;
+                case "--updates":
+                    options.updatesPath = args[++i];
+                    break;
+                case "--export-snapshot":
+                    options.snapshotPath = args[++i];
+                    break;
+                case "--isochrone":
+                    options.isochronePath = args[++i];
+                    break;
+                case "--cutoff":
+                    try {
+                        options.cutoff = Long.parseLong(args[++i]);
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                    if (options.cutoff < 0) {
+                        return null;
+                    }
+                    break;
+                case "--metrics":
+                    options.metricsPath = args[++i];
+                    break;
+                default:
+                    return null;
+            }
+        }
+        if (options.updatesPath != null && containsAny(givenOptions, "--batch", "--all-pairs", "--engine",
+                "--hierarchy", "--queue", "--mst", "--alternatives")) {
+            return null;
+        }
+        if (options.isochronePath != null && containsAny(givenOptions, "--batch", "--all-pairs", "--engine",
+                "--hierarchy", "--queue", "--alternatives", "--updates")) {
+            return null;
+        }
+        if (options.isochronePath == null && givenOptions.contains("--cutoff")) {
+            return null;
+        }
+        return options;
+    }
+
+    /**
+     * Checks whether any of the given option names is in a list of options.
+     *
+     * @param givenOptions the names of the options that are given
+     * @param names        the names to look for
+     * @return {@code true} if one of the names is given
+     */
+    private static boolean containsAny(ArrayList<String> givenOptions, String... names) {
+        for (String name : names) {
+            if (givenOptions.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the path of the map file.
+     *
+     * @return the input path
+     */
+    public String getInputPath() {
+        return inputPath;
+    }
+
+    /**
+     * Returns the path of the output file.
+     *
+     * @return the output path
+     */
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    /**
+     * Returns the path of the query file in batch mode.
+     *
+     * @return the query file path, or {@code null} if not in batch mode
+     */
+    public String getBatchPath() {
+        return batchPath;
+    }
+
+    /**
+     * Returns the directory of the all pairs route cache files.
+     *
+     * @return the cache directory, or {@code null} if routes are not cached
+     */
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * Returns the engine of the fastest route searches.
+     *
+     * @return one of {@link FastestRoute#DIJKSTRA}, {@link FastestRoute#BIDIRECTIONAL}, {@link FastestRoute#ALT},
+     * {@link FastestRoute#CH} and {@link FastestRoute#CH_FAST}
+     */
+    public String getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the path of the file the contraction hierarchy is kept in.
+     *
+     * @return the hierarchy file path, or {@code null} if the hierarchy is not kept
+     */
+    public String getHierarchyPath() {
+        return hierarchyPath;
+    }
+
+    /**
+     * Returns the kind of the queue of the fastest route searches.
+     *
+     * @return one of {@link SearchState#AUTO}, {@link SearchState#HEAP}, {@link SearchState#BUCKET} and
+     * {@link SearchState#RADIX}
+     */
+    public String getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns the algorithm that finds the barely connected map.
+     *
+     * @return {@link BarelyConnectedRoute#KRUSKAL} or {@link BarelyConnectedRoute#BORUVKA}
+     */
+    public String getMstEngine() {
+        return mstEngine;
+    }
+
+    /**
+     * Returns the number of shortest routes written in the alternative routes section.
+     *
+     * @return the number of routes, or 0 if the section is not written
+     */
+    public int getAlternatives() {
+        return alternatives;
+    }
+
+    /**
+     * Returns the path of the file of road changes.
+     *
+     * @return the update file path, or {@code null} if the map is not changed
+     */
+    public String getUpdatesPath() {
+        return updatesPath;
+    }
+
+    /**
+     * Returns the path of the snapshot file the map is written to.
+     *
+     * @return the snapshot file path, or {@code null} if the map is not written
+     */
+    public String getSnapshotPath() {
+        return snapshotPath;
+    }
+
+    /**
+     * Returns the path of the file of source cities in isochrone mode.
+     *
+     * @return the source file path, or {@code null} if not in isochrone mode
+     */
+    public String getIsochronePath() {
+        return isochronePath;
+    }
+
+    /**
+     * Returns the longest distance of the cities of the isochrone.
+     *
+     * @return the distance limit in KM, {@link Long#MAX_VALUE} if there is no limit
+     */
+    public long getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Returns where the metrics of the analysis are written.
+     *
+     * @return the path of the metrics file, {@link #METRICS_REPORT} if they are appended to the report, or
+     * {@code null} if no metrics are collected
+     */
+    public String getMetricsPath() {
+        return metricsPath;
+    }
+}
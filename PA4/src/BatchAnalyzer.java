@@ -0,0 +1,145 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class answers many start and end point questions on one map. The map and its barely connected map are built
+ * once, and the questions are shared between worker threads that have their own search arrays. The routes on the
+ * barely connected map are read from its shared {@link TreeRoutes}.
+ */
+public class BatchAnalyzer {
+
+    private final RoadGraph graph; // Graph of the map
+    private final TreeRoutes barelyRoutes; // Routes of the barely connected map
+    private final AllPairsRoutes allPairsRoutes; // Precomputed routes of the map, null if they are found per question
+    private final String engine; // Engine of the fastest route searches
+    private final Landmarks landmarks; // Landmarks of the map, null if the engine does not use them
+    private final ContractionHierarchy hierarchy; // Hierarchy of the map, null if the engine does not use it
+    private final String queue; // Kind of the queue of the fastest route searches
+    private final List<FastestRoute> searches = Collections.synchronizedList(new ArrayList<>()); // worker searches
+
+    /**
+     * Constructs a new {@code BatchAnalyzer} for the given map.
+     *
+     * @param graph                the graph of the map
+     * @param barelyConnectedRoute the barely connected map of the same map
+     * @param allPairsRoutes       the precomputed routes of the map, or {@code null} to find the routes per question
+     * @param engine               the engine of the fastest route searches
+     * @param landmarks            the landmarks of the map, required by the {@link FastestRoute#ALT} engine
+     * @param hierarchy            the contraction hierarchy of the map, required by the {@link FastestRoute#CH} and
+     *                             {@link FastestRoute#CH_FAST} engines
+     * @param queue                the kind of the queue of the fastest route searches, see
+     *                             {@link SearchState#createQueue}
+     */
+    public BatchAnalyzer(RoadGraph graph, BarelyConnectedRoute barelyConnectedRoute, AllPairsRoutes allPairsRoutes,
+                         String engine, Landmarks landmarks, ContractionHierarchy hierarchy, String queue) {
+        this.graph = graph;
+        this.barelyRoutes = barelyConnectedRoute.getTreeRoutes();
+        this.allPairsRoutes = allPairsRoutes;
+        this.engine = engine;
+        this.landmarks = landmarks;
+        this.hierarchy = hierarchy;
+        this.queue = queue;
+    }
+
+    /**
+     * Answers the questions in the query file and writes the answers to the report in the order of the questions.
+     *
+     * @param queryPath the path of the query file, every line holds a start and an end point separated by a tab
+     * @param report    the report of the output file
+     */
+    public void analyze(String queryPath, ReportWriter report) {
+        String[] queries = Reader.readFile(queryPath, true, true);
+        if (queries == null) {
+            return;
+        }
+        String[] answers = new String[queries.length];
+        AtomicInteger nextQuery = new AtomicInteger(); // Index of the next question that is not taken by a worker
+        int workerCount = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), queries.length));
+        ExecutorService workers = Executors.newFixedThreadPool(workerCount);
+        try {
+            ArrayList<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < workerCount; i++) {
+                results.add(workers.submit(() -> {
+                    // Every worker has its own search arrays
+                    FastestRoute fastestRoute = new FastestRoute(graph, engine, landmarks, hierarchy, queue);
+                    searches.add(fastestRoute);
+                    int query;
+                    while ((query = nextQuery.getAndIncrement()) < queries.length) {
+                        answers[query] = answer(queries[query], fastestRoute);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            System.out.println("ERROR: The questions could not be answered. Program is going to terminate!");
+            return;
+        } finally {
+            workers.shutdown();
+        }
+        for (String answer : answers) {
+            report.write(answer);
+        }
+    }
+
+    /**
+     * Returns the searches of the workers of the last analysis, whose counters are the metrics of the questions.
+     *
+     * @return the searches of the workers
+     */
+    public List<FastestRoute> getSearches() {
+        return searches;
+    }
+
+    /**
+     * Answers one question with the search arrays of the calling worker.
+     *
+     * @param query        the line of the question
+     * @param fastestRoute the search on the map
+     * @return the fastest routes on both maps in the format of the MapAnalyzer output
+     */
+    private String answer(String query, FastestRoute fastestRoute) {
+        String[] points = query.split("\t");
+        if (points.length != 2) {
+            return String.format("ERROR: \"%s\" is not a valid question.\n", query);
+        }
+        StringBuilder answer = new StringBuilder();
+        String title = String.format("Fastest Route from %s to %s", points[0], points[1]);
+        if (allPairsRoutes != null) {
+            appendRoute(answer, title, allPairsRoutes.getRoute(points[0], points[1]),
+                    allPairsRoutes.getRouteLength(points[0], points[1]));
+        } else {
+            fastestRoute.findFastestRoute(points[0], points[1]);
+            appendRoute(answer, title, fastestRoute.getRoute(points[1]), fastestRoute.getRouteLength(points[1]));
+        }
+        appendRoute(answer, String.format("Fastest Route from %s to %s on Barely Connected Map", points[0], points[1]),
+                barelyRoutes.getRoute(points[0], points[1]), barelyRoutes.getRouteLength(points[0], points[1]));
+        return answer.toString();
+    }
+
+    /**
+     * Appends a route to the answer.
+     *
+     * @param answer the answer to append to
+     * @param title  the title of the route
+     * @param route  the roads of the route, or {@code null} if there is no route
+     * @param length the length of the route
+     */
+    private static void appendRoute(StringBuilder answer, String title, ArrayList<Road> route, long length) {
+        if (route == null) {
+            answer.append(title).append(": No Route\n");
+            return;
+        }
+        answer.append(title).append(" (").append(length).append(" KM):\n");
+        for (Road road : route) {
+            answer.append(road).append('\n');
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class finds the length of the fastest route between two cities with a bidirectional Dijkstra search, one
+ * search from each end that stops when the two can no longer find a shorter route. The distances of the search from
+ * the destination are kept as lower bounds, so a second search from the starting city only has to visit the cities
+ * that can be on a fastest route. The arrays are reused by the next search, so one object should be used by one
+ * thread only.
+ */
+public class BidirectionalRoute implements RemainingDistance {
+
+    private final RoadGraph graph; // Graph of the map
+    private final SearchState forward; // State of the search from the starting city
+    private final SearchState backward; // State of the search from the destination city
+    private long backwardRadius; // No city whose backward distance is not final is closer to the destination
+    private long relaxedCount; // number of roads both searches relaxed
+
+    /**
+     * Constructs a new {@code BidirectionalRoute} object for the given map.
+     *
+     * @param graph the graph of the map
+     */
+    public BidirectionalRoute(RoadGraph graph) {
+        this.graph = graph;
+        forward = new SearchState(graph.getCityCount());
+        backward = new SearchState(graph.getCityCount());
+    }
+
+    /**
+     * Finds the length of the fastest route between two cities. The search with the closer frontier is extended
+     * first, and the searches stop when the sum of both frontiers is not shorter than the best route found.
+     *
+     * @param startingCity the index of the starting city
+     * @param endCity      the index of the destination city
+     * @return the length of the fastest route, or -1 if there is no route
+     */
+    public long findDistance(int startingCity, int endCity) {
+        forward.clear();
+        backward.clear();
+        forward.reach(startingCity, 0, -1, 0);
+        backward.reach(endCity, 0, -1, 0);
+        long bestDistance = startingCity == endCity ? 0 : Long.MAX_VALUE;
+        while (!forward.isFinished() && !backward.isFinished()
+                && forward.peekPriority() + backward.peekPriority() < bestDistance) {
+            if (forward.peekPriority() <= backward.peekPriority()) {
+                bestDistance = settle(forward, backward, bestDistance);
+            } else {
+                bestDistance = settle(backward, forward, bestDistance);
+            }
+        }
+        // Every city the backward search has not settled is at least as far as its frontier
+        backwardRadius = backward.isFinished() ? Integer.MAX_VALUE : backward.peekPriority();
+        return bestDistance == Long.MAX_VALUE ? -1 : bestDistance;
+    }
+
+    /**
+     * Settles the closest city of one search and relaxes its roads. A road that leads to a city the other search
+     * has reached completes a route between the two cities.
+     *
+     * @param search       the state of the search
+     * @param otherSearch  the state of the other search
+     * @param bestDistance the length of the best route found so far
+     * @return the length of the best route found after settling the city
+     */
+    private long settle(SearchState search, SearchState otherSearch, long bestDistance) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        int city = search.settle();
+        relaxedCount += offsets[city + 1] - offsets[city];
+        for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+            int otherCity = targets[edge];
+            if (search.isSettled(otherCity)) {
+                continue;
+            }
+            int distance = search.getDistance(city) + lengths[edge];
+            if (!search.isReached(otherCity)) {
+                search.reach(otherCity, distance, edge, distance);
+            } else if (distance < search.getDistance(otherCity)) {
+                search.improve(otherCity, distance, edge, distance);
+            }
+            if (otherSearch.isReached(otherCity)) {
+                bestDistance = Math.min(bestDistance, (long) distance + otherSearch.getDistance(otherCity));
+            }
+        }
+        return bestDistance;
+    }
+
+    /**
+     * Returns a lower bound of the length of the route from the city to the destination of the last search. It is
+     * the exact length for the cities the backward search has settled and its frontier for the others.
+     *
+     * @param city the index of the city
+     * @return the lower bound
+     */
+    @Override
+    public long getLowerBound(int city) {
+        return backward.isSettled(city) ? backward.getDistance(city) : backwardRadius;
+    }
+
+    /**
+     * Returns the states of the search from the starting city and the search from the destination, which count
+     * their heap operations.
+     *
+     * @return the search states
+     */
+    public List<SearchState> getStates() {
+        return Arrays.asList(forward, backward);
+    }
+
+    /**
+     * Returns the number of roads both searches relaxed. The roads of every settled city are counted.
+     *
+     * @return the number of relaxed roads
+     */
+    public long getRelaxedCount() {
+        return relaxedCount;
+    }
+}
@@ -0,0 +1,178 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * This class finds the minimum spanning forest of a map with Boruvka's algorithm on all cores. In every round each
+ * part of the map picks its first road in the order of length and ID that leads to another part, and the picked
+ * roads join the parts. The roads are split between fork/join tasks, and the parts are kept in a
+ * {@link ConcurrentDisjointSet}. Every road has a different place in the sorted road order, so the forest is the
+ * same as the one Kruskal's algorithm finds.
+ */
+public class BoruvkaForest {
+
+    private static final int TASK_SIZE = 1 << 13; // number of items a task handles without splitting
+    private static final int NONE = Integer.MAX_VALUE; // rank of a part that has not picked a road
+
+    private final int[] roads; // indexes of the roads of the forest sorted by length and ID
+    private long findCount; // number of finds of the parts, for the metrics of the analysis
+
+    /**
+     * Finds the minimum spanning forest of the map.
+     *
+     * @param graph the graph of the map
+     */
+    public BoruvkaForest(RoadGraph graph) {
+        int[] roadPoints = graph.getRoadPoints();
+        int[] roadOrder = graph.getRoadOrder();
+        int cityCount = graph.getCityCount();
+        // The rank of a road is its place in the sorted road order, so comparing two roads takes one comparison
+        int[] points = new int[2 * roadOrder.length]; // the ends of the road of each rank
+        forEach(roadOrder.length, rank -> {
+            points[2 * rank] = roadPoints[2 * roadOrder[rank]];
+            points[2 * rank + 1] = roadPoints[2 * roadOrder[rank] + 1];
+        });
+        ConcurrentDisjointSet parts = new ConcurrentDisjointSet(cityCount);
+        AtomicIntegerArray picked = new AtomicIntegerArray(cityCount); // the rank of the road each part picked
+        forEach(cityCount, city -> picked.set(city, NONE));
+        boolean[] inForest = new boolean[roadOrder.length];
+        // Roads that start and end at the same city never join two parts
+        int[] candidates = IntStream.range(0, roadOrder.length).parallel()
+                .filter(rank -> points[2 * rank] != points[2 * rank + 1]).toArray();
+        while (candidates.length > 0) {
+            int[] roundCandidates = candidates;
+            // Every candidate is found twice to pick a road and twice to filter it, and every union finds twice
+            findCount += 4L * roundCandidates.length;
+            forEach(roundCandidates.length, i -> {
+                int rank = roundCandidates[i];
+                int part1 = parts.find(points[2 * rank]);
+                int part2 = parts.find(points[2 * rank + 1]);
+                if (part1 != part2) {
+                    pick(picked, part1, rank);
+                    pick(picked, part2, rank);
+                }
+            });
+            findCount += 2 * count(cityCount, part -> {
+                int rank = picked.get(part);
+                if (rank == NONE) {
+                    return false;
+                }
+                picked.set(part, NONE);
+                // A road picked by both of its parts joins them only once
+                if (parts.union(points[2 * rank], points[2 * rank + 1])) {
+                    inForest[rank] = true;
+                }
+                return true;
+            });
+            candidates = Arrays.stream(roundCandidates).parallel()
+                    .filter(rank -> parts.find(points[2 * rank]) != parts.find(points[2 * rank + 1])).toArray();
+        }
+        roads = IntStream.range(0, roadOrder.length).parallel().filter(rank -> inForest[rank])
+                .map(rank -> roadOrder[rank]).toArray();
+    }
+
+    /**
+     * Makes a part pick a road if it comes before the road the part has picked so far.
+     *
+     * @param picked the rank of the road each part picked
+     * @param part   the root city of the part
+     * @param rank   the rank of the road
+     */
+    private static void pick(AtomicIntegerArray picked, int part, int rank) {
+        int current = picked.get(part);
+        while (rank < current && !picked.compareAndSet(part, current, rank)) {
+            current = picked.get(part);
+        }
+    }
+
+    /**
+     * Runs an action for every number from 0 to the count on the common fork/join pool.
+     *
+     * @param count  the number of items
+     * @param action the action of an item
+     */
+    private static void forEach(int count, IntConsumer action) {
+        count(count, i -> {
+            action.accept(i);
+            return false;
+        });
+    }
+
+    /**
+     * Runs an action for every number from 0 to the count on the common fork/join pool and counts the numbers the
+     * action returns {@code true} for.
+     *
+     * @param count  the number of items
+     * @param action the action of an item
+     * @return the number of items the action returned {@code true} for
+     */
+    private static long count(int count, IntPredicate action) {
+        return ForkJoinPool.commonPool().invoke(new RangeTask(0, count, action));
+    }
+
+    /**
+     * Returns the roads of the forest.
+     *
+     * @return the indexes of the roads sorted by length and ID
+     */
+    public int[] getRoads() {
+        return roads;
+    }
+
+    /**
+     * Returns the number of finds of the parts in all rounds. The finds a union repeats when another thread links
+     * one of its roots first are not counted.
+     *
+     * @return the number of finds
+     */
+    public long getFindCount() {
+        return findCount;
+    }
+
+    /**
+     * A fork/join task that runs an action for a range of items, splitting the range in half until it is small, and
+     * counts the items the action returns {@code true} for.
+     */
+    private static final class RangeTask extends RecursiveTask<Long> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from; // the first item of the range
+        private final int to; // the item after the last item of the range
+        private final IntPredicate action; // the action of an item
+
+        /**
+         * Constructs a task for a range of items.
+         *
+         * @param from   the first item of the range
+         * @param to     the item after the last item of the range
+         * @param action the action of an item
+         */
+        RangeTask(int from, int to, IntPredicate action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= TASK_SIZE) {
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    if (action.test(i)) {
+                        count++;
+                    }
+                }
+                return count;
+            }
+            int middle = (from + to) >>> 1;
+            RangeTask second = new RangeTask(middle, to, action);
+            second.fork();
+            return new RangeTask(from, middle, action).compute() + second.join();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * This class is Dial's bucket queue over city indexes. The priorities are whole numbers, such as the distances of a
+ * route search, and a city is put into the bucket of its priority, so adding a city and lowering its priority take
+ * constant time and polling only walks over the empty buckets. The buckets are used in a circle: a search never
+ * adds a priority more than the longest road above the priority it polled last, so one bucket more than the length
+ * of the longest road is enough. The number of buckets is rounded up to a power of two, so the bucket of a priority
+ * is found with a mask.
+ * <p>
+ * Every bucket is a list in which a city is added at the end, so cities with the same priority are polled in the
+ * order they got that priority, which is the order the route searches resolve routes of the same length in. The
+ * priorities may also hold a tie breaker in their lower bits, which are then left out of the bucket with a shift;
+ * the tie breaker must grow with every city that is added, so the order of a bucket is the order of the priorities.
+ */
+public class BucketQueue implements CityQueue {
+
+    public static final int MAX_STEP = (1 << 20) - 1; // largest step the queue is used for, larger ones use a heap
+    private static final int NOT_QUEUED = -2; // previous city of the cities that are not in the queue
+
+    private final int mask; // the number of buckets minus one
+    private final int shift; // number of lower bits of the priorities that are not part of the bucket
+    private final int[] heads; // first city of each bucket, -1 for an empty bucket
+    private final int[] tails; // last city of each bucket, -1 for an empty bucket
+    private final int[] nextCities; // next city in the bucket of each city, -1 for the last one
+    private final int[] previousCities; // previous city in the bucket of each city, -1 for the first one
+    private final long[] priorities; // priority of each city in the queue
+    private long current; // no city in the queue has a shifted priority below this one
+    private int size; // number of cities in the queue
+
+    /**
+     * Constructs an empty queue that can hold the cities {@code 0 .. capacity - 1}.
+     *
+     * @param capacity the number of cities on the map
+     * @param maxStep  the largest difference between a priority that is added and the last polled priority, which
+     *                 is the length of the longest road for a route search, at most {@link #MAX_STEP}
+     * @param shift    the number of lower bits of the priorities that hold a tie breaker
+     */
+    public BucketQueue(int capacity, int maxStep, int shift) {
+        this.shift = shift;
+        mask = maxStep == 0 ? 0 : Integer.highestOneBit(maxStep) * 2 - 1;
+        heads = new int[mask + 1];
+        tails = new int[mask + 1];
+        nextCities = new int[capacity];
+        previousCities = new int[capacity];
+        priorities = new long[capacity];
+        Arrays.fill(heads, -1);
+        Arrays.fill(tails, -1);
+        Arrays.fill(previousCities, NOT_QUEUED);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return previousCities[city] != NOT_QUEUED;
+    }
+
+    /**
+     * Adds a city to the end of the bucket of its priority.
+     *
+     * @param city     the index of the city, it must not be in the queue
+     * @param priority the priority of the city, its shifted value not below the last polled one and not more than
+     *                 the largest step above it
+     */
+    @Override
+    public void insert(int city, long priority) {
+        if (size++ == 0) {
+            current = priority >>> shift;
+        }
+        priorities[city] = priority;
+        int bucket = getBucket(priority);
+        nextCities[city] = -1;
+        previousCities[city] = tails[bucket];
+        if (tails[bucket] == -1) {
+            heads[bucket] = city;
+        } else {
+            nextCities[tails[bucket]] = city;
+        }
+        tails[bucket] = city;
+    }
+
+    /**
+     * Moves a city to the end of the bucket of its new priority.
+     *
+     * @param city     the index of the city
+     * @param priority the new priority, it must not be greater than the current one
+     */
+    @Override
+    public void decreasePriority(int city, long priority) {
+        remove(city);
+        insert(city, priority);
+    }
+
+    @Override
+    public long peekPriority() {
+        while (heads[(int) current & mask] == -1) {
+            current++;
+        }
+        return priorities[heads[(int) current & mask]];
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        for (int bucket = 0; bucket < heads.length; bucket++) {
+            for (int city = heads[bucket]; city != -1; city = nextCities[city]) {
+                previousCities[city] = NOT_QUEUED;
+            }
+            heads[bucket] = -1;
+            tails[bucket] = -1;
+        }
+        size = 0;
+    }
+
+    @Override
+    public int poll() {
+        int city = heads[getBucket(peekPriority())];
+        remove(city);
+        return city;
+    }
+
+    /**
+     * Takes a city out of its bucket.
+     *
+     * @param city the index of the city, it must be in the queue
+     */
+    private void remove(int city) {
+        int bucket = getBucket(priorities[city]);
+        int previous = previousCities[city];
+        int next = nextCities[city];
+        if (previous == -1) {
+            heads[bucket] = next;
+        } else {
+            nextCities[previous] = next;
+        }
+        if (next == -1) {
+            tails[bucket] = previous;
+        } else {
+            previousCities[next] = previous;
+        }
+        previousCities[city] = NOT_QUEUED;
+        size--;
+    }
+
+    /**
+     * Returns the bucket of a priority.
+     *
+     * @param priority the priority
+     * @return the index of the bucket
+     */
+    private int getBucket(long priority) {
+        return (int) (priority >>> shift) & mask;
+    }
+}
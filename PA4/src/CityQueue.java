@@ -0,0 +1,57 @@
+/**
+ * This interface is a priority queue over city indexes for the route searches. Every city can be in the queue at
+ * most once and its priority can be lowered in place. Cities with the same priority are polled in the order they
+ * got that priority, unless the implementation says otherwise.
+ */
+public interface CityQueue {
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return {@code true} if there is no city in the queue; {@code false} otherwise
+     */
+    boolean isEmpty();
+
+    /**
+     * Checks if the city is in the queue.
+     *
+     * @param city the index of the city
+     * @return {@code true} if the city is in the queue; {@code false} otherwise
+     */
+    boolean contains(int city);
+
+    /**
+     * Adds a city to the queue.
+     *
+     * @param city     the index of the city, it must not be in the queue
+     * @param priority the priority of the city, smaller values are polled first
+     */
+    void insert(int city, long priority);
+
+    /**
+     * Lowers the priority of a city that is already in the queue.
+     *
+     * @param city     the index of the city
+     * @param priority the new priority, it must not be greater than the current one
+     */
+    void decreasePriority(int city, long priority);
+
+    /**
+     * Returns the smallest priority in the queue.
+     *
+     * @return the priority of the city that is polled next, the queue must not be empty
+     */
+    long peekPriority();
+
+    /**
+     * Removes every city from the queue.
+     */
+    void clear();
+
+    /**
+     * Removes the city with the smallest priority from the queue.
+     *
+     * @return the index of the removed city
+     */
+    int poll();
+}
@@ -0,0 +1,144 @@
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * This class holds the names of the cities of a map and finds the index of a city by its name. The names of a map
+ * that is read from a text file are strings from the start. The names of a map that is read from a snapshot file
+ * stay in the mapped UTF-8 bytes of the file and a name becomes a string only when it is asked for; the cities are
+ * then found with the hash table stored in the snapshot, so no name is read while the map is loaded.
+ */
+public class CityTable {
+
+    private final int cityCount; // number of cities
+    private final String[] names; // names of the cities, an entry is null until the name is read from the bytes
+    private final HashMap<String, Integer> indexes; // index of every city, null if the hash table is used
+    private final ByteBuffer nameBytes; // UTF-8 bytes of the names, null if every name is a string
+    private final int[] nameOffsets; // the bytes of city i are between nameOffsets[i] and nameOffsets[i + 1]
+    private final int[] slots; // open addressing table of the cities, city + 1 in each used slot and 0 in empty ones
+
+    /**
+     * Constructs a table of names that are already strings.
+     *
+     * @param names   the names of the cities, ordered by their indexes
+     * @param indexes the index of every city
+     */
+    CityTable(String[] names, HashMap<String, Integer> indexes) {
+        this.cityCount = names.length;
+        this.names = names;
+        this.indexes = indexes;
+        this.nameBytes = null;
+        this.nameOffsets = null;
+        this.slots = null;
+    }
+
+    /**
+     * Constructs a table of names that are kept as UTF-8 bytes.
+     *
+     * @param cityCount   the number of cities
+     * @param nameBytes   the bytes of the names, they are not copied
+     * @param nameOffsets the offsets of the names in the bytes, at least {@code cityCount + 1} entries
+     * @param slots       the hash table of the cities, built by {@link #getSlots}
+     */
+    CityTable(int cityCount, ByteBuffer nameBytes, int[] nameOffsets, int[] slots) {
+        this.cityCount = cityCount;
+        this.names = new String[cityCount];
+        this.indexes = null;
+        this.nameBytes = nameBytes;
+        this.nameOffsets = nameOffsets;
+        this.slots = slots;
+    }
+
+    /**
+     * Returns the number of cities.
+     *
+     * @return the number of cities
+     */
+    public int getCount() {
+        return cityCount;
+    }
+
+    /**
+     * Returns the name of a city.
+     *
+     * @param city the index of the city
+     * @return the name of the city
+     */
+    public String getName(int city) {
+        String name = names[city];
+        if (name == null) {
+            // Two threads may read the same name, which only creates an equal string twice
+            name = readName(nameBytes, nameOffsets, city);
+            names[city] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Returns the index of a city.
+     *
+     * @param name the name of the city
+     * @return the index of the city, or -1 if there is no city with the name
+     */
+    public int getIndex(String name) {
+        if (indexes != null) {
+            Integer index = indexes.get(name);
+            return index == null ? -1 : index;
+        }
+        int mask = slots.length - 1;
+        for (int slot = hash(name) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            if (getName(slots[slot] - 1).equals(name)) {
+                return slots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Builds the hash table of the cities. The table has at least twice as many slots as there are cities and
+     * every city is put into the first empty slot from the slot of its hash.
+     *
+     * @return the slots of the table, city + 1 in each used slot and 0 in empty ones
+     */
+    public int[] getSlots() {
+        int size = Integer.highestOneBit(Math.max(1, 2 * cityCount - 1)) << 1;
+        int[] table = new int[size];
+        for (int city = 0; city < cityCount; city++) {
+            int slot = hash(getName(city)) & (size - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (size - 1);
+            }
+            table[slot] = city + 1;
+        }
+        return table;
+    }
+
+    /**
+     * Reads a name from UTF-8 bytes.
+     *
+     * @param nameBytes   the bytes of the names
+     * @param nameOffsets the offsets of the names in the bytes
+     * @param index       the number of the name
+     * @return the name
+     */
+    static String readName(ByteBuffer nameBytes, int[] nameOffsets, int index) {
+        byte[] bytes = new byte[nameOffsets[index + 1] - nameOffsets[index]];
+        ByteBuffer name = nameBytes.duplicate();
+        // Buffer.position returns a ByteBuffer only from Java 9 on
+        ((Buffer) name).position(nameOffsets[index]);
+        name.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the hash of a name with its upper bits mixed into the lower ones, which pick the slot.
+     *
+     * @param name the name
+     * @return the hash
+     */
+    private static int hash(String name) {
+        int h = name.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
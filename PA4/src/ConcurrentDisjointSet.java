@@ -0,0 +1,70 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * This class is a disjoint-set (union-find) structure that many threads can use at the same time. The parents are
+ * changed with compare-and-set, a root is always linked under the root with the smaller index so no cycle can be
+ * formed, and the paths are shortened by halving while they are walked.
+ */
+public class ConcurrentDisjointSet {
+
+    private final AtomicIntegerArray parents; // parent of each city, a city that is its own parent is a root
+
+    /**
+     * Constructs a disjoint-set in which every city is in its own set.
+     *
+     * @param size the number of cities
+     */
+    public ConcurrentDisjointSet(int size) {
+        parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parents.set(i, i);
+        }
+    }
+
+    /**
+     * Finds the root of the set that contains the city. Every visited city is linked to its grandparent on the way.
+     *
+     * @param city the index of the city
+     * @return the index of the root city of the set
+     */
+    public int find(int city) {
+        while (true) {
+            int parent = parents.get(city);
+            if (parent == city) {
+                return city;
+            }
+            int grandparent = parents.get(parent);
+            if (parent != grandparent) {
+                // Another thread may have changed the parent, which only makes the path shorter
+                parents.compareAndSet(city, parent, grandparent);
+            }
+            city = grandparent;
+        }
+    }
+
+    /**
+     * Merges the sets of two cities. The root with the larger index is linked under the other one; if another
+     * thread links one of the roots first, the roots are found again.
+     *
+     * @param city1 the index of the first city
+     * @param city2 the index of the second city
+     * @return {@code true} if the cities were in different sets; {@code false} if they were already connected
+     */
+    public boolean union(int city1, int city2) {
+        while (true) {
+            int root1 = find(city1);
+            int root2 = find(city2);
+            if (root1 == root2) {
+                return false;
+            }
+            if (root1 < root2) {
+                int swap = root1;
+                root1 = root2;
+                root2 = swap;
+            }
+            if (parents.compareAndSet(root1, root1, root2)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class holds the contraction hierarchy of a map, which is built once by a {@link HierarchyBuilder} and then
+ * answers route questions by searching only its upward roads. Every city has a rank, the order it was contracted in,
+ * and its upward roads lead to cities of higher rank. An upward road is a road of the map or a shortcut through a
+ * city of lower rank, so every fastest route has a version that goes up from both ends and meets at its highest
+ * city. The queries are answered by {@link HierarchyRoute}.
+ * <p>
+ * A hierarchy can be written to a file next to the map and mapped again by later runs. The file is a header of
+ * {@value #HEADER_SIZE} integers (magic, version, cities, upward roads and the 64-bit hash of the roads of the map)
+ * followed by the offsets, targets, lengths, middle cities and map roads of the upward roads. All integers are
+ * little-endian.
+ */
+public class ContractionHierarchy {
+
+    private static final int MAGIC = 0x43344150; // "PA4C" as the first four bytes of every hierarchy file
+    private static final int VERSION = 1; // version of the hierarchy file format
+    private static final int HEADER_SIZE = 6; // number of integers before the arrays
+
+    private final long roadsHash; // hash of the roads of the map the hierarchy belongs to
+    private final int[] upOffsets; // the upward roads of city i are stored between upOffsets[i] and upOffsets[i + 1]
+    private final int[] upTargets; // the city each upward road leads to
+    private final int[] upLengths; // the length of each upward road
+    private final int[] upMiddles; // the city each shortcut goes through, -1 for a road of the map
+    private final int[] upRoads; // the index of the road of the map, -1 for a shortcut
+    private final int[] upSources; // the city each upward road starts from
+
+    /**
+     * Constructs a hierarchy of the given upward roads.
+     *
+     * @param roadsHash the hash of the roads of the map
+     * @param upOffsets the offsets of the cities in the upward road arrays
+     * @param upTargets the city each upward road leads to
+     * @param upLengths the length of each upward road
+     * @param upMiddles the city each shortcut goes through, -1 for a road of the map
+     * @param upRoads   the index of the road of the map, -1 for a shortcut
+     */
+    ContractionHierarchy(long roadsHash, int[] upOffsets, int[] upTargets, int[] upLengths, int[] upMiddles,
+                         int[] upRoads) {
+        this.roadsHash = roadsHash;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upLengths = upLengths;
+        this.upMiddles = upMiddles;
+        this.upRoads = upRoads;
+        upSources = new int[upTargets.length];
+        for (int city = 0; city + 1 < upOffsets.length; city++) {
+            for (int road = upOffsets[city]; road < upOffsets[city + 1]; road++) {
+                upSources[road] = city;
+            }
+        }
+    }
+
+    /**
+     * Returns the hierarchy of a map. If the file at the path holds the hierarchy of the same roads it is mapped,
+     * otherwise the hierarchy is built and written to the file. Without a path the hierarchy is only built.
+     *
+     * @param graph the graph of the map
+     * @param path  the path of the hierarchy file, or {@code null}
+     * @return the hierarchy of the map
+     */
+    public static ContractionHierarchy load(RoadGraph graph, String path) {
+        if (path != null && Files.exists(Paths.get(path))) {
+            ContractionHierarchy hierarchy = read(path);
+            if (hierarchy != null && hierarchy.roadsHash == hashRoads(graph)
+                    && hierarchy.upOffsets.length == graph.getCityCount() + 1) {
+                return hierarchy;
+            }
+        }
+        ContractionHierarchy hierarchy = new HierarchyBuilder(graph).build();
+        if (path != null) {
+            hierarchy.write(path);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Reads a hierarchy file. The file is memory mapped and every array is copied out of the mapping in one bulk
+     * operation.
+     *
+     * @param path the path of the hierarchy file
+     * @return the hierarchy, or {@code null} if the file is not a valid hierarchy file
+     */
+    private static ContractionHierarchy read(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4L * HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            int cityCount = ints.get(2);
+            int upCount = ints.get(3);
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION || cityCount < 0 || upCount < 0
+                    || size != 4 * (HEADER_SIZE + cityCount + 1 + 4L * upCount)) {
+                return null;
+            }
+            long roadsHash = ((long) ints.get(4) << 32) | (ints.get(5) & 0xFFFFFFFFL);
+            ints.position(HEADER_SIZE);
+            return new ContractionHierarchy(roadsHash, MapSnapshot.readInts(ints, cityCount + 1),
+                    MapSnapshot.readInts(ints, upCount), MapSnapshot.readInts(ints, upCount),
+                    MapSnapshot.readInts(ints, upCount), MapSnapshot.readInts(ints, upCount));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the hierarchy to a file. The file is written under a temporary name and renamed at the end, so a half
+     * written hierarchy is never read.
+     *
+     * @param path the path of the hierarchy file
+     */
+    private void write(String path) {
+        long size = 4 * (HEADER_SIZE + upOffsets.length + 4L * upTargets.length);
+        if (size > Integer.MAX_VALUE) {
+            System.out.printf("ERROR: The hierarchy is too large for the file \"%s\".%n", path);
+            return;
+        }
+        try {
+            Path hierarchyFile = Paths.get(path).toAbsolutePath();
+            Path temporaryFile = Files.createTempFile(hierarchyFile.getParent(), "hierarchy-", ".tmp");
+            boolean moved = false; // Whether the temporary file became the hierarchy file
+            try {
+                try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+                    ints.put(new int[]{MAGIC, VERSION, upOffsets.length - 1, upTargets.length,
+                            (int) (roadsHash >>> 32), (int) roadsHash});
+                    ints.put(upOffsets).put(upTargets).put(upLengths).put(upMiddles).put(upRoads);
+                    buffer.force();
+                }
+                Files.move(temporaryFile, hierarchyFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                // A hierarchy that cannot be written must not leave its temporary file behind
+                if (!moved) {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+        } catch (IOException e) {
+            System.out.printf("ERROR: This program cannot write the hierarchy file \"%s\": %s%n", path, e);
+        }
+    }
+
+    /**
+     * Hashes the ends, lengths and IDs of the roads of a map with the 64-bit FNV-1a hash. Maps with the same roads
+     * in the same order get the same hash.
+     *
+     * @param graph the graph of the map
+     * @return the hash
+     */
+    static long hashRoads(RoadGraph graph) {
+        long hash = 0xcbf29ce484222325L;
+        for (int[] values : new int[][]{graph.getRoadPoints(), graph.getRoadLengths(), graph.getRoadIDs()}) {
+            for (int value : values) {
+                hash = (hash ^ value) * 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the offsets of the cities. The upward roads of city i are stored between offsets[i] and
+     * offsets[i + 1].
+     *
+     * @return the upward offsets array
+     */
+    public int[] getUpOffsets() {
+        return upOffsets;
+    }
+
+    /**
+     * Returns the city each upward road leads to.
+     *
+     * @return the upward targets array
+     */
+    public int[] getUpTargets() {
+        return upTargets;
+    }
+
+    /**
+     * Returns the length of each upward road.
+     *
+     * @return the upward lengths array
+     */
+    public int[] getUpLengths() {
+        return upLengths;
+    }
+
+    /**
+     * Returns the city each upward shortcut goes through.
+     *
+     * @return the middle cities array, -1 for the roads of the map
+     */
+    public int[] getUpMiddles() {
+        return upMiddles;
+    }
+
+    /**
+     * Returns the road of the map of each upward road.
+     *
+     * @return the road indexes array, -1 for the shortcuts
+     */
+    public int[] getUpRoads() {
+        return upRoads;
+    }
+
+    /**
+     * Returns the city each upward road starts from.
+     *
+     * @return the upward sources array
+     */
+    public int[] getUpSources() {
+        return upSources;
+    }
+
+    /**
+     * Returns the number of upward roads, including the shortcuts.
+     *
+     * @return the number of upward roads
+     */
+    public int getUpRoadCount() {
+        return upTargets.length;
+    }
+}
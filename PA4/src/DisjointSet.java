@@ -0,0 +1,78 @@
+/**
+ * This class represents a disjoint-set (union-find) structure over city indexes. It is used to check whether two
+ * cities are already connected while the barely connected map is being built.
+ */
+public class DisjointSet {
+
+    private final int[] parents; // parent of each city, a city that is its own parent is the root of its set
+    private final byte[] ranks; // upper bound of the height of each root's tree
+    private long findCount; // number of finds, for the metrics of the analysis
+
+    /**
+     * Constructs a disjoint-set in which every city is in its own set.
+     *
+     * @param size the number of cities
+     */
+    public DisjointSet(int size) {
+        parents = new int[size];
+        ranks = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+    }
+
+    /**
+     * Finds the root of the set that contains the city. Every city on the way is linked directly to the root, so
+     * the next search from any of them takes a single step.
+     *
+     * @param city the index of the city
+     * @return the index of the root city of the set
+     */
+    public int find(int city) {
+        findCount++;
+        int root = city;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        // Compress the path
+        while (parents[city] != root) {
+            int parent = parents[city];
+            parents[city] = root;
+            city = parent;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets of two cities. The root with the smaller rank is linked under the other one.
+     *
+     * @param city1 the index of the first city
+     * @param city2 the index of the second city
+     * @return {@code true} if the cities were in different sets; {@code false} if they were already connected
+     */
+    public boolean union(int city1, int city2) {
+        int root1 = find(city1);
+        int root2 = find(city2);
+        if (root1 == root2) {
+            return false;
+        }
+        if (ranks[root1] < ranks[root2]) {
+            parents[root1] = root2;
+        } else if (ranks[root1] > ranks[root2]) {
+            parents[root2] = root1;
+        } else {
+            parents[root2] = root1;
+            ranks[root1]++;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of finds, including the finds of the unions.
+     *
+     * @return the number of finds
+     */
+    public long getFindCount() {
+        return findCount;
+    }
+}
@@ -0,0 +1,927 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
+
+/**
+ * This class keeps the fastest routes from the starting point and the barely connected map up to date while roads
+ * are added, removed and their lengths are changed, so the map does not have to be analysed from the beginning after
+ * every change.
+ * <p>
+ * The distances from the starting city are repaired after every change. A shorter or new road makes some routes
+ * shorter, which is spread from the road with a Dijkstra search. A longer or removed road can only change the cities
+ * whose every fastest route used it; those cities are found in the order of their old distances, and only they are
+ * searched again (the Ramalingam-Reps algorithm). Road lengths are assumed to be positive.
+ * <p>
+ * The barely connected map is kept as the minimum spanning forest of the whole map. A new road replaces the longest
+ * road of the route between its cities if it is shorter, and a removed road is replaced by the shortest road between
+ * the two parts it leaves behind, which is searched from the smaller part. Roads are compared by length, ID and the
+ * order they are added, like the full analysis does, so the forest and the reported routes are the same as the ones
+ * a full analysis of the changed map finds.
+ * <p>
+ * The reported routes and the roads of the barely connected map are kept between changes too. The fastest route is
+ * found again only if a change reaches a city that is not farther from the starting city than the destination, the
+ * sorted roads of the barely connected map only take the road that replaces another one, and they are found again
+ * only when two parts of the forest are joined or split. One object should be used by one thread only.
+ */
+public class DynamicRoadMap {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE; // distance of the cities with no route
+
+    private final HashMap<String, Integer> cityIndexes = new HashMap<>(); // index of every city seen so far
+    private String[] cityNames; // names of the cities, ordered by their indexes
+    private int cityCount; // number of cities seen so far
+    private int[] cityRoadCounts; // number of roads of each city, a city with no roads is not on the map
+    private int[][] cityRoads; // roads of each city sorted by length, ID and index, a road to itself is stored once
+    private int[][] treeRoads; // roads of each city that are on the barely connected forest
+    private int[] treeRoadCounts; // number of roads of each city that are on the barely connected forest
+
+    private int[] roadPoints; // the cities at both ends of each road, two entries per road
+    private int[] roadLengths; // the length of each road
+    private int[] roadIDs; // the ID of each road
+    private boolean[] inForest; // whether each road is on the barely connected forest
+    private int roadCount; // number of roads added so far, including the removed ones
+    private final HashMap<Integer, ArrayList<Integer>> roadsByID = new HashMap<>(); // roads on the map with each ID
+    private long totalLength; // total length of the roads on the map
+
+    private final int startingCity; // the city the distances are measured from
+    private int[] distances; // length of the fastest route to each city, UNREACHABLE if there is no route
+    private boolean[] affected; // whether the fastest route to the city is lost by the current change
+    private int[] marks; // the last search that visited each city
+    private int mark; // the number of the current search
+    private int[] parentRoads; // the road each city is reached from in the current search
+    private int[] queue; // cities of the current search in the order they are reached
+    private int[] otherQueue; // cities of the second search when two searches run at the same time
+    private IndexedMinHeap heap; // cities of the current search whose distance is not final yet
+
+    private int[] routeRoads; // roads of the last reported fastest route, null if it has to be found again
+    private int routeEndCity = -1; // the city the last reported fastest route ends at
+    private int routeLength; // the length of the last reported fastest route
+    private int lowestChange = UNREACHABLE; // the smallest distance changed since the fastest route was found
+    private int firstCity; // the alphabetically first city that is on the map, -1 if the map has no roads
+    // roads of the barely connected map in sorted order, null if they have to be found again
+    private TreeSet<Integer> barelyRoadSet;
+    private boolean barelyRouteFound; // whether barelyRouteRoads holds the route on the barely connected map
+    private int[] barelyRouteRoads; // roads of the last reported route on the barely connected map, null for no route
+    private int barelyRouteEndCity = -1; // the city the last reported route on the barely connected map ends at
+    private boolean[] onBarelyRoute; // whether each road is on the last reported route on the barely connected map
+
+    /**
+     * Builds the changeable map from the graph of a map. The cities and the roads keep their indexes.
+     *
+     * @param graph         the graph of the map
+     * @param startingPoint the name of the city the routes start from
+     */
+    public DynamicRoadMap(RoadGraph graph, String startingPoint) {
+        int roads = graph.getRoadCount();
+        cityNames = new String[Math.max(16, graph.getCityCount() + 1)];
+        growCities(cityNames.length);
+        roadPoints = new int[2 * Math.max(16, roads)];
+        roadLengths = new int[Math.max(16, roads)];
+        roadIDs = new int[roadLengths.length];
+        inForest = new boolean[roadLengths.length];
+        onBarelyRoute = new boolean[roadLengths.length];
+        for (int city = 0; city < graph.getCityCount(); city++) {
+            addCity(graph.getCityName(city));
+        }
+        int[] points = graph.getRoadPoints();
+        for (int road = 0; road < roads; road++) {
+            Road roadObject = graph.getRoad(road);
+            addRoadData(points[2 * road], points[2 * road + 1], roadObject.getRoadLength(), roadObject.getRoadID());
+        }
+        // The roads of every city are stored in sorted order by the graph already
+        int[] offsets = graph.getOffsets();
+        int[] edgeRoads = graph.getEdgeRoads();
+        for (int city = 0; city < graph.getCityCount(); city++) {
+            cityRoads[city] = Arrays.copyOfRange(edgeRoads, offsets[city], offsets[city + 1]);
+            cityRoadCounts[city] = cityRoads[city].length;
+        }
+        // The forest is built with Kruskal's algorithm once, then it is only repaired
+        DisjointSet connectedCities = new DisjointSet(graph.getCityCount());
+        for (int road : graph.getRoadOrder()) {
+            if (connectedCities.union(roadPoints[2 * road], roadPoints[2 * road + 1])) {
+                link(road);
+            }
+        }
+        startingCity = addCity(startingPoint);
+        firstCity = findFirstCity();
+        Arrays.fill(distances, UNREACHABLE);
+        distances[startingCity] = 0;
+        heap.insert(startingCity, 0);
+        spreadDistances();
+    }
+
+    /**
+     * Adds a road to the map.
+     *
+     * @param point1     the start point of the road
+     * @param point2     the end point of the road
+     * @param roadLength the length of the road
+     * @param roadID     the ID of the road
+     */
+    public void addRoad(String point1, String point2, int roadLength, int roadID) {
+        int road = addRoadData(addCity(point1), addCity(point2), roadLength, roadID);
+        noteRoadChange(road);
+        attach(road);
+        for (int j = 0; j < 2; j++) {
+            int city = roadPoints[2 * road + j];
+            if (firstCity == -1 || cityNames[city].compareTo(cityNames[firstCity]) < 0) {
+                firstCity = city;
+                forgetBarelyMap();
+            }
+        }
+        shortenDistances(road);
+        addToForest(road);
+    }
+
+    /**
+     * Removes a road from the map. If more than one road has the ID, the one that was added first is removed.
+     *
+     * @param roadID the ID of the road
+     * @return {@code true} if the road is removed; {@code false} if there is no road with the ID
+     */
+    public boolean removeRoad(int roadID) {
+        ArrayList<Integer> roads = roadsByID.get(roadID);
+        if (roads == null || roads.isEmpty()) {
+            return false;
+        }
+        int road = roads.remove(0);
+        noteRoadChange(road);
+        int[] lostCities = findLostCities(road);
+        detach(road);
+        totalLength -= roadLengths[road];
+        if (cityRoadCounts[firstCity] == 0) {
+            firstCity = findFirstCity();
+            forgetBarelyMap();
+        }
+        lengthenDistances(lostCities);
+        if (inForest[road]) {
+            replaceInForest(road);
+        }
+        return true;
+    }
+
+    /**
+     * Changes the length of a road. If more than one road has the ID, the one that was added first is changed.
+     *
+     * @param roadID     the ID of the road
+     * @param roadLength the new length of the road
+     * @return {@code true} if the road is changed; {@code false} if there is no road with the ID
+     */
+    public boolean changeLength(int roadID, int roadLength) {
+        ArrayList<Integer> roads = roadsByID.get(roadID);
+        if (roads == null || roads.isEmpty()) {
+            return false;
+        }
+        int road = roads.get(0);
+        int oldLength = roadLengths[road];
+        noteRoadChange(road);
+        int[] lostCities = roadLength > oldLength ? findLostCities(road) : new int[0];
+        // The road is moved to its new place in the sorted roads of its cities and of the barely connected map
+        boolean reported = barelyRoadSet != null && barelyRoadSet.remove(road);
+        detach(road);
+        roadLengths[road] = roadLength;
+        totalLength += roadLength - oldLength;
+        attach(road);
+        if (reported) {
+            barelyRoadSet.add(road);
+        }
+        if (roadLength < oldLength) {
+            shortenDistances(road);
+            if (!inForest[road]) {
+                addToForest(road);
+            }
+        } else if (roadLength > oldLength) {
+            lengthenDistances(lostCities);
+            if (inForest[road]) {
+                replaceInForest(road);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of a city and gives it the next index if it is seen for the first time.
+     *
+     * @param cityName the name of the city
+     * @return the index of the city
+     */
+    private int addCity(String cityName) {
+        Integer index = cityIndexes.get(cityName);
+        if (index != null) {
+            return index;
+        }
+        if (cityCount == cityNames.length) {
+            growCities(2 * cityCount);
+        }
+        cityNames[cityCount] = cityName;
+        cityRoads[cityCount] = new int[4];
+        treeRoads[cityCount] = new int[4];
+        distances[cityCount] = UNREACHABLE;
+        cityIndexes.put(cityName, cityCount);
+        return cityCount++;
+    }
+
+    /**
+     * Makes room for more cities in the city arrays.
+     *
+     * @param capacity the number of cities the arrays can hold
+     */
+    private void growCities(int capacity) {
+        cityNames = Arrays.copyOf(cityNames, capacity);
+        cityRoadCounts = cityRoadCounts == null ? new int[capacity] : Arrays.copyOf(cityRoadCounts, capacity);
+        cityRoads = cityRoads == null ? new int[capacity][] : Arrays.copyOf(cityRoads, capacity);
+        treeRoads = treeRoads == null ? new int[capacity][] : Arrays.copyOf(treeRoads, capacity);
+        treeRoadCounts = treeRoadCounts == null ? new int[capacity] : Arrays.copyOf(treeRoadCounts, capacity);
+        distances = distances == null ? new int[capacity] : Arrays.copyOf(distances, capacity);
+        affected = new boolean[capacity];
+        marks = marks == null ? new int[capacity] : Arrays.copyOf(marks, capacity);
+        parentRoads = new int[capacity];
+        queue = new int[capacity];
+        otherQueue = new int[capacity];
+        heap = new IndexedMinHeap(capacity);
+    }
+
+    /**
+     * Stores the data of a new road. The road is not connected to its cities yet.
+     *
+     * @param point1     the index of the first city
+     * @param point2     the index of the second city
+     * @param roadLength the length of the road
+     * @param roadID     the ID of the road
+     * @return the index of the road
+     */
+    private int addRoadData(int point1, int point2, int roadLength, int roadID) {
+        if (roadCount == roadLengths.length) {
+            roadPoints = Arrays.copyOf(roadPoints, 4 * roadCount);
+            roadLengths = Arrays.copyOf(roadLengths, 2 * roadCount);
+            roadIDs = Arrays.copyOf(roadIDs, 2 * roadCount);
+            inForest = Arrays.copyOf(inForest, 2 * roadCount);
+            onBarelyRoute = Arrays.copyOf(onBarelyRoute, 2 * roadCount);
+        }
+        roadPoints[2 * roadCount] = point1;
+        roadPoints[2 * roadCount + 1] = point2;
+        roadLengths[roadCount] = roadLength;
+        roadIDs[roadCount] = roadID;
+        roadsByID.computeIfAbsent(roadID, id -> new ArrayList<>()).add(roadCount);
+        totalLength += roadLength;
+        return roadCount++;
+    }
+
+    /**
+     * Checks if a road comes before another one when the roads are sorted by length, ID and the order they are
+     * added.
+     *
+     * @param road1 the index of the first road
+     * @param road2 the index of the second road
+     * @return {@code true} if the first road comes first; {@code false} otherwise
+     */
+    private boolean isBefore(int road1, int road2) {
+        if (roadLengths[road1] != roadLengths[road2]) {
+            return roadLengths[road1] < roadLengths[road2];
+        }
+        if (roadIDs[road1] != roadIDs[road2]) {
+            return roadIDs[road1] < roadIDs[road2];
+        }
+        return road1 < road2;
+    }
+
+    /**
+     * Returns the city at the other end of a road.
+     *
+     * @param road the index of the road
+     * @param city the index of one end of the road
+     * @return the index of the other end
+     */
+    private int getOtherCity(int road, int city) {
+        return roadPoints[2 * road] == city ? roadPoints[2 * road + 1] : roadPoints[2 * road];
+    }
+
+    /**
+     * Puts a road into the sorted roads of its cities.
+     *
+     * @param road the index of the road
+     */
+    private void attach(int road) {
+        int point1 = roadPoints[2 * road];
+        int point2 = roadPoints[2 * road + 1];
+        insertSorted(point1, road);
+        if (point1 != point2) {
+            insertSorted(point2, road);
+        }
+    }
+
+    /**
+     * Puts a road into the sorted roads of a city.
+     *
+     * @param city the index of the city
+     * @param road the index of the road
+     */
+    private void insertSorted(int city, int road) {
+        int[] roads = cityRoads[city];
+        int count = cityRoadCounts[city];
+        if (count == roads.length) {
+            roads = cityRoads[city] = Arrays.copyOf(roads, 2 * count);
+        }
+        int position = count;
+        while (position > 0 && isBefore(road, roads[position - 1])) {
+            roads[position] = roads[position - 1];
+            position--;
+        }
+        roads[position] = road;
+        cityRoadCounts[city] = count + 1;
+    }
+
+    /**
+     * Takes a road out of the sorted roads of its cities.
+     *
+     * @param road the index of the road
+     */
+    private void detach(int road) {
+        int point1 = roadPoints[2 * road];
+        int point2 = roadPoints[2 * road + 1];
+        cityRoadCounts[point1] = removeValue(cityRoads[point1], cityRoadCounts[point1], road);
+        if (point1 != point2) {
+            cityRoadCounts[point2] = removeValue(cityRoads[point2], cityRoadCounts[point2], road);
+        }
+    }
+
+    /**
+     * Removes a value from the start of an array and keeps the order of the other values.
+     *
+     * @param values the array
+     * @param count  the number of values in the array
+     * @param value  the value to remove
+     * @return the number of values left
+     */
+    private static int removeValue(int[] values, int count, int value) {
+        int position = 0;
+        while (values[position] != value) {
+            position++;
+        }
+        System.arraycopy(values, position + 1, values, position, count - position - 1);
+        return count - 1;
+    }
+
+    /**
+     * Spreads shorter distances from the cities in the heap with a Dijkstra search.
+     */
+    private void spreadDistances() {
+        while (!heap.isEmpty()) {
+            int city = heap.poll();
+            for (int i = 0; i < cityRoadCounts[city]; i++) {
+                int road = cityRoads[city][i];
+                int otherCity = getOtherCity(road, city);
+                int distance = distances[city] + roadLengths[road];
+                if (distance < distances[otherCity]) {
+                    distances[otherCity] = distance;
+                    noteChange(distance);
+                    if (heap.contains(otherCity)) {
+                        heap.decreasePriority(otherCity, distance);
+                    } else {
+                        heap.insert(otherCity, distance);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs the distances after a road is added or made shorter. Only the cities whose route through the road
+     * is shorter than before change.
+     *
+     * @param road the index of the road
+     */
+    private void shortenDistances(int road) {
+        for (int j = 0; j < 2; j++) {
+            int city = roadPoints[2 * road + j];
+            int otherCity = roadPoints[2 * road + 1 - j];
+            if (distances[city] != UNREACHABLE && distances[city] + roadLengths[road] < distances[otherCity]) {
+                distances[otherCity] = distances[city] + roadLengths[road];
+                noteChange(distances[otherCity]);
+                if (heap.contains(otherCity)) {
+                    heap.decreasePriority(otherCity, distances[otherCity]);
+                } else {
+                    heap.insert(otherCity, distances[otherCity]);
+                }
+            }
+        }
+        spreadDistances();
+    }
+
+    /**
+     * Finds the ends of a road whose fastest route may use the road, before the road is removed or made longer.
+     *
+     * @param road the index of the road
+     * @return the indexes of the cities
+     */
+    private int[] findLostCities(int road) {
+        int[] cities = new int[2];
+        int count = 0;
+        for (int j = 0; j < 2; j++) {
+            int city = roadPoints[2 * road + j];
+            int otherCity = roadPoints[2 * road + 1 - j];
+            if (city != otherCity && otherCity != startingCity && distances[city] != UNREACHABLE
+                    && distances[city] + roadLengths[road] == distances[otherCity]) {
+                cities[count++] = otherCity;
+            }
+        }
+        return Arrays.copyOf(cities, count);
+    }
+
+    /**
+     * Repairs the distances after a road is removed or made longer. The cities that may have lost their fastest
+     * route are visited in the order of their old distances. A city keeps its distance if another road gives the
+     * same distance from a city that keeps its own; otherwise it is affected, and the cities whose fastest route
+     * may pass through it are visited too. The affected cities then get the best distance through the cities that
+     * are not affected and the distances are spread among them.
+     *
+     * @param lostCities the ends of the road whose fastest route may have used it
+     */
+    private void lengthenDistances(int[] lostCities) {
+        for (int city : lostCities) {
+            if (!heap.contains(city)) {
+                heap.insert(city, distances[city]);
+            }
+        }
+        int affectedCount = 0;
+        while (!heap.isEmpty()) {
+            int city = heap.poll();
+            if (hasOtherRoute(city)) {
+                continue;
+            }
+            affected[city] = true;
+            queue[affectedCount++] = city;
+            for (int i = 0; i < cityRoadCounts[city]; i++) {
+                int road = cityRoads[city][i];
+                int otherCity = getOtherCity(road, city);
+                if (!affected[otherCity] && !heap.contains(otherCity)
+                        && distances[city] + roadLengths[road] == distances[otherCity]) {
+                    heap.insert(otherCity, distances[otherCity]);
+                }
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            noteChange(distances[queue[i]]);
+            distances[queue[i]] = UNREACHABLE;
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            int city = queue[i];
+            for (int j = 0; j < cityRoadCounts[city]; j++) {
+                int road = cityRoads[city][j];
+                int otherCity = getOtherCity(road, city);
+                if (!affected[otherCity] && distances[otherCity] != UNREACHABLE
+                        && distances[otherCity] + roadLengths[road] < distances[city]) {
+                    distances[city] = distances[otherCity] + roadLengths[road];
+                }
+            }
+            if (distances[city] != UNREACHABLE) {
+                heap.insert(city, distances[city]);
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            affected[queue[i]] = false;
+        }
+        spreadDistances();
+    }
+
+    /**
+     * Records that the distance of a city changed, so a fastest route to a city that is not nearer than the
+     * distance may have changed too.
+     *
+     * @param distance the old or the new distance of the city, whichever is smaller
+     */
+    private void noteChange(int distance) {
+        lowestChange = Math.min(lowestChange, distance);
+    }
+
+    /**
+     * Records that a road is added, removed or changed, which may change the fastest routes that reach one of its
+     * cities. It is called before the road changes.
+     *
+     * @param road the index of the road
+     */
+    private void noteRoadChange(int road) {
+        noteChange(Math.min(distances[roadPoints[2 * road]], distances[roadPoints[2 * road + 1]]));
+    }
+
+    /**
+     * Checks if a city still has a road from a city that is not affected and gives it the same distance.
+     *
+     * @param city the index of the city
+     * @return {@code true} if the distance of the city does not change; {@code false} otherwise
+     */
+    private boolean hasOtherRoute(int city) {
+        if (city == startingCity) {
+            return true;
+        }
+        for (int i = 0; i < cityRoadCounts[city]; i++) {
+            int road = cityRoads[city][i];
+            int otherCity = getOtherCity(road, city);
+            if (otherCity != city && !affected[otherCity] && distances[otherCity] != UNREACHABLE
+                    && distances[otherCity] + roadLengths[road] == distances[city]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Puts a road on the barely connected forest.
+     *
+     * @param road the index of the road
+     */
+    private void link(int road) {
+        inForest[road] = true;
+        for (int j = 0; j < 2; j++) {
+            int city = roadPoints[2 * road + j];
+            if (treeRoadCounts[city] == treeRoads[city].length) {
+                treeRoads[city] = Arrays.copyOf(treeRoads[city], 2 * treeRoadCounts[city]);
+            }
+            treeRoads[city][treeRoadCounts[city]++] = road;
+        }
+    }
+
+    /**
+     * Takes a road off the barely connected forest.
+     *
+     * @param road the index of the road
+     */
+    private void unlink(int road) {
+        inForest[road] = false;
+        for (int j = 0; j < 2; j++) {
+            int city = roadPoints[2 * road + j];
+            treeRoadCounts[city] = removeValue(treeRoads[city], treeRoadCounts[city], road);
+        }
+    }
+
+    /**
+     * Adds a road that is not on the forest to it if the forest gets lighter. If the cities of the road are not
+     * connected yet, the road connects them; otherwise it replaces the last road of the route between them in
+     * sorted order, if it comes before that road.
+     *
+     * @param road the index of the road
+     */
+    private void addToForest(int road) {
+        int point1 = roadPoints[2 * road];
+        int point2 = roadPoints[2 * road + 1];
+        if (point1 == point2) {
+            return;
+        }
+        walkForest(point1, point2);
+        if (marks[point2] != mark) {
+            // Two parts of the forest are joined
+            link(road);
+            forgetBarelyMap();
+            return;
+        }
+        int lastRoad = -1;
+        for (int city = point2; city != point1; city = getOtherCity(parentRoads[city], city)) {
+            if (lastRoad == -1 || isBefore(lastRoad, parentRoads[city])) {
+                lastRoad = parentRoads[city];
+            }
+        }
+        if (isBefore(road, lastRoad)) {
+            unlink(lastRoad);
+            link(road);
+            replaceReported(lastRoad, road);
+        }
+    }
+
+    /**
+     * Visits the cities of the forest that can be reached from a city and records the road each one is reached
+     * from. The walk stops when the destination is reached.
+     *
+     * @param startCity the index of the city the walk starts from
+     * @param endCity   the index of the city the walk stops at, or -1 to visit every reachable city
+     * @return the number of visited cities, they are stored in the queue
+     */
+    private int walkForest(int startCity, int endCity) {
+        mark++;
+        int tail = 0;
+        queue[tail++] = startCity;
+        marks[startCity] = mark;
+        for (int head = 0; head < tail; head++) {
+            int city = queue[head];
+            for (int i = 0; i < treeRoadCounts[city]; i++) {
+                int road = treeRoads[city][i];
+                int otherCity = getOtherCity(road, city);
+                if (marks[otherCity] != mark) {
+                    marks[otherCity] = mark;
+                    parentRoads[otherCity] = road;
+                    queue[tail++] = otherCity;
+                    if (otherCity == endCity) {
+                        return tail;
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Replaces a road that is removed from the forest or made longer. The two parts the road leaves behind are
+     * walked at the same time, and the roads of the part that is finished first are searched for the first road in
+     * sorted order that leads to the other part.
+     *
+     * @param road the index of the road
+     */
+    private void replaceInForest(int road) {
+        unlink(road);
+        int sideMark = mark + 1;
+        int otherMark = mark + 2;
+        mark += 2;
+        int[] sideQueue = queue;
+        int sideTail = 1;
+        int otherTail = 1;
+        int sideHead = 0;
+        int otherHead = 0;
+        queue[0] = roadPoints[2 * road];
+        otherQueue[0] = roadPoints[2 * road + 1];
+        marks[queue[0]] = sideMark;
+        marks[otherQueue[0]] = otherMark;
+        while (true) {
+            if (sideHead == sideTail) {
+                break;
+            }
+            if (otherHead == otherTail) {
+                // The second part is smaller, so it is searched instead
+                sideQueue = otherQueue;
+                sideTail = otherTail;
+                sideMark = otherMark;
+                break;
+            }
+            sideTail = visitTreeRoads(queue[sideHead++], queue, sideTail, sideMark);
+            otherTail = visitTreeRoads(otherQueue[otherHead++], otherQueue, otherTail, otherMark);
+        }
+        int replacement = -1;
+        for (int i = 0; i < sideTail; i++) {
+            int city = sideQueue[i];
+            for (int j = 0; j < cityRoadCounts[city]; j++) {
+                int otherRoad = cityRoads[city][j];
+                if (!inForest[otherRoad] && marks[getOtherCity(otherRoad, city)] != sideMark
+                        && (replacement == -1 || isBefore(otherRoad, replacement))) {
+                    replacement = otherRoad;
+                }
+            }
+        }
+        if (replacement != -1) {
+            link(replacement);
+            replaceReported(road, replacement);
+        } else if (barelyRoadSet != null && barelyRoadSet.contains(road)) {
+            // The barely connected map is split
+            forgetBarelyMap();
+        } else {
+            forgetBarelyRoute();
+        }
+    }
+
+    /**
+     * Replaces a road of the forest with a road between the same two parts in the reported barely connected map.
+     * The parts of the forest stay the same, so the route on the barely connected map only changes if it used the
+     * replaced road.
+     *
+     * @param oldRoad the index of the road that left the forest
+     * @param newRoad the index of the road that joined the forest
+     */
+    private void replaceReported(int oldRoad, int newRoad) {
+        if (barelyRoadSet != null && barelyRoadSet.remove(oldRoad)) {
+            barelyRoadSet.add(newRoad);
+        }
+        if (onBarelyRoute[oldRoad]) {
+            forgetBarelyRoute();
+        }
+    }
+
+    /**
+     * Forgets the reported barely connected map and the route on it, so they are found again when they are asked for.
+     */
+    private void forgetBarelyMap() {
+        barelyRoadSet = null;
+        forgetBarelyRoute();
+    }
+
+    /**
+     * Forgets the reported route on the barely connected map, so it is found again when it is asked for.
+     */
+    private void forgetBarelyRoute() {
+        if (barelyRouteRoads != null) {
+            for (int road : barelyRouteRoads) {
+                onBarelyRoute[road] = false;
+            }
+        }
+        barelyRouteRoads = null;
+        barelyRouteFound = false;
+    }
+
+    /**
+     * Adds the cities that can be reached from a city with one road of the forest to a walk.
+     *
+     * @param city      the index of the city
+     * @param walkQueue the cities of the walk
+     * @param tail      the number of cities of the walk
+     * @param walkMark  the mark of the walk
+     * @return the number of cities of the walk after adding the new cities
+     */
+    private int visitTreeRoads(int city, int[] walkQueue, int tail, int walkMark) {
+        for (int i = 0; i < treeRoadCounts[city]; i++) {
+            int otherCity = getOtherCity(treeRoads[city][i], city);
+            if (marks[otherCity] != walkMark) {
+                marks[otherCity] = walkMark;
+                walkQueue[tail++] = otherCity;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Returns the length of the fastest route from the starting point to the city.
+     *
+     * @param endPoint the name of the destination city
+     * @return the length of the route, or -1 if the city cannot be reached
+     */
+    public int getRouteLength(String endPoint) {
+        Integer endCity = cityIndexes.get(endPoint);
+        if (endCity == null || endCity == startingCity || distances[endCity] == UNREACHABLE) {
+            return -1;
+        }
+        return distances[endCity];
+    }
+
+    /**
+     * Returns the roads of the fastest route from the starting point to the city. The route of the last call is
+     * returned again if no distance up to the length of the route changed and no road of a city that near changed
+     * since then, because the route is picked among those cities only.
+     *
+     * @param endPoint the name of the destination city
+     * @return the roads of the route in order, or {@code null} if the city cannot be reached
+     */
+    public ArrayList<Road> getRoute(String endPoint) {
+        if (getRouteLength(endPoint) == -1) {
+            return null;
+        }
+        int endCity = cityIndexes.get(endPoint);
+        if (routeRoads == null || endCity != routeEndCity
+                || lowestChange <= Math.max(routeLength, distances[endCity])) {
+            routeRoads = findRoute(endCity);
+            routeEndCity = endCity;
+            routeLength = distances[endCity];
+        }
+        lowestChange = UNREACHABLE;
+        return getRoads(routeRoads);
+    }
+
+    /**
+     * Finds the roads of the fastest route from the starting point to a city that can be reached. The distances are
+     * final, so the Dijkstra search of the full analysis is repeated only over the roads that lie on a fastest route;
+     * they are reached in the same order as in the full search, so the same route is picked among the routes with
+     * the same length.
+     *
+     * @param endCity the index of the destination city
+     * @return the indexes of the roads of the route in order
+     */
+    private int[] findRoute(int endCity) {
+        mark++;
+        long reachOrder = 0; // Counter that orders the roads in the order they are reached
+        heap.clear();
+        heap.insert(startingCity, 0);
+        while (!heap.isEmpty()) {
+            int city = heap.poll();
+            marks[city] = mark;
+            if (city == endCity) {
+                break;
+            }
+            for (int i = 0; i < cityRoadCounts[city]; i++) {
+                int road = cityRoads[city][i];
+                int otherCity = getOtherCity(road, city);
+                if (marks[otherCity] != mark && !heap.contains(otherCity)
+                        && distances[city] + roadLengths[road] == distances[otherCity]) {
+                    parentRoads[otherCity] = road;
+                    heap.insert(otherCity, ((long) distances[otherCity] << 32) | reachOrder++);
+                }
+            }
+        }
+        heap.clear();
+        return collectRoute(endCity);
+    }
+
+    /**
+     * Collects the roads from the starting city to a city that the last search or walk reached, following the road
+     * each city is reached from.
+     *
+     * @param endCity the index of the destination city
+     * @return the indexes of the roads of the route in order
+     */
+    private int[] collectRoute(int endCity) {
+        int count = 0;
+        for (int city = endCity; city != startingCity; city = getOtherCity(parentRoads[city], city)) {
+            count++;
+        }
+        int[] route = new int[count];
+        for (int city = endCity; city != startingCity; city = getOtherCity(parentRoads[city], city)) {
+            route[--count] = parentRoads[city];
+        }
+        return route;
+    }
+
+    /**
+     * Returns the alphabetically first city that is on the map.
+     *
+     * @return the index of the city, or -1 if the map has no roads
+     */
+    private int findFirstCity() {
+        int firstCity = -1;
+        for (int city = 0; city < cityCount; city++) {
+            if (cityRoadCounts[city] > 0 && (firstCity == -1 || cityNames[city].compareTo(cityNames[firstCity]) < 0)) {
+                firstCity = city;
+            }
+        }
+        return firstCity;
+    }
+
+    /**
+     * Returns the roads of the barely connected map, which is the part of the forest that contains the
+     * alphabetically first city, in the order of their length and ID. The sorted roads are kept between changes and
+     * found again only after two parts of the forest are joined or split.
+     *
+     * @return the roads of the barely connected map
+     */
+    public ArrayList<Road> getBarelyRoads() {
+        if (barelyRoadSet == null) {
+            barelyRoadSet = new TreeSet<>((road1, road2) -> road1.equals(road2) ? 0 : isBefore(road1, road2) ? -1 : 1);
+            if (firstCity != -1) {
+                int tail = walkForest(firstCity, -1);
+                for (int i = 1; i < tail; i++) {
+                    barelyRoadSet.add(parentRoads[queue[i]]);
+                }
+            }
+        }
+        ArrayList<Road> barelyRoads = new ArrayList<>(barelyRoadSet.size());
+        for (int road : barelyRoadSet) {
+            barelyRoads.add(getRoad(road));
+        }
+        return barelyRoads;
+    }
+
+    /**
+     * Returns the roads of the route from the starting point to the city on the barely connected map. The route is
+     * kept between changes and found again only after a road of it is replaced or two parts of the forest are
+     * joined or split.
+     *
+     * @param endPoint the name of the destination city
+     * @return the roads of the route in order, or {@code null} if there is no route
+     */
+    public ArrayList<Road> getBarelyRoute(String endPoint) {
+        Integer endCity = cityIndexes.get(endPoint);
+        if (endCity == null || endCity == startingCity || firstCity == -1) {
+            return null;
+        }
+        if (!barelyRouteFound || endCity != barelyRouteEndCity) {
+            forgetBarelyRoute();
+            walkForest(startingCity, -1);
+            if (marks[endCity] == mark && marks[firstCity] == mark) {
+                barelyRouteRoads = collectRoute(endCity);
+                for (int road : barelyRouteRoads) {
+                    onBarelyRoute[road] = true;
+                }
+            }
+            barelyRouteFound = true;
+            barelyRouteEndCity = endCity;
+        }
+        return barelyRouteRoads == null ? null : getRoads(barelyRouteRoads);
+    }
+
+    /**
+     * Returns the roads of a route.
+     *
+     * @param roads the indexes of the roads
+     * @return the roads in the same order
+     */
+    private ArrayList<Road> getRoads(int[] roads) {
+        ArrayList<Road> route = new ArrayList<>(roads.length);
+        for (int road : roads) {
+            route.add(getRoad(road));
+        }
+        return route;
+    }
+
+    /**
+     * Returns a road of the map.
+     *
+     * @param road the index of the road
+     * @return the road
+     */
+    private Road getRoad(int road) {
+        return new Road(cityNames[roadPoints[2 * road]], cityNames[roadPoints[2 * road + 1]], roadLengths[road],
+                roadIDs[road]);
+    }
+
+    /**
+     * Returns the total length of the roads on the map.
+     *
+     * @return the total length
+     */
+    public long getTotalLength() {
+        return totalLength;
+    }
+}
@@ -1,168 +1,335 @@
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-
+import java.util.List;
 
+/**
+ * This class finds the fastest routes from a starting point on the map with Dijkstra's algorithm. A route to a
+ * single destination can also be found with a goal directed engine, which first finds the length of the route and
+ * then repeats the Dijkstra search only over the cities that can be on a route of that length. The second search
+ * settles those cities in the same order as the plain search, so both engines pick the same route. The contraction
+ * hierarchy engine finds the exact length of the route from every city to the destination, so its second search
+ * settles only the cities of the fastest routes. The {@link #CH_FAST} engine skips the second search and replaces the
+ * shortcuts of the route of the hierarchy with the roads they stand for; when routes have the same length, its route
+ * may not be the one the other engines pick.
+ * The arrays of a search are kept in a {@link SearchState} and reused by the next search, so one object should be
+ * used by one thread only; the graph and the landmarks are only read and can be shared. The queue of the state is
+ * picked from the lengths of the roads, except for the A* search of the {@link #ALT} engine, whose priorities hold
+ * the lower bounds and always use the binary heap.
+ */
 public class FastestRoute {
 
-    public HashMap<String, Road> fastestRoute = new HashMap<>(); // Hashmap that holds the city and the paths needed to reach it to reach the cities
-    private ArrayList<Road> fastestRoads = new ArrayList<>(); // The roads we use to reach the cities
+    public static final String DIJKSTRA = "dijkstra"; // plain search that stops at the destination
+    public static final String BIDIRECTIONAL = "bidirectional"; // bidirectional search for the length
+    public static final String ALT = "alt"; // A* search with landmark lower bounds for the length
+    public static final String CH = "ch"; // contraction hierarchy search for the length
+    public static final String CH_FAST = "ch-fast"; // contraction hierarchy search with its shortcuts unpacked
+
+    private final RoadGraph graph; // Graph of the map
+    private final String engine; // Engine used for the routes to a single destination
+    private final Landmarks landmarks; // Landmarks of the map, null if the engine does not use them
+    private final ContractionHierarchy hierarchy; // Hierarchy of the map, null if the engine does not use it
+    private BidirectionalRoute bidirectionalRoute; // Bidirectional search, created on first use
+    private HierarchyRoute hierarchyRoute; // Hierarchy search, created on first use
+    private ArrayList<Road> unpackedRoute; // Route of the last ch-fast search, null if there is none
+    private int unpackedEndCity; // Destination of the unpacked route
+    private final SearchState state; // Distances, last roads and settled cities of the last search
+    private long relaxedCount; // number of roads all searches relaxed
 
     /**
-     * Constructs a new {@code FastestRoute} object and initializes it by adding the starting point to the route.
+     * Constructs a new {@code FastestRoute} object for the given map that uses the plain Dijkstra search.
+     *
+     * @param graph the graph of the map
      */
-    public FastestRoute() {
-        addRoad(MapAnalyzer.startingPoint);
+    public FastestRoute(RoadGraph graph) {
+        this(graph, DIJKSTRA, null);
     }
 
     /**
-     * Adds roads to the fastest route based on the specified city name.
+     * Constructs a new {@code FastestRoute} object for the given map.
      *
-     * @param cityName the name of the city from which roads will be added to the fastest route
+     * @param graph     the graph of the map
+     * @param engine    the engine used for the routes to a single destination
+     * @param landmarks the landmarks of the map, required by the {@link #ALT} engine
      */
-    private void addRoad(String cityName) {
-        // Sort the city's neighbors
-        ArrayList<Road> sortedCityNeighbours = sortCityNeighbours(cityName);
-        // Add the sorted city neighbors to the fastest roads list
-        if (sortedCityNeighbours != null) {
-            fastestRoads.addAll(sortedCityNeighbours);
-        }
-        // Sort the fastest roads list
-        ArrayList<Road> sortedFastestRoads = sortList();
-        // Add the first road in the sorted list to the map
-        if (sortedFastestRoads != null) {
-            addMap(sortedFastestRoads.get(0).getEndPoint(), sortedFastestRoads.get(0));
-        }
+    public FastestRoute(RoadGraph graph, String engine, Landmarks landmarks) {
+        this(graph, engine, landmarks, null);
     }
 
     /**
-     * Adds the cities and the path to reach them to the hashmap
+     * Constructs a new {@code FastestRoute} object for the given map.
      *
-     * @param cityName destination city
-     * @param road the road to reach the target city
+     * @param graph     the graph of the map
+     * @param engine    the engine used for the routes to a single destination
+     * @param landmarks the landmarks of the map, required by the {@link #ALT} engine
+     * @param hierarchy the contraction hierarchy of the map, required by the {@link #CH} and {@link #CH_FAST}
+     *                  engines
      */
-    private void addMap(String cityName, Road road) {
-        // If the city is not added to the map, it will be added
-        if (!fastestRoute.containsKey(cityName)) {
-            fastestRoute.put(cityName, road);
-        } else { // If the city has already been added to the map and the new road is shorter than the old one, it adds the new road to the map
-            if (road.getLongestRoad() < fastestRoute.get(cityName).getLongestRoad()) {
-                fastestRoute.put(cityName, road);
-            }
+    public FastestRoute(RoadGraph graph, String engine, Landmarks landmarks, ContractionHierarchy hierarchy) {
+        this(graph, engine, landmarks, hierarchy, SearchState.AUTO);
+    }
+
+    /**
+     * Constructs a new {@code FastestRoute} object for the given map with the given kind of queue.
+     *
+     * @param graph     the graph of the map
+     * @param engine    the engine used for the routes to a single destination
+     * @param landmarks the landmarks of the map, required by the {@link #ALT} engine
+     * @param hierarchy the contraction hierarchy of the map, required by the {@link #CH} and {@link #CH_FAST}
+     *                  engines
+     * @param queue     the kind of the queue of the searches, see {@link SearchState#createQueue}
+     */
+    public FastestRoute(RoadGraph graph, String engine, Landmarks landmarks, ContractionHierarchy hierarchy,
+                        String queue) {
+        this.graph = graph;
+        this.engine = engine;
+        this.landmarks = landmarks;
+        this.hierarchy = hierarchy;
+        state = new SearchState(graph.getCityCount(), SearchState.createQueue(engine.equals(ALT) ? SearchState.HEAP
+                : queue, graph.getCityCount(), graph.getShortestLength(), graph.getLongestLength(),
+                SearchState.ORDER_BITS));
+    }
+
+    /**
+     * Finds the fastest routes from the starting point to every city. The results of the previous search are
+     * discarded.
+     *
+     * @param startingPoint the name of the starting city
+     */
+    public void findFastestRoutes(String startingPoint) {
+        findFastestRoutes(graph.getCityIndex(startingPoint));
+    }
+
+    /**
+     * Finds the fastest routes from the starting city to every city. The results of the previous search are
+     * discarded.
+     *
+     * @param startingCity the index of the starting city, -1 clears the results only
+     */
+    public void findFastestRoutes(int startingCity) {
+        state.clear();
+        unpackedRoute = null;
+        if (startingCity != -1) {
+            settleCities(startingCity, -1, null, false, Long.MAX_VALUE);
         }
-        // Removes the used path from the list
-        fastestRoads.remove(road);
-        // Sends the city to the path insertion function to find connected paths
-        addRoad(cityName);
     }
 
     /**
-     * Sorts the roads connected to the city according to their length and id
+     * Finds the fastest route from the starting point to the end point with the engine of this object. Only the
+     * route to the end point is final after the search. The results of the previous search are discarded.
      *
-     * @param cityName City to sort connected roads
-     * @return List of roads connected to the city
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
      */
-    private ArrayList<Road> sortCityNeighbours(String cityName) {
-
-        ArrayList<Road> cityRoads = new ArrayList<>(); // List holding the sorted paths
-        ArrayList<Road> cityNeighbours = new ArrayList<>();
-        ArrayList<Integer> cityIDS = new ArrayList<>(); // Identities of connected roads
-        ArrayList<Integer> roadLengths = new ArrayList<>(); // Lengths of connected roads
-
-        for (Road road : MapAnalyzer.roads) {
-            // Adds connected paths.
-            if (road.getPoints()[0].contentEquals(cityName) || road.getPoints()[1].contentEquals(cityName)) {
-                // Adds to the list if the path is not added
-                if (!road.isAdded()) {
-                    // If the city is on the map, it adds the previous roads to the new road.
-                    if (fastestRoute.containsKey(cityName)) {
-                        // Determines the beginning of the path
-                        road.setStartPoint(cityName);
-                        for (String city : road.getPoints()) {
-                            if (!city.contentEquals(cityName)) {
-                                // Determines the end of the path
-                                road.setEndPoint(city);
-                                break;
-                            }
-                        }
-                        // Add old paths
-                        for (Road usedRoad : fastestRoute.get(cityName).getUsedRoads()) {
-                            road.addRoad(usedRoad);
-                        }
-                        road.addRoad(road);
-                    } else {
-                        // Determines the beginning of the path
-                        road.setStartPoint(cityName);
-                        for (String city : road.getPoints()) {
-                            if (!city.contentEquals(cityName)) {
-                                // Determines the beginning of the path
-                                road.setEndPoint(city);
-                                break;
-                            }
-                        }
-                        // Add old paths
-                        road.addRoad(road);
-                    }
-                    cityRoads.add(road);
-                    // Makes the flag true
-                    road.setAdded(true);
+    public void findFastestRoute(String startingPoint, String endPoint) {
+        int startingCity = graph.getCityIndex(startingPoint);
+        int endCity = graph.getCityIndex(endPoint);
+        state.clear();
+        unpackedRoute = null;
+        if (startingCity == -1 || endCity == -1) {
+            return;
+        }
+        switch (engine) {
+            case BIDIRECTIONAL: {
+                if (bidirectionalRoute == null) {
+                    bidirectionalRoute = new BidirectionalRoute(graph);
+                }
+                long routeLength = bidirectionalRoute.findDistance(startingCity, endCity);
+                if (routeLength != -1) {
+                    settleCities(startingCity, endCity, bidirectionalRoute, false, routeLength);
                 }
+                break;
             }
-        }
-        // Transfers roads to a list sorted by length and ID number.
-        if (!cityRoads.isEmpty()) {
-            for (Road road : cityRoads) {
-                cityIDS.add(road.getRoadID());
+            case CH: {
+                if (hierarchyRoute == null) {
+                    hierarchyRoute = new HierarchyRoute(graph, hierarchy);
+                }
+                long routeLength = hierarchyRoute.findDistance(startingCity, endCity);
+                if (routeLength != -1) {
+                    settleCities(startingCity, endCity, hierarchyRoute, false, routeLength);
+                }
+                break;
             }
-            Collections.sort(cityIDS); // Sorts the roads according to their length
-            for (Road road : cityRoads) {
-                roadLengths.add(road.getLongestRoad());
+            case CH_FAST: {
+                if (hierarchyRoute == null) {
+                    hierarchyRoute = new HierarchyRoute(graph, hierarchy);
+                }
+                // Only the route to the destination is found, the cities are not settled
+                unpackedRoute = hierarchyRoute.findRoute(startingCity, endCity);
+                unpackedEndCity = endCity;
+                break;
             }
-            Collections.sort(roadLengths); // Sorts the roads according to their identification numbers
-            for (int length : roadLengths) {
-                for (int id : cityIDS) {
-                    for (Road road : cityRoads) {
-                        if ((road.getLongestRoad() == length) && (road.getRoadID() == id) && !cityNeighbours.contains(road)) {
-                            road.setAdded(true);
-                            cityNeighbours.add(road);
-                            break;
-                        }
-                    }
+            case ALT: {
+                RemainingDistance remainingDistance = landmarks.getRemainingDistance(endCity);
+                settleCities(startingCity, endCity, remainingDistance, true, Long.MAX_VALUE);
+                if (state.isSettled(endCity)) {
+                    long routeLength = state.getDistance(endCity);
+                    state.clear();
+                    settleCities(startingCity, endCity, remainingDistance, false, routeLength);
                 }
+                break;
             }
-            // Returns sorted list
-            return cityNeighbours;
+            default:
+                settleCities(startingCity, endCity, null, false, Long.MAX_VALUE);
         }
-        // Exits the function if there is no path left.
-        return null;
     }
 
     /**
-     * Sorts the paths according to their length and order of addition.
+     * Settles the cities one by one in the order of their distance to the starting city. The roads of every city
+     * are visited in the order of their length and ID, and the priority of a city holds its distance in the upper
+     * half and the order in which its best road was reached in the lower half, so routes with the same length are
+     * resolved in the order the roads were reached.
+     * <p>
+     * When lower bounds of the remaining distances are given, a city is not reached if its distance plus its bound
+     * is more than the route length limit. Such a city cannot be on a route of that length, and leaving it out does
+     * not change the order of the other cities. When the search is goal directed, the bound is also added to the
+     * priority, which is the A* search.
      *
-     * @return sorted road list
+     * @param startingCity      the index of the starting city
+     * @param endCity           the index of the city the search stops at, or -1 to settle every city
+     * @param remainingDistance the lower bounds of the remaining distances, or {@code null}
+     * @param goalDirected      whether the lower bounds are added to the priorities
+     * @param limit             the length of the longest route that is searched
      */
-    private ArrayList<Road> sortList () {
-        ArrayList<Integer> roadLengths = new ArrayList<>(); // The lengths of roads
-        ArrayList<Road> sortedRoads = new ArrayList<>(); // The list of sorted roads
-        if (!fastestRoads.isEmpty()) {
-            for (Road road : fastestRoads) {
-                roadLengths.add(road.getLongestRoad());
+    private void settleCities(int startingCity, int endCity, RemainingDistance remainingDistance,
+                              boolean goalDirected, long limit) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        long reachOrder = 0; // Counter that orders the roads in the order they are reached
+        long relaxed = 0; // Roads relaxed by this search, added to the total at the end
+
+        long startingBound = goalDirected ? remainingDistance.getLowerBound(startingCity) : 0;
+        state.reach(startingCity, 0, -1, startingBound << SearchState.ORDER_BITS);
+        while (!state.isFinished()) {
+            int city = state.settle();
+            if (city == endCity) {
+                break;
             }
-            Collections.sort(roadLengths); // Sorts the roads according to their length
-            for (int length : roadLengths) {
-                for (Road road : fastestRoads) {
-                    if (road.getLongestRoad() == length && !sortedRoads.contains(road)) {
-                        sortedRoads.add(road);
-                        break;
+            int cityDistance = state.getDistance(city);
+            relaxed += offsets[city + 1] - offsets[city];
+            for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+                int otherCity = targets[edge];
+                if (state.isSettled(otherCity)) {
+                    continue;
+                }
+                int distance = cityDistance + lengths[edge];
+                long priority = distance;
+                if (remainingDistance != null) {
+                    long lowerBound = remainingDistance.getLowerBound(otherCity);
+                    if (distance + lowerBound > limit) {
+                        continue;
+                    }
+                    if (goalDirected) {
+                        priority += lowerBound;
                     }
                 }
+                // Only a strictly shorter route replaces the route that was reached before
+                if (!state.isReached(otherCity)) {
+                    state.reach(otherCity, distance, edge, (priority << SearchState.ORDER_BITS) | reachOrder++);
+                } else if (distance < state.getDistance(otherCity)) {
+                    state.improve(otherCity, distance, edge, (priority << SearchState.ORDER_BITS) | reachOrder++);
+                }
             }
-            // Returns sorted list
-            return sortedRoads;
-        } else {
-            // If list is empty, return null
+        }
+        relaxedCount += relaxed;
+    }
+
+    /**
+     * Returns the roads of the fastest route from the starting point to the city.
+     *
+     * @param cityName the name of the destination city
+     * @return the roads of the route in order, or {@code null} if the city cannot be reached
+     */
+    public ArrayList<Road> getRoute(String cityName) {
+        int city = graph.getCityIndex(cityName);
+        if (unpackedRoute != null) {
+            return city == unpackedEndCity ? new ArrayList<>(unpackedRoute) : null;
+        }
+        if (city == -1 || !state.isSettled(city) || state.getLastEdges()[city] == -1) {
             return null;
         }
+        return graph.getRoute(state.getLastEdges(), city);
+    }
+
+    /**
+     * Returns the length of the fastest route from the starting point to the city.
+     *
+     * @param cityName the name of the destination city
+     * @return the length of the route, or -1 if the city cannot be reached
+     */
+    public int getRouteLength(String cityName) {
+        int city = graph.getCityIndex(cityName);
+        if (unpackedRoute != null) {
+            if (city != unpackedEndCity) {
+                return -1;
+            }
+            int length = 0;
+            for (Road road : unpackedRoute) {
+                length += road.getRoadLength();
+            }
+            return length;
+        }
+        if (city == -1 || !state.isSettled(city) || state.getLastEdges()[city] == -1) {
+            return -1;
+        }
+        return state.getDistance(city);
+    }
+
+    /**
+     * Returns the length of the fastest route from the starting city to the city. The cities of a
+     * {@link #CH_FAST} search are not settled, so they have no distance.
+     *
+     * @param city the index of the destination city
+     * @return the length of the route, or -1 if the city cannot be reached
+     */
+    public int getDistance(int city) {
+        return state.isSettled(city) ? state.getDistance(city) : -1;
+    }
+
+    /**
+     * Returns the last road of the fastest route from the starting city to the city.
+     *
+     * @param city the index of the destination city
+     * @return the position of the stored road, or -1 if the city is the starting city or cannot be reached
+     */
+    public int getLastEdge(int city) {
+        return state.isSettled(city) ? state.getLastEdges()[city] : -1;
+    }
+
+    /**
+     * Returns the state of the searches, which also counts their heap operations. The searches of the engines that
+     * find the length of a route first use states of their own, see {@link #getLengthStates}.
+     *
+     * @return the search state
+     */
+    public SearchState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the states of the searches that find the length of a route before the route itself, which count their
+     * own heap operations.
+     *
+     * @return the search states, empty if the engine has no such search or it has not run yet
+     */
+    public List<SearchState> getLengthStates() {
+        ArrayList<SearchState> states = new ArrayList<>();
+        if (bidirectionalRoute != null) {
+            states.addAll(bidirectionalRoute.getStates());
+        }
+        if (hierarchyRoute != null) {
+            states.addAll(hierarchyRoute.getStates());
+        }
+        return states;
+    }
+
+    /**
+     * Returns the number of roads all searches relaxed, including the searches that find the length of a route
+     * first. The roads of every settled city are counted.
+     *
+     * @return the number of relaxed roads
+     */
+    public long getRelaxedCount() {
+        return relaxedCount + (bidirectionalRoute != null ? bidirectionalRoute.getRelaxedCount() : 0)
+                + (hierarchyRoute != null ? hierarchyRoute.getRelaxedCount() : 0);
     }
 }
@@ -0,0 +1,342 @@
+import java.util.Arrays;
+
+/**
+ * This class builds the {@link ContractionHierarchy} of a map. The cities are contracted one by one: a contracted
+ * city is taken out of the map, and for every two of its neighbours whose fastest route goes through it a shortcut
+ * road is added between them, unless a witness search finds another route that is not longer. The next city is the
+ * one with the smallest edge difference, the number of shortcuts its contraction adds minus the number of roads it
+ * removes, plus the number of its neighbours that are already contracted, which spreads the contraction over the
+ * map. The priorities are updated lazily: a city is contracted only if its recomputed priority is still the
+ * smallest.
+ * <p>
+ * When a city is contracted, its roads to the cities that are not contracted yet lead to cities contracted later,
+ * and they become its upward roads in the hierarchy.
+ * <p>
+ * The contraction works well on maps of real roads, where most routes go through a few main roads. On a map whose
+ * roads join random cities the last cities get shortcuts to almost every other one, and building the hierarchy
+ * takes much longer than a Dijkstra search of every city.
+ */
+public class HierarchyBuilder {
+
+    private static final int WITNESS_LIMIT = 500; // number of cities a witness search settles at most
+    private static final int ESTIMATE_LIMIT = 50; // number of cities a witness search of a priority settles at most
+    private static final int STRIDE = 4; // number of integers of a road in the adjacency arrays
+
+    private final RoadGraph graph; // Graph of the map
+    private final int cityCount; // number of cities
+    // Roads of every city that is not contracted, each as neighbour, length, middle city (-1 for a map road) and road
+    private final int[][] adjacency;
+    private final int[] degrees; // number of roads in the adjacency array of each city
+    private final int[] contractedNeighbours; // number of contracted neighbours of each city
+
+    private final int[] witnessDistances; // distances of the last witness search
+    private final int[] witnessMarks; // the witness search that last reached each city
+    private final int[] witnessTargets; // the witness search each city was last a target of
+    private int witnessMark; // the number of the current witness search
+    private final IndexedMinHeap witnessHeap; // cities of the witness search that are not settled
+
+    private int[] upOwners = new int[16]; // the city each upward road starts from
+    private int[] upTargets = new int[16]; // the city each upward road leads to
+    private int[] upWeights = new int[16]; // the length of each upward road
+    private int[] upMiddles = new int[16]; // the city each upward shortcut goes through, -1 for a map road
+    private int[] upRoads = new int[16]; // the map road of each upward road, -1 for a shortcut
+    private int upCount; // number of upward roads
+
+    /**
+     * Constructs a new {@code HierarchyBuilder} for the given map. Of the roads between two cities only the first
+     * one in the order of length and ID is kept, and roads that start and end at the same city are left out.
+     *
+     * @param graph the graph of the map
+     */
+    public HierarchyBuilder(RoadGraph graph) {
+        this.graph = graph;
+        cityCount = graph.getCityCount();
+        adjacency = new int[cityCount][];
+        degrees = new int[cityCount];
+        contractedNeighbours = new int[cityCount];
+        witnessDistances = new int[cityCount];
+        witnessMarks = new int[cityCount];
+        witnessTargets = new int[cityCount];
+        witnessHeap = new IndexedMinHeap(cityCount);
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        int[] edgeRoads = graph.getEdgeRoads();
+        int[] lastCity = new int[cityCount]; // the city whose roads last led to each city, plus one
+        for (int city = 0; city < cityCount; city++) {
+            adjacency[city] = new int[STRIDE * Math.max(1, offsets[city + 1] - offsets[city])];
+            // The roads of a city are sorted, so the first road to a neighbour is the one that is kept
+            for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+                int target = targets[edge];
+                if (target != city && lastCity[target] != city + 1) {
+                    lastCity[target] = city + 1;
+                    addRoad(city, target, lengths[edge], -1, edgeRoads[edge]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Contracts every city and builds the hierarchy.
+     *
+     * @return the contraction hierarchy of the map
+     */
+    public ContractionHierarchy build() {
+        IndexedMinHeap queue = new IndexedMinHeap(cityCount);
+        for (int city = 0; city < cityCount; city++) {
+            queue.insert(city, getPriority(city));
+        }
+        while (!queue.isEmpty()) {
+            int city = queue.poll();
+            long priority = getPriority(city);
+            if (!queue.isEmpty() && priority > queue.peekPriority()) {
+                // The priority is out of date, the city waits for its turn again
+                queue.insert(city, priority);
+                continue;
+            }
+            contract(city);
+        }
+        // The upward roads are sorted by the city they start from
+        int[] upOffsets = new int[cityCount + 1];
+        for (int i = 0; i < upCount; i++) {
+            upOffsets[upOwners[i] + 1]++;
+        }
+        for (int city = 0; city < cityCount; city++) {
+            upOffsets[city + 1] += upOffsets[city];
+        }
+        int[] next = Arrays.copyOf(upOffsets, cityCount);
+        int[] targets = new int[upCount];
+        int[] weights = new int[upCount];
+        int[] middles = new int[upCount];
+        int[] roads = new int[upCount];
+        for (int i = 0; i < upCount; i++) {
+            int position = next[upOwners[i]]++;
+            targets[position] = upTargets[i];
+            weights[position] = upWeights[i];
+            middles[position] = upMiddles[i];
+            roads[position] = upRoads[i];
+        }
+        return new ContractionHierarchy(ContractionHierarchy.hashRoads(graph), upOffsets, targets, weights, middles,
+                roads);
+    }
+
+    /**
+     * Finds the priority of a city by counting the shortcuts its contraction would add. The priority is kept in
+     * the upper half and the index of the city in the lower half, so cities with the same priority are contracted
+     * in the order of their indexes.
+     *
+     * @param city the index of the city
+     * @return the priority of the city
+     */
+    private long getPriority(int city) {
+        int shortcutCount = 0;
+        int[] roads = adjacency[city];
+        for (int i = 0; i + 1 < degrees[city]; i++) {
+            findWitnesses(city, i, ESTIMATE_LIMIT);
+            for (int j = i + 1; j < degrees[city]; j++) {
+                if (getWitnessDistance(roads[STRIDE * j]) > roads[STRIDE * i + 1] + roads[STRIDE * j + 1]) {
+                    shortcutCount++;
+                }
+            }
+        }
+        long edgeDifference = shortcutCount - degrees[city];
+        return ((edgeDifference + contractedNeighbours[city]) << 32) | city;
+    }
+
+    /**
+     * Contracts a city. The shortcuts between its neighbours are added, its roads become its upward roads, and it
+     * is taken out of the roads of its neighbours.
+     *
+     * @param city the index of the city
+     */
+    private void contract(int city) {
+        int[] roads = adjacency[city];
+        for (int i = 0; i + 1 < degrees[city]; i++) {
+            int neighbour = roads[STRIDE * i];
+            findWitnesses(city, i, WITNESS_LIMIT);
+            for (int j = i + 1; j < degrees[city]; j++) {
+                int otherNeighbour = roads[STRIDE * j];
+                int length = roads[STRIDE * i + 1] + roads[STRIDE * j + 1];
+                if (getWitnessDistance(otherNeighbour) > length) {
+                    addShortcut(neighbour, otherNeighbour, length, city);
+                }
+            }
+        }
+        for (int i = 0; i < degrees[city]; i++) {
+            int neighbour = roads[STRIDE * i];
+            addUpwardRoad(city, neighbour, roads[STRIDE * i + 1], roads[STRIDE * i + 2], roads[STRIDE * i + 3]);
+            removeRoad(neighbour, city);
+            contractedNeighbours[neighbour]++;
+        }
+        adjacency[city] = null;
+        degrees[city] = 0;
+    }
+
+    /**
+     * Searches the routes from a neighbour of the city that is contracted to its later neighbours without going
+     * through that city. The search stops when every later neighbour is settled, when the routes become longer than
+     * the longest route through the city, or after the given number of cities, so a route it does not find may
+     * still exist, which only adds a shortcut that is not needed.
+     *
+     * @param skipped the index of the city that is contracted
+     * @param first   the position of the neighbour the search starts from among the roads of the city
+     * @param limit   the number of cities the search settles at most
+     */
+    private void findWitnesses(int skipped, int first, int limit) {
+        witnessMark++;
+        witnessHeap.clear();
+        int[] skippedRoads = adjacency[skipped];
+        int source = skippedRoads[STRIDE * first];
+        int longestRoad = 0;
+        int targetCount = 0; // number of later neighbours that are not settled
+        for (int i = first + 1; i < degrees[skipped]; i++) {
+            longestRoad = Math.max(longestRoad, skippedRoads[STRIDE * i + 1]);
+            witnessTargets[skippedRoads[STRIDE * i]] = witnessMark;
+            targetCount++;
+        }
+        int maxDistance = skippedRoads[STRIDE * first + 1] + longestRoad;
+        witnessDistances[source] = 0;
+        witnessMarks[source] = witnessMark;
+        witnessHeap.insert(source, 0);
+        int settledCount = 0;
+        while (!witnessHeap.isEmpty() && witnessHeap.peekPriority() <= maxDistance && settledCount++ < limit) {
+            int city = witnessHeap.poll();
+            if (witnessTargets[city] == witnessMark && --targetCount == 0) {
+                break;
+            }
+            int[] roads = adjacency[city];
+            for (int i = 0; i < degrees[city]; i++) {
+                int target = roads[STRIDE * i];
+                if (target == skipped) {
+                    continue;
+                }
+                int distance = witnessDistances[city] + roads[STRIDE * i + 1];
+                if (witnessMarks[target] != witnessMark) {
+                    witnessMarks[target] = witnessMark;
+                    witnessDistances[target] = distance;
+                    witnessHeap.insert(target, distance);
+                } else if (distance < witnessDistances[target] && witnessHeap.contains(target)) {
+                    witnessDistances[target] = distance;
+                    witnessHeap.decreasePriority(target, distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the route the last witness search found to a city.
+     *
+     * @param city the index of the city
+     * @return the length of the route, or {@link Long#MAX_VALUE} if the search did not reach the city
+     */
+    private long getWitnessDistance(int city) {
+        return witnessMarks[city] == witnessMark ? witnessDistances[city] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Adds a shortcut between two cities in both directions. If the cities already have a road that is not
+     * longer, nothing is added; a longer road is replaced.
+     *
+     * @param city1  the index of the first city
+     * @param city2  the index of the second city
+     * @param length the length of the shortcut
+     * @param middle the city the shortcut goes through
+     */
+    private void addShortcut(int city1, int city2, int length, int middle) {
+        int position = findRoad(city1, city2);
+        if (position == -1) {
+            addRoad(city1, city2, length, middle, -1);
+            addRoad(city2, city1, length, middle, -1);
+        } else if (length < adjacency[city1][position + 1]) {
+            setRoad(city1, position, length, middle);
+            setRoad(city2, findRoad(city2, city1), length, middle);
+        }
+    }
+
+    /**
+     * Finds the road from a city to another one.
+     *
+     * @param city   the index of the city
+     * @param target the index of the other city
+     * @return the position of the road in the adjacency array of the city, or -1 if there is none
+     */
+    private int findRoad(int city, int target) {
+        int[] roads = adjacency[city];
+        for (int i = 0; i < degrees[city]; i++) {
+            if (roads[STRIDE * i] == target) {
+                return STRIDE * i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a road to the adjacency array of a city.
+     *
+     * @param city   the index of the city
+     * @param target the index of the city the road leads to
+     * @param length the length of the road
+     * @param middle the city a shortcut goes through, -1 for a map road
+     * @param road   the index of a map road, -1 for a shortcut
+     */
+    private void addRoad(int city, int target, int length, int middle, int road) {
+        int position = STRIDE * degrees[city]++;
+        if (position == adjacency[city].length) {
+            adjacency[city] = Arrays.copyOf(adjacency[city], 2 * position);
+        }
+        adjacency[city][position] = target;
+        setRoad(city, position, length, middle);
+        adjacency[city][position + 3] = road;
+    }
+
+    /**
+     * Changes a road of a city into a shortcut.
+     *
+     * @param city     the index of the city
+     * @param position the position of the road in the adjacency array of the city
+     * @param length   the length of the shortcut
+     * @param middle   the city the shortcut goes through, -1 for a map road
+     */
+    private void setRoad(int city, int position, int length, int middle) {
+        adjacency[city][position + 1] = length;
+        adjacency[city][position + 2] = middle;
+        adjacency[city][position + 3] = -1;
+    }
+
+    /**
+     * Removes the road from a city to another one. The last road of the city takes its place.
+     *
+     * @param city   the index of the city
+     * @param target the index of the other city
+     */
+    private void removeRoad(int city, int target) {
+        int position = findRoad(city, target);
+        int last = STRIDE * --degrees[city];
+        System.arraycopy(adjacency[city], last, adjacency[city], position, STRIDE);
+    }
+
+    /**
+     * Records an upward road of a contracted city.
+     *
+     * @param city   the index of the contracted city
+     * @param target the index of the city the road leads to
+     * @param length the length of the road
+     * @param middle the city a shortcut goes through, -1 for a map road
+     * @param road   the index of a map road, -1 for a shortcut
+     */
+    private void addUpwardRoad(int city, int target, int length, int middle, int road) {
+        if (upCount == upOwners.length) {
+            upOwners = Arrays.copyOf(upOwners, 2 * upCount);
+            upTargets = Arrays.copyOf(upTargets, 2 * upCount);
+            upWeights = Arrays.copyOf(upWeights, 2 * upCount);
+            upMiddles = Arrays.copyOf(upMiddles, 2 * upCount);
+            upRoads = Arrays.copyOf(upRoads, 2 * upCount);
+        }
+        upOwners[upCount] = city;
+        upTargets[upCount] = target;
+        upWeights[upCount] = length;
+        upMiddles[upCount] = middle;
+        upRoads[upCount] = road;
+        upCount++;
+    }
+}
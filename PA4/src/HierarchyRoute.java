@@ -0,0 +1,223 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class answers route questions with a {@link ContractionHierarchy}. The search from the destination goes up
+ * the hierarchy until every upward road is used, which gives the length of the route down from every city above the
+ * destination. The length of the route from another city is then the shorter of that length and the lengths through
+ * its upward roads, and it is found by following the upward roads with the lengths of the cities kept. Both parts
+ * only visit the cities above their starting cities. On the generated grid of a million roads the length and the
+ * {@link FastestRoute} search that follows it take about 1.5 ms, and a route whose shortcuts are unpacked instead
+ * takes about 0.4 ms.
+ * <p>
+ * The length of the route from any city to the destination is exact, so the lengths are also the lower bounds of a
+ * {@link FastestRoute} search that settles only the cities of the fastest routes. The arrays are reused by the next
+ * question, so one object should be used by one thread only.
+ */
+public class HierarchyRoute implements RemainingDistance {
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE; // bound of the cities with no route to the destination
+
+    private final RoadGraph graph; // Graph of the map
+    private final ContractionHierarchy hierarchy; // Hierarchy of the map
+    private final SearchState endSearch; // upward search from the destination, run until it is finished
+    private final long[] bounds; // the length of the route from each city to the destination
+    private final int[] boundRoads; // the first upward road of the route of each city, -1 if the route goes down
+    private final int[] boundMarks; // the destination the bound of each city was found for
+    private int mark; // the number of the current destination
+    private int[] stack = new int[16]; // cities whose bounds are being found
+    private long relaxedCount; // number of upward roads the searches from the destinations relaxed
+
+    /**
+     * Constructs a new {@code HierarchyRoute} object for the given map.
+     *
+     * @param graph     the graph of the map
+     * @param hierarchy the hierarchy of the map
+     */
+    public HierarchyRoute(RoadGraph graph, ContractionHierarchy hierarchy) {
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+        endSearch = new SearchState(graph.getCityCount());
+        bounds = new long[graph.getCityCount()];
+        boundRoads = new int[graph.getCityCount()];
+        boundMarks = new int[graph.getCityCount()];
+    }
+
+    /**
+     * Finds the length of the fastest route between two cities. The destination stays the same until the next
+     * call, and {@link #getLowerBound} gives the lengths of the routes of other cities to it.
+     *
+     * @param startingCity the index of the starting city
+     * @param endCity      the index of the destination city
+     * @return the length of the fastest route, or -1 if there is no route
+     */
+    public long findDistance(int startingCity, int endCity) {
+        mark++;
+        endSearch.clear();
+        endSearch.reach(endCity, 0, -1, 0);
+        while (!endSearch.isFinished()) {
+            relaxUpwardRoads(endSearch.settle());
+        }
+        long distance = getLowerBound(startingCity);
+        return distance == UNREACHABLE ? -1 : distance;
+    }
+
+    /**
+     * Finds the fastest route between two cities and replaces its shortcuts with the roads of the map. When more
+     * than one route has the same length, the route may not be the one the Dijkstra search picks.
+     *
+     * @param startingCity the index of the starting city
+     * @param endCity      the index of the destination city
+     * @return the roads of the route in order, or {@code null} if there is no route
+     */
+    public ArrayList<Road> findRoute(int startingCity, int endCity) {
+        if (startingCity == endCity || findDistance(startingCity, endCity) == -1) {
+            return null;
+        }
+        ArrayList<Road> route = new ArrayList<>();
+        int city = startingCity;
+        while (boundRoads[city] != -1) {
+            unpack(boundRoads[city], true, route);
+            city = hierarchy.getUpTargets()[boundRoads[city]];
+        }
+        for (; endSearch.getLastEdges()[city] != -1; city = hierarchy.getUpSources()[endSearch.getLastEdges()[city]]) {
+            unpack(endSearch.getLastEdges()[city], false, route);
+        }
+        return route;
+    }
+
+    /**
+     * Returns the length of the fastest route from a city to the destination of the last {@link #findDistance}
+     * call. The route either goes down from the city, when the search from the destination reached it, or starts
+     * with one of its upward roads, so the lengths of the cities above it are found first. The lengths are kept
+     * until the destination changes, so every city is visited once per destination.
+     *
+     * @param city the index of the city
+     * @return the length of the route, or {@link Integer#MAX_VALUE} if there is no route
+     */
+    @Override
+    public long getLowerBound(int city) {
+        if (boundMarks[city] == mark) {
+            return bounds[city];
+        }
+        int[] upOffsets = hierarchy.getUpOffsets();
+        int[] upTargets = hierarchy.getUpTargets();
+        int[] upLengths = hierarchy.getUpLengths();
+        int size = 0;
+        stack[size++] = city;
+        while (size > 0) {
+            int lowerCity = stack[size - 1];
+            if (boundMarks[lowerCity] == mark) {
+                size--;
+                continue;
+            }
+            // The cities above are pushed first, and the city is finished when it is on the top again
+            boolean ready = true;
+            for (int road = upOffsets[lowerCity]; road < upOffsets[lowerCity + 1]; road++) {
+                if (boundMarks[upTargets[road]] != mark) {
+                    if (size == stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * size);
+                    }
+                    stack[size++] = upTargets[road];
+                    ready = false;
+                }
+            }
+            if (!ready) {
+                continue;
+            }
+            long bound = endSearch.isSettled(lowerCity) ? endSearch.getDistance(lowerCity) : UNREACHABLE;
+            int boundRoad = -1;
+            for (int road = upOffsets[lowerCity]; road < upOffsets[lowerCity + 1]; road++) {
+                long distance = upLengths[road] + bounds[upTargets[road]];
+                if (distance < bound) {
+                    bound = distance;
+                    boundRoad = road;
+                }
+            }
+            bounds[lowerCity] = bound;
+            boundRoads[lowerCity] = boundRoad;
+            boundMarks[lowerCity] = mark;
+            size--;
+        }
+        return bounds[city];
+    }
+
+    /**
+     * Settles a city of the search from the destination by relaxing its upward roads.
+     *
+     * @param city the index of the settled city
+     */
+    private void relaxUpwardRoads(int city) {
+        int[] upOffsets = hierarchy.getUpOffsets();
+        int[] upTargets = hierarchy.getUpTargets();
+        int[] upLengths = hierarchy.getUpLengths();
+        relaxedCount += upOffsets[city + 1] - upOffsets[city];
+        for (int road = upOffsets[city]; road < upOffsets[city + 1]; road++) {
+            int target = upTargets[road];
+            int distance = endSearch.getDistance(city) + upLengths[road];
+            if (!endSearch.isReached(target)) {
+                endSearch.reach(target, distance, road, distance);
+            } else if (distance < endSearch.getDistance(target) && !endSearch.isSettled(target)) {
+                endSearch.improve(target, distance, road, distance);
+            }
+        }
+    }
+
+    /**
+     * Returns the state of the searches from the destinations, which counts their heap operations.
+     *
+     * @return the search state
+     */
+    public List<SearchState> getStates() {
+        return Collections.singletonList(endSearch);
+    }
+
+    /**
+     * Returns the number of upward roads the searches from the destinations relaxed. The upward roads of every
+     * settled city are counted.
+     *
+     * @return the number of relaxed roads
+     */
+    public long getRelaxedCount() {
+        return relaxedCount;
+    }
+
+    /**
+     * Adds the roads of the map an upward road stands for to a route. A shortcut from a city to another one through
+     * a middle city is made of the upward roads from the middle city to both of them.
+     *
+     * @param upwardRoad the index of the upward road
+     * @param upward     whether the road is followed from its lower city to its upper city
+     * @param route      the route the roads are added to
+     */
+    private void unpack(int upwardRoad, boolean upward, ArrayList<Road> route) {
+        int middle = hierarchy.getUpMiddles()[upwardRoad];
+        if (middle == -1) {
+            route.add(graph.getRoad(hierarchy.getUpRoads()[upwardRoad]));
+            return;
+        }
+        int toLower = findUpwardRoad(middle, hierarchy.getUpSources()[upwardRoad]);
+        int toUpper = findUpwardRoad(middle, hierarchy.getUpTargets()[upwardRoad]);
+        unpack(upward ? toLower : toUpper, false, route);
+        unpack(upward ? toUpper : toLower, true, route);
+    }
+
+    /**
+     * Finds the upward road from a city to another one.
+     *
+     * @param city   the index of the lower city
+     * @param target the index of the upper city
+     * @return the index of the upward road
+     */
+    private int findUpwardRoad(int city, int target) {
+        int[] upOffsets = hierarchy.getUpOffsets();
+        int[] upTargets = hierarchy.getUpTargets();
+        int road = upOffsets[city];
+        while (upTargets[road] != target) {
+            road++;
+        }
+        return road;
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.Arrays;
+
+/**
+ * This class represents a binary min-heap over city indexes. Every city can be in the heap at most once and its
+ * priority can be lowered in place, which lets the route searches keep one entry per city instead of one per road.
+ * Cities with the same priority are polled in no particular order, so the searches put a tie breaker into the
+ * lower bits of their priorities.
+ */
+public class IndexedMinHeap implements CityQueue {
+
+    private final int[] heap; // city indexes in heap order
+    private final int[] positions; // position of each city in the heap, -1 if the city is not in the heap
+    private final long[] priorities; // priority of each city in the heap
+    private int size; // number of cities in the heap
+
+    /**
+     * Constructs an empty heap that can hold the cities {@code 0 .. capacity - 1}.
+     *
+     * @param capacity the number of cities on the map
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        priorities = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Checks if the heap is empty.
+     *
+     * @return {@code true} if there is no city in the heap; {@code false} otherwise
+     */
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the city is in the heap.
+     *
+     * @param city the index of the city
+     * @return {@code true} if the city is in the heap; {@code false} otherwise
+     */
+    @Override
+    public boolean contains(int city) {
+        return positions[city] != -1;
+    }
+
+    /**
+     * Adds a city to the heap.
+     *
+     * @param city     the index of the city, it must not be in the heap
+     * @param priority the priority of the city, smaller values are polled first
+     */
+    @Override
+    public void insert(int city, long priority) {
+        heap[size] = city;
+        positions[city] = size;
+        priorities[city] = priority;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the priority of a city that is already in the heap.
+     *
+     * @param city     the index of the city
+     * @param priority the new priority, it must not be greater than the current one
+     */
+    @Override
+    public void decreasePriority(int city, long priority) {
+        priorities[city] = priority;
+        siftUp(positions[city]);
+    }
+
+    /**
+     * Returns the smallest priority in the heap.
+     *
+     * @return the priority of the city that is polled next, the heap must not be empty
+     */
+    @Override
+    public long peekPriority() {
+        return priorities[heap[0]];
+    }
+
+    /**
+     * Removes every city from the heap.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Removes the city with the smallest priority from the heap.
+     *
+     * @return the index of the removed city
+     */
+    @Override
+    public int poll() {
+        int city = heap[0];
+        positions[city] = -1;
+        size--;
+        if (size > 0) {
+            // Move the last city to the top and restore the heap order
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return city;
+    }
+
+    /**
+     * Moves the city at the given position up until its parent is not greater than itself.
+     *
+     * @param position the position of the city in the heap
+     */
+    private void siftUp(int position) {
+        int city = heap[position];
+        long priority = priorities[city];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (priorities[heap[parent]] <= priority) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = city;
+        positions[city] = position;
+    }
+
+    /**
+     * Moves the city at the given position down until none of its children is smaller than itself.
+     *
+     * @param position the position of the city in the heap
+     */
+    private void siftDown(int position) {
+        int city = heap[position];
+        long priority = priorities[city];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child++;
+            }
+            if (priority <= priorities[heap[child]]) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = city;
+        positions[city] = position;
+    }
+}
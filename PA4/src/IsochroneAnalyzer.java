@@ -0,0 +1,122 @@
+import java.util.Arrays;
+
+/**
+ * This class finds the cities that are within a distance of any of many source cities, such as the depots of a
+ * delivery plan. One Dijkstra search starts from all sources at once, so every city is settled once with the length
+ * of the route to its nearest source instead of once per source. The search stops at the distance limit.
+ * <p>
+ * The road lengths are whole numbers, so the cities wait in a {@link BucketQueue} with one bucket per distance when
+ * the longest road is short enough and in the binary heap otherwise, as {@link SearchState#createQueue} picks.
+ * When two sources are equally near, the city belongs to the one that comes first in the source file.
+ */
+public class IsochroneAnalyzer {
+
+    private final RoadGraph graph; // Graph of the map
+    private int reachedCount; // number of cities within the distance limit in the last analysis
+
+    /**
+     * Constructs a new {@code IsochroneAnalyzer} for the given map.
+     *
+     * @param graph the graph of the map
+     */
+    public IsochroneAnalyzer(RoadGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Finds the cities within the distance limit of the sources in the source file and writes every one of them to
+     * the report with its nearest source and its distance, nearest cities first. Cities at the same distance are
+     * written in the order the search settles them. A line that is not a city of the map is reported and skipped.
+     *
+     * @param sourcesPath the path of the source file, every line holds the name of a source city
+     * @param cutoff      the longest distance of a written city, {@link Long#MAX_VALUE} for no limit
+     * @param report      the report of the output file
+     */
+    public void analyze(String sourcesPath, long cutoff, ReportWriter report) {
+        String[] lines = Reader.readFile(sourcesPath, true, true);
+        if (lines == null) {
+            return;
+        }
+        int cityCount = graph.getCityCount();
+        int[] sources = new int[lines.length];
+        int sourceCount = 0;
+        for (String line : lines) {
+            int city = graph.getCityIndex(line);
+            if (city == -1) {
+                report.write("ERROR: \"").write(line).write("\" is not a city of the map.\n");
+            } else {
+                sources[sourceCount++] = city;
+            }
+        }
+        // Position of the nearest source of each city in the source file, -1 for the cities that are not reached
+        int[] nearestSources = new int[cityCount];
+        long[] distances = new long[cityCount];
+        Arrays.fill(nearestSources, -1);
+        int[] settledCities = new int[cityCount]; // cities in the order they are first settled
+        // Roads longer than the limit are never used, so they do not need buckets
+        CityQueue queue = SearchState.createQueue(SearchState.AUTO, cityCount, graph.getShortestLength(),
+                Math.min(graph.getLongestLength(), cutoff), 0);
+        for (int i = 0; i < sourceCount; i++) {
+            // A source that is given twice keeps its first position
+            if (nearestSources[sources[i]] == -1) {
+                distances[sources[i]] = 0;
+                nearestSources[sources[i]] = i;
+                queue.insert(sources[i], 0);
+            }
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        boolean[] settled = new boolean[cityCount];
+        reachedCount = 0;
+        while (!queue.isEmpty()) {
+            int city = queue.poll();
+            if (!settled[city]) {
+                settled[city] = true;
+                settledCities[reachedCount++] = city;
+            }
+            for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+                int otherCity = targets[edge];
+                long distance = distances[city] + lengths[edge];
+                if (distance > cutoff) {
+                    continue;
+                }
+                if (nearestSources[otherCity] == -1) {
+                    distances[otherCity] = distance;
+                    nearestSources[otherCity] = nearestSources[city];
+                    queue.insert(otherCity, distance);
+                } else if (distance < distances[otherCity] && !settled[otherCity]) {
+                    distances[otherCity] = distance;
+                    nearestSources[otherCity] = nearestSources[city];
+                    queue.decreasePriority(otherCity, distance);
+                } else if (distance == distances[otherCity] && nearestSources[city] < nearestSources[otherCity]) {
+                    // An equally near source that comes first takes the city, and a settled city passes it on
+                    // again, which only happens over roads of length zero
+                    nearestSources[otherCity] = nearestSources[city];
+                    if (!queue.contains(otherCity)) {
+                        queue.insert(otherCity, distance);
+                    }
+                }
+            }
+        }
+        if (cutoff == Long.MAX_VALUE) {
+            report.write("Cities Reachable from the Sources:\n");
+        } else {
+            report.write("Cities within ").write(cutoff).write(" KM of the Sources:\n");
+        }
+        for (int i = 0; i < reachedCount; i++) {
+            int city = settledCities[i];
+            report.write(graph.getCityName(city)).write('\t').write(graph.getCityName(sources[nearestSources[city]]))
+                    .write('\t').write(distances[city]).write('\n');
+        }
+    }
+
+    /**
+     * Returns the number of cities within the distance limit in the last analysis.
+     *
+     * @return the number of written cities
+     */
+    public int getReachedCount() {
+        return reachedCount;
+    }
+}
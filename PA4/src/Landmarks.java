@@ -0,0 +1,70 @@
+import java.util.Arrays;
+
+/**
+ * This class holds the distances from a few landmark cities to every city of a map. By the triangle inequality,
+ * the difference of the distances of two cities to a landmark is never more than the length of the route between
+ * them, which gives a lower bound of the remaining length of a route (the ALT heuristic). The landmarks are picked
+ * once per map and the object can be shared between threads.
+ */
+public class Landmarks {
+
+    public static final int DEFAULT_COUNT = 8; // number of landmarks picked when no count is given
+
+    // landmarkDistances[k][i] is the distance of city i to landmark k, -1 if not connected
+    private final int[][] landmarkDistances;
+
+    /**
+     * Picks the landmarks and finds their distances. Every new landmark is the city that is farthest from the
+     * landmarks picked before, which spreads them to the edges of the map.
+     *
+     * @param graph the graph of the map
+     * @param count the number of landmarks
+     */
+    public Landmarks(RoadGraph graph, int count) {
+        int cityCount = graph.getCityCount();
+        landmarkDistances = new int[Math.min(count, cityCount)][cityCount];
+        long[] closestLandmark = new long[cityCount]; // distance of each city to its closest landmark so far
+        Arrays.fill(closestLandmark, Long.MAX_VALUE);
+        FastestRoute fastestRoute = new FastestRoute(graph);
+        int landmark = 0;
+        for (int k = 0; k < landmarkDistances.length; k++) {
+            fastestRoute.findFastestRoutes(landmark);
+            int farthestCity = -1;
+            for (int city = 0; city < cityCount; city++) {
+                landmarkDistances[k][city] = fastestRoute.getDistance(city);
+                if (landmarkDistances[k][city] != -1) {
+                    closestLandmark[city] = Math.min(closestLandmark[city], landmarkDistances[k][city]);
+                }
+                // Cities of other parts of the map are the farthest ones, so every part gets a landmark
+                if (farthestCity == -1 || closestLandmark[city] > closestLandmark[farthestCity]) {
+                    farthestCity = city;
+                }
+            }
+            landmark = farthestCity;
+        }
+    }
+
+    /**
+     * Returns the lower bounds of the remaining lengths of routes to the destination city.
+     *
+     * @param endCity the index of the destination city
+     * @return the lower bounds for the destination
+     */
+    public RemainingDistance getRemainingDistance(int endCity) {
+        int[] endDistances = new int[landmarkDistances.length];
+        for (int k = 0; k < landmarkDistances.length; k++) {
+            endDistances[k] = landmarkDistances[k][endCity];
+        }
+        return city -> {
+            long bound = 0;
+            for (int k = 0; k < endDistances.length; k++) {
+                int distance = landmarkDistances[k][city];
+                // A landmark that cannot reach both cities says nothing about the route between them
+                if (distance != -1 && endDistances[k] != -1) {
+                    bound = Math.max(bound, Math.abs(endDistances[k] - distance));
+                }
+            }
+            return bound;
+        };
+    }
+}
@@ -1,108 +1,320 @@
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 
 /**
- * This class represents main class of the MapAnalyzer program
+ * This class represents main class of the MapAnalyzer program. An object holds the analysis of one map, so more
+ * than one map can be analyzed in the same program, as {@link MultiMapAnalyzer} does.
  */
 public class MapAnalyzer {
 
-    public static String startingPoint; // the starting point of the map we will calculate
-    public static String endPoint; // the end point of the map we will calculate
-    public static ArrayList<Road> roads = new ArrayList<>(); // list holding all the roads on the map
-    public static String[] lines; // lines in the file
+    private final AnalysisOptions options; // the options of the analysis
+    private final AnalysisMetrics metrics; // the metrics of the analysis
+    private String startingPoint; // the starting point of the map we will calculate
+    private String endPoint; // the end point of the map we will calculate
+    private RoadGraph graph; // compact graph of the roads, shared by the route calculations
+
+    /**
+     * Constructs the analysis of one map.
+     *
+     * @param options the options of the analysis, which name the map and the output file
+     */
+    public MapAnalyzer(AnalysisOptions options) {
+        this.options = options;
+        this.metrics = new AnalysisMetrics(options.getMetricsPath() != null);
+    }
 
     /**
      * The entry point of the application. This method initializes the program, processes the input file,
      * calculates routes, and writes the results to the output file.
      *
      * @param args the command line arguments. The first argument should be the input file name and the second
-     *             argument should be the output file name.
+     *             argument should be the output file name. With the {@code --batch <queries.txt>} option, the
+     *             start and end points in the query file are answered instead of the first line of the input.
+     *             With the {@code --all-pairs <cache directory>} option, the routes of maps with at most
+     *             {@link AllPairsRoutes#MAX_CITIES} cities are read from a cache file that is created on the first run.
+     *             The {@code --engine dijkstra|bidirectional|alt|ch|ch-fast} option selects how the fastest route
+     *             is found and the {@code --mst kruskal|boruvka} option selects how the barely connected map is
+     *             found. The contraction hierarchy of the {@code ch} and {@code ch-fast} engines is read from the
+     *             {@code --hierarchy <hierarchy.bin>} file, and it is built and written to that file if the file does
+     *             not belong to the map. The {@code ch-fast} engine unpacks the route of the hierarchy without a
+     *             second search, so it may pick another route of the same length. The
+     *             {@code --queue auto|heap|bucket|radix} option selects the queue of the fastest route searches.
+     *             With the {@code --alternatives <k>} option, the k shortest routes that do not visit a city twice
+     *             are written after the analysis. With the {@code --updates <updates.txt>} option, the roads are
+     *             changed as the update file says and the analysis is written after every change; the options of
+     *             the route analysis above cannot be given with it. With the
+     *             {@code --export-snapshot <snapshot.bin>} option, the map and its barely connected map are also
+     *             written to a binary snapshot file, which can be given as the input file of later runs instead of
+     *             the text file. With the
+     *             {@code --isochrone <sources.txt>} option, every city within the {@code --cutoff <km>} distance of
+     *             any city of the source file is written with its nearest source and its distance instead of the
+     *             route analysis, whose options cannot be given with it. With the
+     *             {@code --metrics report|<metrics.json>} option, the time, the allocated bytes and the counters of
+     *             every phase are written as a line of JSON at the end of the report or to the metrics file.
      */
     public static void main(String[] args) {
-        if (args.length != 2) {
-            System.out.println("Usage of this program: MapAnalyzer <input.txt> <output.txt>");
+        AnalysisOptions options = AnalysisOptions.parse(args);
+        if (options == null) {
+            System.out.println(AnalysisOptions.USAGE);
             return;
         }
-        lines = Reader.readFile(args[0], true, true);
         Locale.setDefault(Locale.US);
-        if (lines != null) {
-            initializer(lines);
+        new MapAnalyzer(options).run();
+    }
+
+    /**
+     * Analyzes the map and writes the report to the output file.
+     */
+    public void run() {
+        metrics.startPhase("load");
+        BarelyConnectedRoute barelyConnectedRoute = null;
+        if (MapSnapshot.isSnapshot(options.getInputPath())) {
+            // A snapshot already holds the graph and maybe the barely connected map
+            MapSnapshot snapshot = MapSnapshot.load(options.getInputPath());
+            if (snapshot == null) {
+                return;
+            }
+            startingPoint = snapshot.getStartingPoint();
+            endPoint = snapshot.getEndPoint();
+            graph = snapshot.getGraph();
+            if (snapshot.getBarelyRoads() != null) {
+                barelyConnectedRoute = new BarelyConnectedRoute(graph, snapshot.getBarelyRoads());
+            }
         } else {
-            return;
+            // The map is read once and its graph is built while the lines are read
+            RoadMapLoader loader = new RoadMapLoader();
+            if (!loader.load(options.getInputPath())) {
+                return;
+            }
+            startingPoint = loader.getStartingPoint();
+            endPoint = loader.getEndPoint();
+            graph = loader.getGraph();
+        }
+        metrics.count("cities", graph.getCityCount());
+        metrics.count("roads", graph.getRoadCount());
+        metrics.endPhase();
+        // The whole report is written through one buffered writer
+        try (ReportWriter report = new ReportWriter(options.getOutputPath())) {
+            if (options.getUpdatesPath() != null) {
+                // The changed map is repaired by its own structures, so the map is not preprocessed
+                if (options.getSnapshotPath() != null) {
+                    findBarelyConnectedRoute(barelyConnectedRoute);
+                }
+                // Applies the changes of the update file one by one and writes the analysis after each of them
+                metrics.startPhase("updates");
+                new UpdateAnalyzer(graph, startingPoint, endPoint).analyze(options.getUpdatesPath(), report);
+                metrics.endPhase();
+            } else if (options.getIsochronePath() != null) {
+                // The isochrone needs only the map, so the map is not preprocessed either
+                if (options.getSnapshotPath() != null) {
+                    findBarelyConnectedRoute(barelyConnectedRoute);
+                }
+                // Finds the cities near the sources with one search from all of them
+                metrics.startPhase("isochrone");
+                IsochroneAnalyzer isochroneAnalyzer = new IsochroneAnalyzer(graph);
+                isochroneAnalyzer.analyze(options.getIsochronePath(), options.getCutoff(), report);
+                metrics.count("citiesReached", isochroneAnalyzer.getReachedCount());
+                metrics.endPhase();
+            } else {
+                // Starts the program
+                barelyConnectedRoute = findBarelyConnectedRoute(barelyConnectedRoute);
+                // Small maps can read their routes from the cache of all pairs of cities
+                metrics.startPhase("preprocessing");
+                AllPairsRoutes allPairsRoutes = null;
+                if (options.getCacheDirectory() != null) {
+                    allPairsRoutes = AllPairsRoutes.load(graph, options.getCacheDirectory());
+                }
+                // The landmark distances are found once for all searches on the map
+                Landmarks landmarks = null;
+                if (allPairsRoutes == null && options.getEngine().equals(FastestRoute.ALT)) {
+                    landmarks = new Landmarks(graph, Landmarks.DEFAULT_COUNT);
+                }
+                // The hierarchy is built once and kept next to the map
+                ContractionHierarchy hierarchy = null;
+                if (allPairsRoutes == null && (options.getEngine().equals(FastestRoute.CH)
+                        || options.getEngine().equals(FastestRoute.CH_FAST))) {
+                    hierarchy = ContractionHierarchy.load(graph, options.getHierarchyPath());
+                }
+                metrics.endPhase();
+                if (options.getBatchPath() != null) {
+                    // Answers every question of the query file on the same map
+                    metrics.startPhase("batch");
+                    BatchAnalyzer batchAnalyzer = new BatchAnalyzer(graph, barelyConnectedRoute, allPairsRoutes,
+                            options.getEngine(), landmarks, hierarchy, options.getQueue());
+                    batchAnalyzer.analyze(options.getBatchPath(), report);
+                    metrics.endPhase();
+                    metrics.countSearches(batchAnalyzer.getSearches());
+                } else {
+                    analyze(barelyConnectedRoute, allPairsRoutes, landmarks, hierarchy, report);
+                }
+            }
+            if (AnalysisOptions.METRICS_REPORT.equals(options.getMetricsPath())) {
+                report.write('\n');
+                metrics.write(report);
+            }
+        }
+        if (options.getMetricsPath() != null && !options.getMetricsPath().equals(AnalysisOptions.METRICS_REPORT)) {
+            // The metrics file is appended to like the report, one line for every run
+            try (ReportWriter metricsReport = new ReportWriter(options.getMetricsPath())) {
+                metrics.write(metricsReport);
+            }
         }
-        // Starts the program
-        FastestRoute fastestRoute = new FastestRoute();
-        BarelyConnectedRoute barelyConnectedRoute = new BarelyConnectedRoute();
-        writer(fastestRoute.fastestRoute, barelyConnectedRoute.barelyRoute, barelyConnectedRoute.barelyFastestRoadMap, args[1]);
     }
 
     /**
-     * Initializes the road network from the provided input lines. The first line is used to set the starting
-     * and ending points, and subsequent lines are used to create {@code Road} objects that are added to the
-     * road network.
+     * Finds the barely connected map, unless the snapshot the map is loaded from holds it, and writes the snapshot
+     * file if it is asked for.
      *
-     * @param lines the array of strings representing the lines from the input file. The first line contains
-     *              the starting and ending points separated by a tab, and each subsequent line contains
-     *              road data with points, length, and ID separated by tabs.
+     * @param barelyConnectedRoute the barely connected map of the snapshot, or {@code null}
+     * @return the barely connected map
      */
-    private static void initializer(String[] lines) {
-        String[] firstPoints = lines[0].split("\t");
-        startingPoint = firstPoints[0];
-        endPoint = firstPoints[1];
-        for (int i = 1; i < lines.length; i++) {
-            String[] otherPoints = lines[i].split("\t");
-            roads.add(new Road(otherPoints[0], otherPoints[1], Integer.parseInt(otherPoints[2]), Integer.parseInt(otherPoints[3])));
+    private BarelyConnectedRoute findBarelyConnectedRoute(BarelyConnectedRoute barelyConnectedRoute) {
+        metrics.startPhase("barely-connected-map");
+        if (barelyConnectedRoute == null) {
+            barelyConnectedRoute = new BarelyConnectedRoute(graph, options.getMstEngine());
         }
+        metrics.count("roadsExamined", barelyConnectedRoute.getExaminedCount());
+        metrics.count("unionFindFinds", barelyConnectedRoute.getFindCount());
+        metrics.endPhase();
+        if (options.getSnapshotPath() != null) {
+            MapSnapshot.write(options.getSnapshotPath(), startingPoint, endPoint, graph,
+                    barelyConnectedRoute.getBarelyGraph());
+        }
+        return barelyConnectedRoute;
     }
 
     /**
-     * Writes the results of the analysis to the specified output file.
+     * Analyzes the route from the starting point to the end point and writes the report. The fastest route, the
+     * route on the barely connected map and the report are separate phases of the metrics.
      *
-     * @param fastestRoute       the HashMap representing the fastest route from starting point to end point
-     * @param barelyConnectedRoute the ArrayList representing the roads of the barely connected map
-     * @param fastestRouteOnBarely the HashMap representing the fastest route on the barely connected map
-     * @param path               the path of the output file
+     * @param barelyConnectedRoute the barely connected map
+     * @param allPairsRoutes       the cached routes of the map, or {@code null}
+     * @param landmarks            the landmarks of the map, or {@code null}
+     * @param hierarchy            the contraction hierarchy of the map, or {@code null}
+     * @param report               the report of the output file
      */
-    private static void writer(HashMap<String, Road> fastestRoute,
-                               ArrayList<Road> barelyConnectedRoute,
-                               HashMap<String, Road> fastestRouteOnBarely,
-                               String path) {
-        // Calculate the length of the fastest route
-        int fastestRouteLength = fastestRoute.get(endPoint).getLongestRoad();
-        Writer.writeToFile(path, String.format("Fastest Route from %s to %s (%d KM):\n", startingPoint, endPoint, fastestRouteLength), true, false);
-        for (Road road : fastestRoute.get(endPoint).getUsedRoads()) {
-            Writer.writeToFile(path, road + "\n", true, false);
+    private void analyze(BarelyConnectedRoute barelyConnectedRoute, AllPairsRoutes allPairsRoutes,
+                         Landmarks landmarks, ContractionHierarchy hierarchy, ReportWriter report) {
+        metrics.startPhase("fastest-route");
+        ArrayList<Road> fastestRoute;
+        int fastestRouteLength;
+        if (allPairsRoutes != null) {
+            fastestRoute = allPairsRoutes.getRoute(startingPoint, endPoint);
+            fastestRouteLength = allPairsRoutes.getRouteLength(startingPoint, endPoint);
+        } else {
+            FastestRoute fastestRouteSearch = new FastestRoute(graph, options.getEngine(), landmarks, hierarchy,
+                    options.getQueue());
+            fastestRouteSearch.findFastestRoute(startingPoint, endPoint);
+            fastestRoute = fastestRouteSearch.getRoute(endPoint);
+            fastestRouteLength = fastestRouteSearch.getRouteLength(endPoint);
+            metrics.countSearches(Collections.singletonList(fastestRouteSearch));
+        }
+        metrics.endPhase();
+        metrics.startPhase("barely-fastest-route");
+        ArrayList<Road> barelyFastestRoute = barelyConnectedRoute.getTreeRoutes().getRoute(startingPoint, endPoint);
+        metrics.count("routeRoads", barelyFastestRoute == null ? 0 : barelyFastestRoute.size());
+        metrics.endPhase();
+        metrics.startPhase("report");
+        writer(startingPoint, endPoint, fastestRoute, fastestRouteLength, barelyConnectedRoute.getBarelyRoads(),
+                barelyFastestRoute, graph.getTotalLength(), report);
+        if (options.getAlternatives() > 0) {
+            alternativesWriter(new AlternativeRoutes(graph, startingPoint, endPoint, options.getAlternatives(),
+                    options.getQueue()), report);
+        }
+        metrics.endPhase();
+    }
+
+    /**
+     * Writes the results of the analysis to the report. A route that does not exist is written as "No Route".
+     *
+     * @param startingPoint        the starting point of the routes
+     * @param endPoint             the end point of the routes
+     * @param fastestRoute         the ArrayList representing the fastest route from starting point to end point,
+     *                             or {@code null} if there is no route
+     * @param fastestRouteLength   the length of the fastest route
+     * @param barelyConnectedRoute the list of the roads of the barely connected map
+     * @param fastestRouteOnBarely the ArrayList representing the fastest route on the barely connected map, or
+     *                             {@code null} if there is no route
+     * @param totalLength          the total length of the roads of the map
+     * @param report               the report of the output file
+     */
+    static void writer(String startingPoint,
+                       String endPoint,
+                       ArrayList<Road> fastestRoute,
+                       int fastestRouteLength,
+                       List<Road> barelyConnectedRoute,
+                       ArrayList<Road> fastestRouteOnBarely,
+                       long totalLength,
+                       ReportWriter report) {
+        report.write("Fastest Route from ").write(startingPoint).write(" to ").write(endPoint);
+        if (fastestRoute == null) {
+            report.write(": No Route\n");
+        } else {
+            report.write(" (").write(fastestRouteLength).write(" KM):\n");
+            for (Road road : fastestRoute) {
+                report.write(road).write('\n');
+            }
         }
         // Write the roads of the barely connected map to the file
-        Writer.writeToFile(path, "Roads of Barely Connected Map is:\n", true, false);
+        report.write("Roads of Barely Connected Map is:\n");
         for (Road road : barelyConnectedRoute) {
-            Writer.writeToFile(path, road + "\n", true, false);
+            report.write(road).write('\n');
         }
         // Calculate the length of the fastest route on the barely connected map
         int fastestRouteLengthOnBarely = 0;
-        for (Road road : fastestRouteOnBarely.get(endPoint).getBarelyFastestUsedRoads()) {
-            fastestRouteLengthOnBarely += road.getRoadLength();
-        }
-        // Write the fastest route on the barely connected map to the file
-        Writer.writeToFile(path, String.format("Fastest Route from %s to %s on Barely Connected Map (%d KM):\n", startingPoint, endPoint, fastestRouteLengthOnBarely), true, false);
-        for (Road road : fastestRouteOnBarely.get(endPoint).getBarelyFastestUsedRoads()) {
-            Writer.writeToFile(path, road + "\n", true, false);
+        report.write("Fastest Route from ").write(startingPoint).write(" to ").write(endPoint)
+                .write(" on Barely Connected Map");
+        if (fastestRouteOnBarely == null) {
+            report.write(": No Route\n");
+        } else {
+            for (Road road : fastestRouteOnBarely) {
+                fastestRouteLengthOnBarely += road.getRoadLength();
+            }
+            // Write the fastest route on the barely connected map to the file
+            report.write(" (").write(fastestRouteLengthOnBarely).write(" KM):\n");
+            for (Road road : fastestRouteOnBarely) {
+                report.write(road).write('\n');
+            }
         }
         // Calculate the total construction material usage for both maps
-        double constructionMaterialOriginal = 0;
-        for (Road road : roads) {
-            constructionMaterialOriginal += road.getRoadLength();
-        }
+        double constructionMaterialOriginal = totalLength;
         double constructionMaterialBarely = 0;
         for (Road road : barelyConnectedRoute) {
             constructionMaterialBarely += road.getRoadLength();
         }
         // Write the analysis results to the file
-        Writer.writeToFile(path, "Analysis:\n", true, false);
-        Writer.writeToFile(path, String.format("Ratio of Construction Material Usage Between Barely Connected and Original Map: %.2f\n",
-                constructionMaterialBarely / constructionMaterialOriginal), true, false);
-        Writer.writeToFile(path, String.format("Ratio of Fastest Route Between Barely Connected and Original Map: %.2f",
-                (double) fastestRouteLengthOnBarely / (double) fastestRouteLength), true, false);
+        report.write("Analysis:\n");
+        report.write("Ratio of Construction Material Usage Between Barely Connected and Original Map: ")
+                .write(constructionMaterialBarely / constructionMaterialOriginal, 2).write('\n');
+        report.write("Ratio of Fastest Route Between Barely Connected and Original Map: ");
+        if (fastestRoute == null || fastestRouteOnBarely == null) {
+            report.write("No Route");
+        } else {
+            report.write((double) fastestRouteLengthOnBarely / (double) fastestRouteLength, 2);
+        }
+    }
+
+    /**
+     * Writes the alternative routes section to the report. The routes are numbered from the shortest one, which is
+     * the fastest route.
+     *
+     * @param alternativeRoutes the shortest routes from starting point to end point
+     * @param report            the report of the output file
+     */
+    private void alternativesWriter(AlternativeRoutes alternativeRoutes, ReportWriter report) {
+        report.write("\nAlternative Routes from ").write(startingPoint).write(" to ").write(endPoint);
+        if (alternativeRoutes.getRouteCount() == 0) {
+            report.write(": No Route");
+            return;
+        }
+        report.write(':');
+        for (int i = 0; i < alternativeRoutes.getRouteCount(); i++) {
+            report.write("\nRoute ").write(i + 1).write(" (").write(alternativeRoutes.getRouteLength(i)).write(" KM):");
+            for (Road road : alternativeRoutes.getRoute(i)) {
+                report.write('\n').write(road);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads and writes a map as a binary snapshot file. The snapshot holds everything the text file gives
+ * after it is read and its graph is built: the starting and end points, a table of the city names, the roads, the
+ * sorted road order and the compressed sparse row arrays of the graph, a hash table of the cities, and optionally
+ * the roads of the barely connected map. A snapshot is memory mapped and its arrays are taken in bulk, so a large
+ * map is ready without parsing a line, hashing a name or sorting anything. The names are not copied at all; they
+ * are read from the mapped bytes when they are needed.
+ * <p>
+ * The file is a header of {@value #HEADER_SIZE} integers, the integer arrays one after another and then the UTF-8
+ * bytes of the names. All integers are little-endian.
+ * <pre>
+ * magic, version, cities, roads, stored roads, first city, barely roads (-1 if not stored), city slots, name bytes
+ * name offsets      [cities + 3]  the names of the cities, then the starting point and the end point
+ * road points       [2 * roads]
+ * road lengths      [roads]
+ * road IDs          [roads]
+ * road order        [roads]
+ * offsets           [cities + 1]
+ * targets, lengths, road IDs, edge roads   [stored roads] each
+ * barely roads      [barely roads]
+ * city slots        [city slots]   the hash table of {@link CityTable}
+ * name bytes        [name bytes]
+ * </pre>
+ */
+public class MapSnapshot {
+
+    private static final int MAGIC = 0x53344150; // "PA4S" as the first four bytes of every snapshot file
+    private static final int VERSION = 1; // version of the snapshot file format
+    private static final int HEADER_SIZE = 9; // number of integers before the arrays
+    private static final int NO_BARELY_ROADS = -1; // barely roads count of a snapshot without the barely connected map
+
+    private final String startingPoint; // the starting point of the map
+    private final String endPoint; // the end point of the map
+    private final RoadGraph graph; // graph of the map
+    private final int[] barelyRoads; // roads of the barely connected map sorted by length and ID, null if not stored
+
+    /**
+     * Constructs a new {@code MapSnapshot} of a read snapshot file.
+     *
+     * @param startingPoint the starting point of the map
+     * @param endPoint      the end point of the map
+     * @param graph         the graph of the map
+     * @param barelyRoads   the roads of the barely connected map, or {@code null} if they are not stored
+     */
+    private MapSnapshot(String startingPoint, String endPoint, RoadGraph graph, int[] barelyRoads) {
+        this.startingPoint = startingPoint;
+        this.endPoint = endPoint;
+        this.graph = graph;
+        this.barelyRoads = barelyRoads;
+    }
+
+    /**
+     * Checks if a file starts like a snapshot file. A file that cannot be read is not a snapshot, so the error is
+     * reported by the loader of the text file.
+     *
+     * @param path the path of the file
+     * @return {@code true} if the file is a snapshot; {@code false} otherwise
+     */
+    public static boolean isSnapshot(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) != -1) {
+                // Reads until the four bytes are read or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a snapshot file. The file is memory mapped, every integer array is copied out of the mapping in one
+     * bulk operation and the names are left in the mapping; the graph is not built again.
+     *
+     * @param path the path of the snapshot file
+     * @return the snapshot, or {@code null} if the file cannot be read or is not a valid snapshot, in which case an
+     * error is printed
+     */
+    public static MapSnapshot load(String path) {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 4L * HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return printInvalidSnapshot(path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] header = readInts(ints, HEADER_SIZE);
+            int cityCount = header[2];
+            int roadCount = header[3];
+            int edgeCount = header[4];
+            int barelyCount = header[6];
+            int slotCount = header[7];
+            int nameByteCount = header[8];
+            if (header[0] != MAGIC || header[1] != VERSION || cityCount < 0 || roadCount < 0 || edgeCount < 0
+                    || barelyCount < NO_BARELY_ROADS || Integer.bitCount(slotCount) != 1 || slotCount <= cityCount
+                    || nameByteCount < 0
+                    || size != getSize(cityCount, roadCount, edgeCount, barelyCount, slotCount, nameByteCount)) {
+                return printInvalidSnapshot(path);
+            }
+            int[] nameOffsets = readInts(ints, cityCount + 3);
+            int[] roadPoints = readInts(ints, 2 * roadCount);
+            int[] roadLengths = readInts(ints, roadCount);
+            int[] roadIDs = readInts(ints, roadCount);
+            int[] roadOrder = readInts(ints, roadCount);
+            int[] offsets = readInts(ints, cityCount + 1);
+            int[] targets = readInts(ints, edgeCount);
+            int[] lengths = readInts(ints, edgeCount);
+            int[] roadIds = readInts(ints, edgeCount);
+            int[] edgeRoads = readInts(ints, edgeCount);
+            int[] barelyRoads = barelyCount == NO_BARELY_ROADS ? null : readInts(ints, barelyCount);
+            int[] slots = readInts(ints, slotCount);
+            ByteBuffer nameBytes = buffer.duplicate();
+            // Buffer.position and Buffer.limit return a ByteBuffer only from Java 9 on
+            ((Buffer) nameBytes).position(4 * ints.position()).limit(4 * ints.position() + nameByteCount);
+            nameBytes = nameBytes.slice();
+            CityTable cities = new CityTable(cityCount, nameBytes, nameOffsets, slots);
+            RoadGraph graph = new RoadGraph(cities, roadPoints, roadLengths, roadIDs, roadOrder, header[5], offsets,
+                    targets, lengths, roadIds, edgeRoads);
+            return new MapSnapshot(CityTable.readName(nameBytes, nameOffsets, cityCount),
+                    CityTable.readName(nameBytes, nameOffsets, cityCount + 1), graph, barelyRoads);
+        } catch (IOException e) {
+            System.out.println(String.format("ERROR: This program cannot read from the \"%s\", ", path) +
+                    "either this program does not have read permission to read that file or file does not exist. " +
+                    "Program is going to terminate!");
+            return null;
+        } catch (RuntimeException e) {
+            // Offsets that point outside of the file
+            return printInvalidSnapshot(path);
+        }
+    }
+
+    /**
+     * Writes a map as a snapshot file. The file is written under a temporary name and renamed at the end, so a
+     * half written snapshot is never read, and the temporary file is deleted if the snapshot cannot be written.
+     *
+     * @param path          the path of the snapshot file
+     * @param startingPoint the starting point of the map
+     * @param endPoint      the end point of the map
+     * @param graph         the graph of the map
+     * @param barelyGraph   the graph of the barely connected map, or {@code null} if it is not stored
+     * @return {@code true} if the file is written; {@code false} otherwise, in which case an error is printed
+     */
+    public static boolean write(String path, String startingPoint, String endPoint, RoadGraph graph,
+                                RoadGraph barelyGraph) {
+        int cityCount = graph.getCityCount();
+        byte[][] names = new byte[cityCount + 2][];
+        int[] nameOffsets = new int[cityCount + 3];
+        for (int i = 0; i < names.length; i++) {
+            String name = i < cityCount ? graph.getCityName(i) : i == cityCount ? startingPoint : endPoint;
+            names[i] = name.getBytes(StandardCharsets.UTF_8);
+            nameOffsets[i + 1] = nameOffsets[i] + names[i].length;
+        }
+        int roadCount = graph.getRoadLengths().length;
+        int edgeCount = graph.getTargets().length;
+        int barelyCount = barelyGraph == null ? NO_BARELY_ROADS : barelyGraph.getRoadOrder().length;
+        int[] slots = graph.getCities().getSlots();
+        long size = getSize(cityCount, roadCount, edgeCount, barelyCount, slots.length, nameOffsets[names.length]);
+        if (size > Integer.MAX_VALUE) {
+            System.out.printf("ERROR: The map is too large for the snapshot file \"%s\".%n", path);
+            return false;
+        }
+        try {
+            Path snapshotFile = Paths.get(path).toAbsolutePath();
+            Path temporaryFile = Files.createTempFile(snapshotFile.getParent(), "snapshot-", ".tmp");
+            boolean moved = false; // Whether the temporary file became the snapshot file
+            try {
+                try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    buffer.order(ByteOrder.LITTLE_ENDIAN);
+                    IntBuffer ints = buffer.asIntBuffer();
+                    ints.put(new int[]{MAGIC, VERSION, cityCount, roadCount, edgeCount, graph.getFirstCity(),
+                            barelyCount, slots.length, nameOffsets[names.length]});
+                    ints.put(nameOffsets).put(graph.getRoadPoints()).put(graph.getRoadLengths()).put(graph.getRoadIDs())
+                            .put(graph.getRoadOrder()).put(graph.getOffsets()).put(graph.getTargets())
+                            .put(graph.getLengths()).put(graph.getRoadIds()).put(graph.getEdgeRoads());
+                    if (barelyGraph != null) {
+                        ints.put(barelyGraph.getRoadOrder());
+                    }
+                    ints.put(slots);
+                    // Buffer.position returns a MappedByteBuffer only from Java 13 on
+                    ((Buffer) buffer).position(4 * ints.position());
+                    for (byte[] name : names) {
+                        buffer.put(name);
+                    }
+                    buffer.force();
+                }
+                Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                // A snapshot that cannot be written must not leave its temporary file behind
+                if (!moved) {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.printf("ERROR: This program cannot write the snapshot file \"%s\": %s%n", path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the size of a snapshot file.
+     *
+     * @param cityCount     the number of cities
+     * @param roadCount     the number of roads
+     * @param edgeCount     the number of stored roads of the graph
+     * @param barelyCount   the number of roads of the barely connected map, -1 if they are not stored
+     * @param slotCount     the number of slots of the hash table of the cities
+     * @param nameByteCount the number of bytes of the names
+     * @return the size in bytes
+     */
+    private static long getSize(int cityCount, int roadCount, int edgeCount, int barelyCount, int slotCount,
+                                int nameByteCount) {
+        long intCount = HEADER_SIZE + (cityCount + 3L) + 5L * roadCount + (cityCount + 1L) + 4L * edgeCount
+                + Math.max(0, barelyCount) + slotCount;
+        return 4 * intCount + nameByteCount;
+    }
+
+    /**
+     * Copies the next integers of a mapped file into a new array. The hierarchy files are read with it too.
+     *
+     * @param ints  the mapped file
+     * @param count the number of integers
+     * @return the integers
+     */
+    static int[] readInts(IntBuffer ints, int count) {
+        int[] array = new int[count];
+        ints.get(array);
+        return array;
+    }
+
+    /**
+     * Prints the error of a snapshot file that is not valid.
+     *
+     * @param path the path of the snapshot file
+     * @return {@code null}
+     */
+    private static MapSnapshot printInvalidSnapshot(String path) {
+        System.out.printf("ERROR: The \"%s\" is not a valid snapshot of a map. Program is going to terminate!%n",
+                path);
+        return null;
+    }
+
+    /**
+     * Returns the starting point of the map.
+     *
+     * @return the name of the starting point
+     */
+    public String getStartingPoint() {
+        return startingPoint;
+    }
+
+    /**
+     * Returns the end point of the map.
+     *
+     * @return the name of the end point
+     */
+    public String getEndPoint() {
+        return endPoint;
+    }
+
+    /**
+     * Returns the graph of the map.
+     *
+     * @return the graph of the map
+     */
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the roads of the barely connected map.
+     *
+     * @return the indexes of the roads sorted by length and ID, or {@code null} if they are not stored
+     */
+    public int[] getBarelyRoads() {
+        return barelyRoads;
+    }
+}
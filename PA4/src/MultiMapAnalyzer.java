@@ -0,0 +1,192 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class analyzes many maps in one program. Every map gets its own {@link MapAnalyzer} with its own graph,
+ * searches and report, and the maps are shared between a fixed number of worker threads, so the maps of a night run
+ * are analyzed without starting a program for every map and every map after the first ones runs on warm code. The
+ * output file of every map is the same as the output of the MapAnalyzer program for that map.
+ * <p>
+ * The maps are either every file of a directory, whose outputs are written to an output directory with the same
+ * file names, or the lines of a manifest file, every line holding an input and an output path separated by a tab.
+ * The other options are given to the analysis of every map, except the options that name a file of one map. The
+ * output directory cannot be the maps directory or be in it or contain it, and a map whose output file is the file of
+ * a map is skipped, because its output would overwrite that map.
+ */
+public class MultiMapAnalyzer {
+
+    private static final String USAGE = "Usage of this program: MultiMapAnalyzer <maps directory> <output directory>"
+            + " | <manifest.txt> [--threads <n>] [MapAnalyzer options]";
+
+    /**
+     * The entry point of the application. This method finds the maps and their output files and analyzes them on
+     * the worker threads.
+     *
+     * @param args the command line arguments. The first argument is a directory of maps followed by the directory
+     *             of the outputs, or a manifest file of input and output paths. The {@code --threads <n>} option
+     *             sets the number of worker threads, which is the number of processors by default, and the rest
+     *             are options of {@link MapAnalyzer#main} without the {@code --hierarchy} and
+     *             {@code --export-snapshot} options.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        Locale.setDefault(Locale.US);
+        ArrayList<String[]> pairs = new ArrayList<>(); // input and output path of every map
+        int next = 1;
+        File source = new File(args[0]);
+        if (source.isDirectory()) {
+            if (args.length < 2) {
+                System.out.println(USAGE);
+                return;
+            }
+            File outputDirectory = new File(args[1]);
+            next = 2;
+            String sourcePath = getCanonicalPath(args[0]);
+            String outputPath = getCanonicalPath(args[1]);
+            if (isWithin(outputPath, sourcePath) || isWithin(sourcePath, outputPath)) {
+                System.out.printf("ERROR: The output directory \"%s\" cannot be the maps directory \"%s\", be in "
+                        + "it or contain it.%n", args[1], args[0]);
+                return;
+            }
+            File[] maps = source.listFiles(File::isFile);
+            if (maps == null || !outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+                System.out.printf("ERROR: This program cannot use the directories \"%s\" and \"%s\".%n", args[0],
+                        args[1]);
+                return;
+            }
+            Arrays.sort(maps);
+            for (File map : maps) {
+                pairs.add(new String[]{map.getPath(), new File(outputDirectory, map.getName()).getPath()});
+            }
+        } else {
+            String[] lines = Reader.readFile(args[0], true, true);
+            if (lines == null) {
+                return;
+            }
+            for (String line : lines) {
+                String[] paths = line.split("\t");
+                if (paths.length != 2) {
+                    System.out.printf("ERROR: \"%s\" is not a valid line of the manifest.%n", line);
+                    return;
+                }
+                pairs.add(paths);
+            }
+        }
+        // The options of the analysis follow the paths of every map
+        int threadCount = Runtime.getRuntime().availableProcessors();
+        ArrayList<String> analysisArgs = new ArrayList<>();
+        for (int i = next; i < args.length; i++) {
+            if (args[i].equals("--threads") && i + 1 < args.length) {
+                try {
+                    threadCount = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    threadCount = 0;
+                }
+                if (threadCount < 1) {
+                    System.out.println(USAGE);
+                    return;
+                }
+            } else if (args[i].equals("--hierarchy") || args[i].equals("--export-snapshot")) {
+                // These options name a file of one map, which the maps would overwrite
+                System.out.println(USAGE);
+                return;
+            } else {
+                analysisArgs.add(args[i]);
+            }
+        }
+        // An output file that is the file of a map would overwrite the map before or while it is read
+        HashSet<String> inputPaths = new HashSet<>();
+        for (String[] pair : pairs) {
+            inputPaths.add(getCanonicalPath(pair[0]));
+        }
+        ArrayList<AnalysisOptions> analyses = new ArrayList<>();
+        for (String[] pair : pairs) {
+            if (inputPaths.contains(getCanonicalPath(pair[1]))) {
+                System.out.printf("ERROR: The output file \"%s\" of the map \"%s\" is the file of a map, so the map "
+                        + "is skipped.%n", pair[1], pair[0]);
+                continue;
+            }
+            String[] mapArgs = new String[analysisArgs.size() + 2];
+            mapArgs[0] = pair[0];
+            mapArgs[1] = pair[1];
+            for (int i = 0; i < analysisArgs.size(); i++) {
+                mapArgs[i + 2] = analysisArgs.get(i);
+            }
+            AnalysisOptions options = AnalysisOptions.parse(mapArgs);
+            if (options == null) {
+                System.out.println(USAGE);
+                return;
+            }
+            analyses.add(options);
+        }
+        analyze(analyses, threadCount);
+    }
+
+    /**
+     * Returns the canonical path of a file, which is the same for every path of the file that does not go through a
+     * hard link. The file does not have to exist.
+     *
+     * @param path the path of the file
+     * @return the canonical path, or the absolute path if the canonical path cannot be found
+     */
+    private static String getCanonicalPath(String path) {
+        File file = new File(path);
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Checks whether a canonical path is a directory or in that directory.
+     *
+     * @param path      the canonical path
+     * @param directory the canonical path of the directory
+     * @return {@code true} if the path is the directory or in it; {@code false} otherwise
+     */
+    private static boolean isWithin(String path, String directory) {
+        return path.equals(directory)
+                || path.startsWith(directory.endsWith(File.separator) ? directory : directory + File.separator);
+    }
+
+    /**
+     * Analyzes the maps on a fixed number of worker threads. A map whose analysis fails is reported and the other
+     * maps are still analyzed.
+     *
+     * @param analyses    the options of the analysis of every map
+     * @param threadCount the number of worker threads
+     */
+    public static void analyze(ArrayList<AnalysisOptions> analyses, int threadCount) {
+        ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, Math.min(threadCount, analyses.size())));
+        try {
+            ArrayList<Future<?>> results = new ArrayList<>();
+            for (AnalysisOptions options : analyses) {
+                results.add(workers.submit(() -> new MapAnalyzer(options).run()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                } catch (ExecutionException e) {
+                    System.out.printf("ERROR: The map \"%s\" could not be analyzed: %s%n",
+                            analyses.get(i).getInputPath(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            System.out.println("ERROR: The maps could not be analyzed. Program is going to terminate!");
+        } finally {
+            workers.shutdown();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+
+/**
+ * This class is a radix heap over city indexes. It can be used when the polled priorities never decrease and a
+ * city is never added with a priority below the last polled one, which holds for the distances of a route search
+ * with roads that are not negative. A city is kept in the bucket of the highest bit in which its priority differs
+ * from the last polled priority, so there are only 65 buckets whatever the road lengths are. When the lowest bucket
+ * is empty, the next bucket is emptied into the lower buckets around its smallest priority, and every entry moves
+ * down at most 64 times.
+ * <p>
+ * The buckets are plain arrays of entries. A lowered priority adds a new entry and leaves the old one behind, and
+ * an entry whose priority is not the current priority of its city is dropped when it is met. The priorities of the
+ * route searches hold the order in which the cities were reached in their lower bits, so no two cities have the
+ * same priority and the ties are resolved like the binary heap resolves them.
+ */
+public class RadixHeap implements CityQueue {
+
+    private static final int BUCKET_COUNT = 65; // one bucket for equal priorities and one for every bit
+
+    private final int[][] bucketCities = new int[BUCKET_COUNT][]; // cities of the entries of each bucket
+    private final long[][] bucketPriorities = new long[BUCKET_COUNT][]; // priorities of the entries of each bucket
+    private final int[] bucketSizes = new int[BUCKET_COUNT]; // number of entries of each bucket
+    private final long[] priorities; // current priority of each city in the heap
+    private final boolean[] queued; // whether each city is in the heap
+    private long last; // the last polled priority, no city in the heap has a lower one
+    private int size; // number of cities in the heap
+
+    /**
+     * Constructs an empty heap that can hold the cities {@code 0 .. capacity - 1}.
+     *
+     * @param capacity the number of cities on the map
+     */
+    public RadixHeap(int capacity) {
+        priorities = new long[capacity];
+        queued = new boolean[capacity];
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            bucketCities[bucket] = new int[16];
+            bucketPriorities[bucket] = new long[16];
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int city) {
+        return queued[city];
+    }
+
+    /**
+     * Adds a city to the heap.
+     *
+     * @param city     the index of the city, it must not be in the heap
+     * @param priority the priority of the city, not below the last polled priority
+     */
+    @Override
+    public void insert(int city, long priority) {
+        if (size++ == 0) {
+            last = priority;
+        }
+        queued[city] = true;
+        priorities[city] = priority;
+        add(city, priority);
+    }
+
+    /**
+     * Lowers the priority of a city by adding a new entry; the old entry is dropped when it is met.
+     *
+     * @param city     the index of the city
+     * @param priority the new priority, not below the last polled priority
+     */
+    @Override
+    public void decreasePriority(int city, long priority) {
+        priorities[city] = priority;
+        add(city, priority);
+    }
+
+    @Override
+    public long peekPriority() {
+        refill();
+        return last;
+    }
+
+    @Override
+    public void clear() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            for (int i = 0; i < bucketSizes[bucket]; i++) {
+                queued[bucketCities[bucket][i]] = false;
+            }
+            bucketSizes[bucket] = 0;
+        }
+        size = 0;
+    }
+
+    @Override
+    public int poll() {
+        refill();
+        int city = bucketCities[0][--bucketSizes[0]];
+        queued[city] = false;
+        size--;
+        return city;
+    }
+
+    /**
+     * Makes sure that the first bucket holds the entry of the city with the smallest priority on its top. The
+     * entries that are left behind are dropped, and when the first bucket is empty the lowest bucket that is not
+     * empty is moved into the lower buckets around its smallest priority.
+     */
+    private void refill() {
+        while (true) {
+            // The first bucket holds only entries with the last polled priority
+            while (bucketSizes[0] > 0 && !isCurrent(0, bucketSizes[0] - 1)) {
+                bucketSizes[0]--;
+            }
+            if (bucketSizes[0] > 0) {
+                return;
+            }
+            int bucket = 1;
+            while (bucketSizes[bucket] == 0) {
+                bucket++;
+            }
+            int[] cities = bucketCities[bucket];
+            long[] keys = bucketPriorities[bucket];
+            int count = bucketSizes[bucket];
+            long smallest = Long.MAX_VALUE;
+            for (int i = 0; i < count; i++) {
+                if (isCurrent(bucket, i)) {
+                    smallest = Math.min(smallest, keys[i]);
+                }
+            }
+            bucketSizes[bucket] = 0;
+            if (smallest == Long.MAX_VALUE) {
+                // Every entry of the bucket was left behind
+                continue;
+            }
+            last = smallest;
+            for (int i = 0; i < count; i++) {
+                if (isCurrent(bucket, i)) {
+                    add(cities[i], keys[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if an entry holds the current priority of its city.
+     *
+     * @param bucket the bucket of the entry
+     * @param index  the position of the entry in the bucket
+     * @return {@code true} if the entry is current; {@code false} if it was left behind
+     */
+    private boolean isCurrent(int bucket, int index) {
+        int city = bucketCities[bucket][index];
+        return queued[city] && priorities[city] == bucketPriorities[bucket][index];
+    }
+
+    /**
+     * Adds an entry to the bucket of its priority.
+     *
+     * @param city     the index of the city
+     * @param priority the priority of the entry
+     */
+    private void add(int city, long priority) {
+        int bucket = BUCKET_COUNT - 1 - Long.numberOfLeadingZeros(priority ^ last);
+        int count = bucketSizes[bucket];
+        if (count == bucketCities[bucket].length) {
+            bucketCities[bucket] = Arrays.copyOf(bucketCities[bucket], 2 * count);
+            bucketPriorities[bucket] = Arrays.copyOf(bucketPriorities[bucket], 2 * count);
+        }
+        bucketCities[bucket][count] = city;
+        bucketPriorities[bucket][count] = priority;
+        bucketSizes[bucket] = count + 1;
+    }
+}
@@ -0,0 +1,14 @@
+/**
+ * This interface gives a lower bound of the length of the route from a city to the destination of a search. The
+ * bound must never be greater than the real length, so a city whose bound is too large cannot be on a fastest route.
+ */
+public interface RemainingDistance {
+
+    /**
+     * Returns a lower bound of the length of the route from the city to the destination.
+     *
+     * @param city the index of the city
+     * @return the lower bound, it is never greater than the length of the fastest route
+     */
+    long getLowerBound(int city);
+}
@@ -0,0 +1,215 @@
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes a report to a file through one buffered channel. The text is collected in a character buffer
+ * and written when the buffer is full or the writer is flushed, so a report of many roads opens the file once
+ * instead of once per line. Numbers are written digit by digit without {@link String#format}.
+ * <p>
+ * The file is appended to and it is opened only when the first bytes are written, so no file is created for an
+ * empty report, and the text is encoded with the default charset, like a {@code PrintStream} does, so the written
+ * bytes are the same as those of a stream that prints the report.
+ */
+public class ReportWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 14; // number of characters collected before they are encoded
+
+    private final String path; // path of the output file
+    private final char[] text = new char[BUFFER_SIZE]; // characters that are not encoded yet
+    private final CharBuffer chars = CharBuffer.wrap(text); // the collected characters, for the encoder
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(4 * BUFFER_SIZE); // encoded bytes not written yet
+    private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final char[] digits = new char[20]; // digits of the number being written, from the last one
+    private FileChannel channel; // the output file, null until the first bytes are written
+    private boolean failed; // whether the file could not be written, in which case the rest is dropped
+
+    /**
+     * Constructs a new {@code ReportWriter} for the given file. The file is not opened yet.
+     *
+     * @param path the path of the output file
+     */
+    public ReportWriter(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Writes a string.
+     *
+     * @param string the string
+     * @return this writer
+     */
+    public ReportWriter write(String string) {
+        int length = string.length();
+        int written = 0;
+        while (written < length) {
+            if (!chars.hasRemaining()) {
+                encode(false);
+            }
+            int count = Math.min(length - written, chars.remaining());
+            string.getChars(written, written + count, text, chars.position());
+            chars.position(chars.position() + count);
+            written += count;
+        }
+        return this;
+    }
+
+    /**
+     * Writes a character.
+     *
+     * @param c the character
+     * @return this writer
+     */
+    public ReportWriter write(char c) {
+        if (!chars.hasRemaining()) {
+            encode(false);
+        }
+        chars.put(c);
+        return this;
+    }
+
+    /**
+     * Writes a whole number in decimal digits, like {@code %d} does.
+     *
+     * @param number the number
+     * @return this writer
+     */
+    public ReportWriter write(long number) {
+        if (number < 0) {
+            write('-');
+        } else {
+            // The digits are found for the negative number, which also covers Long.MIN_VALUE
+            number = -number;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (char) ('0' - number % 10);
+            number /= 10;
+        } while (number != 0);
+        while (count > 0) {
+            write(digits[--count]);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a number with a fixed number of decimals, like {@code %.2f} does for two decimals. The shortest
+     * decimal form of the number is rounded half up, which is how {@link java.util.Formatter} rounds.
+     *
+     * @param number   the number
+     * @param decimals the number of decimals
+     * @return this writer
+     */
+    public ReportWriter write(double number, int decimals) {
+        if (Double.isNaN(number) || Double.isInfinite(number)) {
+            return write(Double.toString(number));
+        }
+        if (Double.doubleToRawLongBits(number) < 0) {
+            // The sign is written apart so -0.0 keeps its sign, like the formatter writes it
+            write('-');
+            number = -number;
+        }
+        return write(new BigDecimal(Double.toString(number)).setScale(decimals, RoundingMode.HALF_UP).toPlainString());
+    }
+
+    /**
+     * Writes a road in the format of {@link Road#toString}.
+     *
+     * @param road the road
+     * @return this writer
+     */
+    public ReportWriter write(Road road) {
+        return write(road.getPoint1()).write('\t').write(road.getPoint2()).write('\t').write(road.getRoadLength())
+                .write('\t').write(road.getRoadID());
+    }
+
+    /**
+     * Writes everything that is collected so far to the file.
+     */
+    public void flush() {
+        encode(true);
+    }
+
+    /**
+     * Writes everything that is collected so far to the file and closes it.
+     */
+    @Override
+    public void close() {
+        flush();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                printError();
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Encodes the collected characters and writes their bytes. A character that is split in two halves at the end
+     * of the buffer is kept until its second half is written, unless the writer is flushed.
+     *
+     * @param flush whether every collected character is written
+     */
+    private void encode(boolean flush) {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, flush);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else {
+                break;
+            }
+        }
+        if (flush) {
+            while (encoder.flush(bytes).isOverflow()) {
+                writeBytes();
+            }
+            encoder.reset();
+        }
+        chars.compact();
+        writeBytes();
+    }
+
+    /**
+     * Writes the encoded bytes to the file and opens the file first if it is not open.
+     */
+    private void writeBytes() {
+        bytes.flip();
+        try {
+            if (bytes.hasRemaining() && !failed) {
+                if (channel == null) {
+                    channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND);
+                }
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+            printError();
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Prints the error of a file that cannot be written.
+     */
+    private void printError() {
+        System.out.println(String.format("ERROR: This program cannot write to the \"%s\", ", path) +
+                "please check the permissions to write that directory. " +
+                "Program is going to terminate!");
+    }
+}
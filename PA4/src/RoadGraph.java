@@ -0,0 +1,406 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * This class represents the map as a compact graph. City names are replaced with indexes and the roads connected
+ * to each city are stored next to each other in compressed sparse row arrays, so the neighbours of a city can be
+ * visited without scanning every road on the map.
+ */
+public class RoadGraph {
+
+    private final CityTable cities; // names and indexes of the cities
+    private final int[] roadPoints; // the cities at both ends of each road, two entries per road
+    private final int[] roadLengths; // the length of each road, in the order the roads are read
+    private final int[] roadIDs; // the ID of each road, in the order the roads are read
+    private final int[] roadOrder; // indexes of the roads of the graph sorted by length and ID
+    private final int firstCity; // the alphabetically first city of the map
+
+    private final int[] offsets; // the roads of city i are stored between offsets[i] and offsets[i + 1]
+    private final int[] targets; // the city each road leads to
+    private final int[] lengths; // the length of each road
+    private final int[] roadIds; // the ID of each road
+    private final int[] edgeRoads; // the index of each road in the order the roads are read
+
+    /**
+     * Builds the graph of the given roads. The roads of every city are sorted according to their length and ID,
+     * and roads with the same length and ID keep the order they are read.
+     *
+     * @param cityNames   the names of the cities, ordered by their indexes
+     * @param cityIndexes the index of every city
+     * @param roadPoints  the cities at both ends of each road, two entries per road
+     * @param roadLengths the length of each road
+     * @param roadIDs     the ID of each road
+     */
+    RoadGraph(String[] cityNames, HashMap<String, Integer> cityIndexes, int[] roadPoints, int[] roadLengths,
+              int[] roadIDs) {
+        this.cities = new CityTable(cityNames, cityIndexes);
+        this.roadPoints = roadPoints;
+        this.roadLengths = roadLengths;
+        this.roadIDs = roadIDs;
+        int first = -1;
+        for (int i = 0; i < cityNames.length; i++) {
+            if (first == -1 || cityNames[i].compareTo(cityNames[first]) < 0) {
+                first = i;
+            }
+        }
+        firstCity = first;
+
+        roadOrder = sortRoads();
+        offsets = new int[cities.getCount() + 1];
+        targets = new int[countEdges()];
+        lengths = new int[targets.length];
+        roadIds = new int[targets.length];
+        edgeRoads = new int[targets.length];
+        addEdges();
+    }
+
+    /**
+     * Restores a graph whose arrays were built before, for example by a graph that was written to a snapshot file.
+     * Nothing is sorted or counted again.
+     *
+     * @param cities      the names and indexes of the cities
+     * @param roadPoints  the cities at both ends of each road, two entries per road
+     * @param roadLengths the length of each road
+     * @param roadIDs     the ID of each road
+     * @param roadOrder   the indexes of the roads sorted by length and ID
+     * @param firstCity   the alphabetically first city, -1 if there are no cities
+     * @param offsets     the offsets of the cities in the stored road arrays
+     * @param targets     the city each stored road leads to
+     * @param lengths     the length of each stored road
+     * @param roadIds     the ID of each stored road
+     * @param edgeRoads   the index of each stored road
+     */
+    RoadGraph(CityTable cities, int[] roadPoints, int[] roadLengths, int[] roadIDs, int[] roadOrder, int firstCity,
+              int[] offsets, int[] targets, int[] lengths, int[] roadIds, int[] edgeRoads) {
+        this.cities = cities;
+        this.roadPoints = roadPoints;
+        this.roadLengths = roadLengths;
+        this.roadIDs = roadIDs;
+        this.roadOrder = roadOrder;
+        this.firstCity = firstCity;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.lengths = lengths;
+        this.roadIds = roadIds;
+        this.edgeRoads = edgeRoads;
+    }
+
+    /**
+     * Builds the graph of some of the roads of another graph. The cities and the roads keep their indexes, so the
+     * results on both graphs can be compared directly.
+     *
+     * @param map       the graph of the whole map
+     * @param roadOrder the indexes of the roads of the new graph sorted by length and ID
+     */
+    private RoadGraph(RoadGraph map, int[] roadOrder) {
+        roadLengths = map.roadLengths;
+        roadIDs = map.roadIDs;
+        cities = map.cities;
+        roadPoints = map.roadPoints;
+        firstCity = map.firstCity;
+        this.roadOrder = roadOrder;
+        offsets = new int[cities.getCount() + 1];
+        targets = new int[countEdges()];
+        lengths = new int[targets.length];
+        roadIds = new int[targets.length];
+        edgeRoads = new int[targets.length];
+        addEdges();
+    }
+
+    /**
+     * Returns the graph of some of the roads of this graph. The cities and the roads keep their indexes.
+     *
+     * @param sortedRoads the indexes of the roads sorted by length and ID
+     * @return the graph of the roads
+     */
+    public RoadGraph getSubgraph(int[] sortedRoads) {
+        return new RoadGraph(this, sortedRoads);
+    }
+
+    /**
+     * Counts the roads of every city and fills the offsets array. A road that starts and ends at the same city is
+     * counted once.
+     *
+     * @return the total number of stored roads
+     */
+    private int countEdges() {
+        for (int road : roadOrder) {
+            offsets[roadPoints[2 * road] + 1]++;
+            if (roadPoints[2 * road] != roadPoints[2 * road + 1]) {
+                offsets[roadPoints[2 * road + 1] + 1]++;
+            }
+        }
+        for (int i = 0; i < cities.getCount(); i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return offsets[cities.getCount()];
+    }
+
+    /**
+     * Places the roads in sorted order, so the roads of every city end up sorted as well.
+     */
+    private void addEdges() {
+        int[] next = Arrays.copyOf(offsets, cities.getCount());
+        for (int road : roadOrder) {
+            int point1 = roadPoints[2 * road];
+            int point2 = roadPoints[2 * road + 1];
+            addEdge(next[point1]++, point2, road);
+            if (point1 != point2) {
+                addEdge(next[point2]++, point1, road);
+            }
+        }
+    }
+
+    /**
+     * Sorts the roads according to their length and ID. The keys are packed into primitive longs with the road
+     * index in the lower half, which keeps the roads with the same length and ID in the order they are read, and
+     * are sorted in parallel.
+     *
+     * @return the indexes of the roads in sorted order
+     */
+    private int[] sortRoads() {
+        int roadCount = roadLengths.length;
+        long[] keys = new long[roadCount];
+        for (int i = 0; i < roadCount; i++) {
+            keys[i] = ((long) roadIDs[i] << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+        int[] byID = new int[roadCount]; // road indexes sorted by ID
+        for (int i = 0; i < roadCount; i++) {
+            byID[i] = (int) keys[i];
+        }
+        for (int i = 0; i < roadCount; i++) {
+            keys[i] = ((long) roadLengths[byID[i]] << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+        int[] sorted = new int[roadCount];
+        for (int i = 0; i < roadCount; i++) {
+            sorted[i] = byID[(int) keys[i]];
+        }
+        return sorted;
+    }
+
+    /**
+     * Stores a road at the given position of the compressed sparse row arrays.
+     *
+     * @param edge   the position of the road
+     * @param target the city the road leads to
+     * @param road   the index of the road
+     */
+    private void addEdge(int edge, int target, int road) {
+        targets[edge] = target;
+        lengths[edge] = roadLengths[road];
+        roadIds[edge] = roadIDs[road];
+        edgeRoads[edge] = road;
+    }
+
+    /**
+     * Returns the number of cities on the map.
+     *
+     * @return the number of cities
+     */
+    public int getCityCount() {
+        return cities.getCount();
+    }
+
+    /**
+     * Returns the number of roads of the graph.
+     *
+     * @return the number of roads
+     */
+    public int getRoadCount() {
+        return roadOrder.length;
+    }
+
+    /**
+     * Returns the name of a city.
+     *
+     * @param city the index of the city
+     * @return the name of the city
+     */
+    public String getCityName(int city) {
+        return cities.getName(city);
+    }
+
+    /**
+     * Returns the index of a city.
+     *
+     * @param cityName the name of the city
+     * @return the index of the city, or -1 if the city is not on the map
+     */
+    public int getCityIndex(String cityName) {
+        return cities.getIndex(cityName);
+    }
+
+    /**
+     * Returns the alphabetically first city of the map.
+     *
+     * @return the index of the city, or -1 if the map is empty
+     */
+    public int getFirstCity() {
+        return firstCity;
+    }
+
+    /**
+     * Returns the length of the shortest road of the graph.
+     *
+     * @return the shortest length, 0 if there are no roads
+     */
+    public int getShortestLength() {
+        return roadOrder.length == 0 ? 0 : roadLengths[roadOrder[0]];
+    }
+
+    /**
+     * Returns the length of the longest road of the graph.
+     *
+     * @return the longest length, 0 if there are no roads
+     */
+    public int getLongestLength() {
+        return roadOrder.length == 0 ? 0 : roadLengths[roadOrder[roadOrder.length - 1]];
+    }
+
+    /**
+     * Returns the total length of the roads of the graph.
+     *
+     * @return the total length
+     */
+    public long getTotalLength() {
+        long totalLength = 0;
+        for (int road : roadOrder) {
+            totalLength += roadLengths[road];
+        }
+        return totalLength;
+    }
+
+    /**
+     * Returns a road of the map. The graph keeps only the indexes, lengths and IDs of the roads, so a new
+     * {@code Road} object is created for every call.
+     *
+     * @param road the index of the road
+     * @return the road
+     */
+    public Road getRoad(int road) {
+        return new Road(cities.getName(roadPoints[2 * road]), cities.getName(roadPoints[2 * road + 1]),
+                roadLengths[road], roadIDs[road]);
+    }
+
+    /**
+     * Rebuilds a route by following the last roads of the cities back to the city the search started from.
+     *
+     * @param lastEdges the last road of the route to each city, -1 for the city the search started from
+     * @param city      the index of the destination city
+     * @return the roads of the route in order
+     */
+    public ArrayList<Road> getRoute(int[] lastEdges, int city) {
+        ArrayList<Road> route = new ArrayList<>();
+        while (lastEdges[city] != -1) {
+            route.add(getRoad(edgeRoads[lastEdges[city]]));
+            city = getEdgeSource(lastEdges[city]);
+        }
+        Collections.reverse(route);
+        return route;
+    }
+
+    /**
+     * Returns the city a stored road starts from, which is the end of the road other than the city it leads to.
+     *
+     * @param edge the position of the stored road
+     * @return the index of the city
+     */
+    public int getEdgeSource(int edge) {
+        int road = edgeRoads[edge];
+        return roadPoints[2 * road] == targets[edge] ? roadPoints[2 * road + 1] : roadPoints[2 * road];
+    }
+
+    /**
+     * Returns the names and indexes of the cities.
+     *
+     * @return the city table
+     */
+    public CityTable getCities() {
+        return cities;
+    }
+
+    /**
+     * Returns the cities at both ends of every road. The ends of road i are stored at 2 * i and 2 * i + 1.
+     *
+     * @return the road points array
+     */
+    public int[] getRoadPoints() {
+        return roadPoints;
+    }
+
+    /**
+     * Returns the length of every road in the order the roads are read.
+     *
+     * @return the road lengths array
+     */
+    public int[] getRoadLengths() {
+        return roadLengths;
+    }
+
+    /**
+     * Returns the ID of every road in the order the roads are read.
+     *
+     * @return the road IDs array
+     */
+    public int[] getRoadIDs() {
+        return roadIDs;
+    }
+
+    /**
+     * Returns the indexes of the roads of the graph sorted according to their length and ID.
+     *
+     * @return the road order array
+     */
+    public int[] getRoadOrder() {
+        return roadOrder;
+    }
+
+    /**
+     * Returns the offsets of the cities. The roads of city i are stored between offsets[i] and offsets[i + 1].
+     *
+     * @return the offsets array
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Returns the city each stored road leads to.
+     *
+     * @return the targets array
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Returns the length of each stored road.
+     *
+     * @return the lengths array
+     */
+    public int[] getLengths() {
+        return lengths;
+    }
+
+    /**
+     * Returns the ID of each stored road.
+     *
+     * @return the road IDs array
+     */
+    public int[] getRoadIds() {
+        return roadIds;
+    }
+
+    /**
+     * Returns the index of each stored road in the order the roads are read.
+     *
+     * @return the edge roads array
+     */
+    public int[] getEdgeRoads() {
+        return edgeRoads;
+    }
+}
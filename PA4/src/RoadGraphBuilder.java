@@ -0,0 +1,69 @@
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class collects the roads of a map one by one and builds its graph. City names are given indexes as soon as
+ * they are seen, and only the indexes, lengths and IDs of the roads are kept, so no {@code Road} object is created
+ * while the map is read.
+ */
+public class RoadGraphBuilder {
+
+    private final HashMap<String, Integer> cityIndexes = new HashMap<>(); // index of every city seen so far
+    private String[] cityNames = new String[16]; // names of the cities, ordered by their indexes
+    private int cityCount; // number of cities seen so far
+    private int[] roadPoints = new int[32]; // the cities at both ends of each road, two entries per road
+    private int[] roadLengths = new int[16]; // the length of each road
+    private int[] roadIDs = new int[16]; // the ID of each road
+    private int roadCount; // number of roads added so far
+
+    /**
+     * Adds a road to the map. The roads keep the order they are added in.
+     *
+     * @param point1     the start point of the road
+     * @param point2     the end point of the road
+     * @param roadLength the length of the road
+     * @param roadID     the ID of the road
+     */
+    public void addRoad(String point1, String point2, int roadLength, int roadID) {
+        if (roadCount == roadLengths.length) {
+            roadPoints = Arrays.copyOf(roadPoints, 4 * roadCount);
+            roadLengths = Arrays.copyOf(roadLengths, 2 * roadCount);
+            roadIDs = Arrays.copyOf(roadIDs, 2 * roadCount);
+        }
+        roadPoints[2 * roadCount] = addCity(point1);
+        roadPoints[2 * roadCount + 1] = addCity(point2);
+        roadLengths[roadCount] = roadLength;
+        roadIDs[roadCount] = roadID;
+        roadCount++;
+    }
+
+    /**
+     * Returns the index of a city and gives it the next index if it is seen for the first time. The name stored
+     * for a city is the first one that is seen, so equal names read from different lines share one string.
+     *
+     * @param cityName the name of the city
+     * @return the index of the city
+     */
+    private int addCity(String cityName) {
+        Integer index = cityIndexes.get(cityName);
+        if (index != null) {
+            return index;
+        }
+        if (cityCount == cityNames.length) {
+            cityNames = Arrays.copyOf(cityNames, 2 * cityCount);
+        }
+        cityNames[cityCount] = cityName;
+        cityIndexes.put(cityName, cityCount);
+        return cityCount++;
+    }
+
+    /**
+     * Builds the graph of the roads added so far. The builder should not be used after the graph is built.
+     *
+     * @return the graph of the map
+     */
+    public RoadGraph build() {
+        return new RoadGraph(Arrays.copyOf(cityNames, cityCount), cityIndexes, Arrays.copyOf(roadPoints, 2 * roadCount),
+                Arrays.copyOf(roadLengths, roadCount), Arrays.copyOf(roadIDs, roadCount));
+    }
+}
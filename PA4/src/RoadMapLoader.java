@@ -0,0 +1,235 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class reads a map file once and builds its graph while it reads. Every line is read into one reused
+ * character buffer and split at its tabs by hand, so the text of the file is never kept in memory; only the names
+ * of the cities are turned into strings and each name is stored once. Lines are trimmed and empty lines are
+ * skipped, like {@link Reader#readFile} does.
+ */
+public class RoadMapLoader {
+
+    private final char[] buffer = new char[1 << 16]; // characters read from the file but not used yet
+    private int position; // position of the next character in the buffer
+    private int limit; // number of characters in the buffer
+    private boolean skipLineFeed; // whether the last line ended with '\r', so a '\n' after it ends no line
+    private char[] line = new char[256]; // characters of the current line
+    private int lineLength; // number of characters of the current line
+    private final int[] fieldStarts = new int[5]; // positions where the fields of the current line start
+    private final int[] fieldEnds = new int[5]; // positions where the fields of the current line end
+
+    private String startingPoint; // the starting point written on the first line
+    private String endPoint; // the end point written on the first line
+    private RoadGraph graph; // graph of the roads of the file
+
+    /**
+     * Reads the map file at the given path. The first line holds the starting and end points and every other
+     * line holds the two points, the length and the ID of a road separated by tabs.
+     *
+     * @param path the path of the map file
+     * @return {@code true} if the file is read; {@code false} if it cannot be read or a line is not valid, in
+     * which case an error is printed
+     */
+    public boolean load(String path) {
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        int lineNumber = 0;
+        try (InputStreamReader input = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            boolean firstLine = true;
+            while (readLine(input)) {
+                lineNumber++;
+                int fieldCount = splitLine();
+                if (fieldCount == 0) {
+                    continue;
+                }
+                if (firstLine) {
+                    if (fieldCount < 2) {
+                        return printInvalidLine(path, lineNumber);
+                    }
+                    startingPoint = getField(0);
+                    endPoint = getField(1);
+                    firstLine = false;
+                    continue;
+                }
+                if (fieldCount < 4) {
+                    return printInvalidLine(path, lineNumber);
+                }
+                int roadLength = parseField(2);
+                int roadID = parseField(3);
+                builder.addRoad(getField(0), getField(1), roadLength, roadID);
+            }
+            if (firstLine) {
+                return printInvalidLine(path, 1);
+            }
+        } catch (NumberFormatException e) {
+            return printInvalidLine(path, lineNumber);
+        } catch (IOException e) {
+            System.out.println(String.format("ERROR: This program cannot read from the \"%s\", ", path) +
+                    "either this program does not have read permission to read that file or file does not exist. " +
+                    "Program is going to terminate!");
+            return false;
+        }
+        graph = builder.build();
+        return true;
+    }
+
+    /**
+     * Prints the error of a line that is not valid.
+     *
+     * @param path       the path of the map file
+     * @param lineNumber the number of the line
+     * @return {@code false}
+     */
+    private boolean printInvalidLine(String path, int lineNumber) {
+        System.out.println(String.format("ERROR: Line %d of the \"%s\" is not a valid line of a map. ", lineNumber,
+                path) + "Program is going to terminate!");
+        return false;
+    }
+
+    /**
+     * Reads the next line of the file into the line buffer. A line ends with '\n', '\r' or "\r\n", which are not
+     * part of the line.
+     *
+     * @param input the file
+     * @return {@code true} if a line is read; {@code false} at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private boolean readLine(InputStreamReader input) throws IOException {
+        lineLength = 0;
+        boolean readAny = false;
+        while (true) {
+            if (position == limit) {
+                limit = input.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return readAny;
+                }
+            }
+            char c = buffer[position++];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (c == '\n') {
+                    continue;
+                }
+            }
+            readAny = true;
+            if (c == '\n' || c == '\r') {
+                skipLineFeed = c == '\r';
+                return true;
+            }
+            if (lineLength == line.length) {
+                char[] longerLine = new char[2 * line.length];
+                System.arraycopy(line, 0, longerLine, 0, lineLength);
+                line = longerLine;
+            }
+            line[lineLength++] = c;
+        }
+    }
+
+    /**
+     * Trims the current line like {@link String#trim} and finds its tab separated fields. Only the first few
+     * fields are recorded, the rest of the line is not used.
+     *
+     * @return the number of recorded fields, 0 if the line is empty
+     */
+    private int splitLine() {
+        int start = 0;
+        int end = lineLength;
+        while (start < end && line[start] <= ' ') {
+            start++;
+        }
+        while (end > start && line[end - 1] <= ' ') {
+            end--;
+        }
+        if (start == end) {
+            return 0;
+        }
+        int fieldCount = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && fieldCount < fieldStarts.length; i++) {
+            if (i == end || line[i] == '\t') {
+                fieldStarts[fieldCount] = fieldStart;
+                fieldEnds[fieldCount++] = i;
+                fieldStart = i + 1;
+            }
+        }
+        return fieldCount;
+    }
+
+    /**
+     * Returns a field of the current line as a string.
+     *
+     * @param field the number of the field
+     * @return the text of the field
+     */
+    private String getField(int field) {
+        return new String(line, fieldStarts[field], fieldEnds[field] - fieldStarts[field]);
+    }
+
+    /**
+     * Returns a field of the current line as an integer. The field is read like {@link Integer#parseInt} reads
+     * it, with an optional sign followed by decimal digits, without turning it into a string.
+     *
+     * @param field the number of the field
+     * @return the value of the field
+     * @throws NumberFormatException if the field is not an integer or does not fit in an int
+     */
+    private int parseField(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        boolean negative = start < end && line[start] == '-';
+        if (start < end && (line[start] == '-' || line[start] == '+')) {
+            start++;
+        }
+        if (start == end) {
+            throw new NumberFormatException(getField(field));
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line[i];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(getField(field));
+            }
+            value = 10 * value + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException(getField(field));
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException(getField(field));
+        }
+        return (int) value;
+    }
+
+    /**
+     * Returns the starting point written on the first line of the file.
+     *
+     * @return the name of the starting point
+     */
+    public String getStartingPoint() {
+        return startingPoint;
+    }
+
+    /**
+     * Returns the end point written on the first line of the file.
+     *
+     * @return the name of the end point
+     */
+    public String getEndPoint() {
+        return endPoint;
+    }
+
+    /**
+     * Returns the graph of the roads of the file.
+     *
+     * @return the graph of the map
+     */
+    public RoadGraph getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,232 @@
+import java.util.Arrays;
+
+/**
+ * This class holds the working state of one route search: the distance and the last road of every city, which
+ * cities are reached and settled, and the heap of the cities that are not settled yet. The state is kept apart from
+ * the map, so the map can be shared and every thread only needs its own state. The cities a search reaches are
+ * recorded, so the next search resets only those entries instead of the whole arrays. The heap operations of all
+ * searches that used the state are counted for the metrics of the analysis.
+ * <p>
+ * The cities that are not settled wait in a {@link CityQueue}. The binary heap works for every search; the searches
+ * whose priorities are distances with the reach order in the lower {@value #ORDER_BITS} bits can also use a bucket
+ * queue or a radix heap, which only work when no road is negative and are picked by {@link #createQueue}.
+ */
+public class SearchState {
+
+    public static final String AUTO = "auto"; // the queue is picked from the lengths of the roads
+    public static final String HEAP = "heap"; // binary heap, for every search
+    public static final String BUCKET = "bucket"; // Dial's bucket queue, for short roads
+    public static final String RADIX = "radix"; // radix heap, for roads of any length
+    public static final int ORDER_BITS = 32; // number of lower bits of a priority that hold the reach order
+    static final int BUCKET_LIMIT = 1024; // longest road the automatic choice uses the bucket queue for
+
+    private final int[] distances; // length of the best known route to each reached city
+    private final int[] lastEdges; // the last road of the best known route to each city, -1 if there is none
+    private final long[] reachedBits; // one bit per city, set if the city has a distance
+    private final long[] settledBits; // one bit per city, set if the distance of the city is final
+    private final int[] reachedCities; // cities reached by the search in the order they are reached
+    private int reachedCount; // number of cities reached by the search
+    private final CityQueue heap; // reached cities that are not settled yet
+    private long pushCount; // number of cities put into the heap by all searches
+    private long decreaseCount; // number of priorities decreased by all searches
+    private long popCount; // number of cities settled by all searches
+
+    /**
+     * Constructs a new empty {@code SearchState} for a map that keeps its cities in a binary heap.
+     *
+     * @param cityCount the number of cities of the map
+     */
+    public SearchState(int cityCount) {
+        this(cityCount, new IndexedMinHeap(cityCount));
+    }
+
+    /**
+     * Constructs a new empty {@code SearchState} for a map.
+     *
+     * @param cityCount the number of cities of the map
+     * @param heap      the queue of the cities that are not settled
+     */
+    public SearchState(int cityCount, CityQueue heap) {
+        this.heap = heap;
+        distances = new int[cityCount];
+        lastEdges = new int[cityCount];
+        reachedBits = new long[(cityCount + 63) >>> 6];
+        settledBits = new long[reachedBits.length];
+        reachedCities = new int[cityCount];
+        Arrays.fill(lastEdges, -1);
+    }
+
+    /**
+     * Creates the queue of a search. The automatic choice is the bucket queue when the longest road is at most
+     * {@value #BUCKET_LIMIT}, because its buckets are then few and polling walks over few empty ones, and the binary
+     * heap for longer roads. The radix heap is only used when it is asked for, because with its lower bits taken by
+     * the reach order it was not faster than the binary heap on the measured maps. A queue that cannot hold the
+     * priorities of the map, because a road is negative or the roads are too long for the buckets, is replaced with
+     * the binary heap.
+     *
+     * @param kind      one of {@link #AUTO}, {@link #HEAP}, {@link #BUCKET} and {@link #RADIX}
+     * @param cityCount the number of cities of the map
+     * @param shortest  the length of the shortest road of the map
+     * @param longest   the length of the longest road a search can use
+     * @param orderBits the number of lower bits of the priorities that hold the reach order
+     * @return the queue
+     */
+    public static CityQueue createQueue(String kind, int cityCount, long shortest, long longest, int orderBits) {
+        if (kind.equals(AUTO)) {
+            kind = longest <= BUCKET_LIMIT ? BUCKET : HEAP;
+        }
+        if (shortest < 0 || kind.equals(BUCKET) && longest > BucketQueue.MAX_STEP) {
+            kind = HEAP;
+        }
+        switch (kind) {
+            case BUCKET:
+                return new BucketQueue(cityCount, (int) longest, orderBits);
+            case RADIX:
+                return new RadixHeap(cityCount);
+            default:
+                return new IndexedMinHeap(cityCount);
+        }
+    }
+
+    /**
+     * Resets the cities the previous search has reached.
+     */
+    public void clear() {
+        for (int i = 0; i < reachedCount; i++) {
+            int city = reachedCities[i];
+            lastEdges[city] = -1;
+            reachedBits[city >>> 6] = 0;
+            settledBits[city >>> 6] = 0;
+        }
+        reachedCount = 0;
+        heap.clear();
+    }
+
+    /**
+     * Gives a city its first distance and puts it into the heap.
+     *
+     * @param city     the index of the city
+     * @param distance the distance of the city
+     * @param lastEdge the last road of the route to the city, -1 for the starting city
+     * @param priority the priority of the city in the heap
+     */
+    public void reach(int city, int distance, int lastEdge, long priority) {
+        distances[city] = distance;
+        lastEdges[city] = lastEdge;
+        reachedBits[city >>> 6] |= 1L << city;
+        reachedCities[reachedCount++] = city;
+        heap.insert(city, priority);
+        pushCount++;
+    }
+
+    /**
+     * Gives a city that is in the heap a shorter distance.
+     *
+     * @param city     the index of the city
+     * @param distance the new distance of the city
+     * @param lastEdge the last road of the new route to the city
+     * @param priority the new priority of the city, it must be lower than the old one
+     */
+    public void improve(int city, int distance, int lastEdge, long priority) {
+        distances[city] = distance;
+        lastEdges[city] = lastEdge;
+        heap.decreasePriority(city, priority);
+        decreaseCount++;
+    }
+
+    /**
+     * Takes the city with the lowest priority out of the heap and makes its distance final.
+     *
+     * @return the index of the city
+     */
+    public int settle() {
+        int city = heap.poll();
+        settledBits[city >>> 6] |= 1L << city;
+        popCount++;
+        return city;
+    }
+
+    /**
+     * Checks if every reached city is settled.
+     *
+     * @return {@code true} if the heap is empty; {@code false} otherwise
+     */
+    public boolean isFinished() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * Returns the lowest priority in the heap.
+     *
+     * @return the priority of the next city to settle
+     */
+    public long peekPriority() {
+        return heap.peekPriority();
+    }
+
+    /**
+     * Checks if a city has a distance.
+     *
+     * @param city the index of the city
+     * @return {@code true} if the city is reached; {@code false} otherwise
+     */
+    public boolean isReached(int city) {
+        return (reachedBits[city >>> 6] & (1L << city)) != 0;
+    }
+
+    /**
+     * Checks if the distance of a city is final.
+     *
+     * @param city the index of the city
+     * @return {@code true} if the city is settled; {@code false} otherwise
+     */
+    public boolean isSettled(int city) {
+        return (settledBits[city >>> 6] & (1L << city)) != 0;
+    }
+
+    /**
+     * Returns the distance of a reached city.
+     *
+     * @param city the index of the city
+     * @return the distance of the city
+     */
+    public int getDistance(int city) {
+        return distances[city];
+    }
+
+    /**
+     * Returns the last road of the route to every city. The entries of the cities that are not reached are -1.
+     *
+     * @return the last edges array
+     */
+    public int[] getLastEdges() {
+        return lastEdges;
+    }
+
+    /**
+     * Returns the number of cities all searches put into the heap.
+     *
+     * @return the number of heap pushes
+     */
+    public long getPushCount() {
+        return pushCount;
+    }
+
+    /**
+     * Returns the number of priorities all searches decreased.
+     *
+     * @return the number of decrease-key operations
+     */
+    public long getDecreaseCount() {
+        return decreaseCount;
+    }
+
+    /**
+     * Returns the number of cities all searches settled, which is the number of heap pops.
+     *
+     * @return the number of settled cities
+     */
+    public long getPopCount() {
+        return popCount;
+    }
+}
@@ -0,0 +1,169 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * This class answers route questions on a map that has exactly one route between two cities, such as the barely
+ * connected map. The map is rooted once, and the depth, the distance from the root and the ancestors at every power
+ * of two distance of each city are stored, so the meeting city of two routes to the root is found in O(log n) steps.
+ * The object is not changed by the questions and can be shared between threads.
+ */
+public class TreeRoutes {
+
+    private final RoadGraph graph; // Graph of the map, it must not have cycles
+    private final int[] depths; // number of roads between each city and the root, -1 if the city is not connected
+    private final long[] rootDistances; // length of the route between each city and the root
+    private final int[] parentEdges; // the road from the parent of each city to the city, -1 for the root
+    private final int[][] ancestors; // ancestors[k][i] is the ancestor of city i that is 2^k roads closer to the root
+
+    /**
+     * Roots the map at the given city and builds the ancestor tables.
+     *
+     * @param graph the graph of the map, it must not have cycles
+     * @param root  the index of the root city
+     */
+    public TreeRoutes(RoadGraph graph, int root) {
+        this.graph = graph;
+        int cityCount = graph.getCityCount();
+        depths = new int[cityCount];
+        rootDistances = new long[cityCount];
+        parentEdges = new int[cityCount];
+        Arrays.fill(depths, -1);
+        Arrays.fill(parentEdges, -1);
+        int levels = 1;
+        while ((1 << levels) < cityCount) {
+            levels++;
+        }
+        ancestors = new int[levels][cityCount];
+        if (root != -1) {
+            addCities(root);
+        }
+        // The ancestor 2^k roads closer is the ancestor 2^(k-1) roads closer of the ancestor 2^(k-1) roads closer
+        for (int k = 1; k < levels; k++) {
+            for (int city = 0; city < cityCount; city++) {
+                ancestors[k][city] = ancestors[k - 1][ancestors[k - 1][city]];
+            }
+        }
+    }
+
+    /**
+     * Walks the map from the root and records the depth, the distance and the parent of every city it reaches.
+     * Cities that are not reached are their own parents.
+     *
+     * @param root the index of the root city
+     */
+    private void addCities(int root) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] lengths = graph.getLengths();
+        for (int city = 0; city < depths.length; city++) {
+            ancestors[0][city] = city;
+        }
+        int[] queue = new int[depths.length]; // Cities whose roads are not visited yet, in the order they are reached
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        depths[root] = 0;
+        while (head < tail) {
+            int city = queue[head++];
+            for (int edge = offsets[city]; edge < offsets[city + 1]; edge++) {
+                int child = targets[edge];
+                if (depths[child] == -1) {
+                    depths[child] = depths[city] + 1;
+                    rootDistances[child] = rootDistances[city] + lengths[edge];
+                    parentEdges[child] = edge;
+                    ancestors[0][child] = city;
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the city where the routes of two cities to the root meet.
+     *
+     * @param city1 the index of the first city
+     * @param city2 the index of the second city
+     * @return the index of the meeting city
+     */
+    private int findMeetingCity(int city1, int city2) {
+        if (depths[city1] < depths[city2]) {
+            int swap = city1;
+            city1 = city2;
+            city2 = swap;
+        }
+        // Lift the deeper city to the depth of the other one
+        int difference = depths[city1] - depths[city2];
+        for (int k = 0; difference > 0; k++, difference >>= 1) {
+            if ((difference & 1) == 1) {
+                city1 = ancestors[k][city1];
+            }
+        }
+        if (city1 == city2) {
+            return city1;
+        }
+        // Lift both cities as long as they do not meet
+        for (int k = ancestors.length - 1; k >= 0; k--) {
+            if (ancestors[k][city1] != ancestors[k][city2]) {
+                city1 = ancestors[k][city1];
+                city2 = ancestors[k][city2];
+            }
+        }
+        return ancestors[0][city1];
+    }
+
+    /**
+     * Checks if there is a route between two different cities.
+     *
+     * @param city1 the index of the first city, or -1
+     * @param city2 the index of the second city, or -1
+     * @return {@code true} if both cities are connected to the root and are different; {@code false} otherwise
+     */
+    private boolean hasRoute(int city1, int city2) {
+        return city1 != -1 && city2 != -1 && city1 != city2 && depths[city1] != -1 && depths[city2] != -1;
+    }
+
+    /**
+     * Returns the length of the route between two cities.
+     *
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
+     * @return the length of the route, or -1 if there is no route
+     */
+    public long getRouteLength(String startingPoint, String endPoint) {
+        int start = graph.getCityIndex(startingPoint);
+        int end = graph.getCityIndex(endPoint);
+        if (!hasRoute(start, end)) {
+            return -1;
+        }
+        return rootDistances[start] + rootDistances[end] - 2 * rootDistances[findMeetingCity(start, end)];
+    }
+
+    /**
+     * Returns the roads of the route between two cities. The roads from the starting city up to the meeting city
+     * are followed by the roads from the meeting city down to the destination city.
+     *
+     * @param startingPoint the name of the starting city
+     * @param endPoint      the name of the destination city
+     * @return the roads of the route in order, or {@code null} if there is no route
+     */
+    public ArrayList<Road> getRoute(String startingPoint, String endPoint) {
+        int start = graph.getCityIndex(startingPoint);
+        int end = graph.getCityIndex(endPoint);
+        if (!hasRoute(start, end)) {
+            return null;
+        }
+        int meetingCity = findMeetingCity(start, end);
+        ArrayList<Road> route = new ArrayList<>();
+        for (int city = start; city != meetingCity; city = ancestors[0][city]) {
+            route.add(graph.getRoad(graph.getEdgeRoads()[parentEdges[city]]));
+        }
+        ArrayList<Road> downRoads = new ArrayList<>();
+        for (int city = end; city != meetingCity; city = ancestors[0][city]) {
+            downRoads.add(graph.getRoad(graph.getEdgeRoads()[parentEdges[city]]));
+        }
+        Collections.reverse(downRoads);
+        route.addAll(downRoads);
+        return route;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * This class applies a list of road changes to a map and writes the analysis of the map after every change. The
+ * routes and the barely connected map are repaired by a {@link DynamicRoadMap} instead of being found from the
+ * beginning, and every analysis is the same as the output of the program for the changed map file.
+ * <p>
+ * Every line of the update file is one of the following, with the fields separated by tabs:
+ * <pre>
+ * add     point1  point2  length  ID
+ * remove  ID
+ * change  ID      length
+ * </pre>
+ * A road that is removed or changed is found by its ID; if more than one road has the ID, the first one is used.
+ */
+public class UpdateAnalyzer {
+
+    private final DynamicRoadMap map; // Map that is changed
+    private final String startingPoint; // The starting point of the routes
+    private final String endPoint; // The end point of the routes
+
+    /**
+     * Constructs a new {@code UpdateAnalyzer} for the given map.
+     *
+     * @param graph         the graph of the map
+     * @param startingPoint the starting point of the routes
+     * @param endPoint      the end point of the routes
+     */
+    public UpdateAnalyzer(RoadGraph graph, String startingPoint, String endPoint) {
+        this.map = new DynamicRoadMap(graph, startingPoint);
+        this.startingPoint = startingPoint;
+        this.endPoint = endPoint;
+    }
+
+    /**
+     * Applies the changes in the update file and writes the analysis after every change to the report. The
+     * analyses are separated by a line that shows the change. A line that is not a valid change is reported and
+     * skipped.
+     *
+     * @param updatesPath the path of the update file
+     * @param report      the report of the output file
+     */
+    public void analyze(String updatesPath, ReportWriter report) {
+        String[] updates = Reader.readFile(updatesPath, true, true);
+        if (updates == null) {
+            return;
+        }
+        for (int i = 0; i < updates.length; i++) {
+            if (i > 0) {
+                report.write('\n');
+            }
+            if (!apply(updates[i])) {
+                report.write("ERROR: \"").write(updates[i]).write("\" is not a valid update.");
+                continue;
+            }
+            report.write("Update: ").write(updates[i]).write('\n');
+            MapAnalyzer.writer(startingPoint, endPoint, map.getRoute(endPoint), map.getRouteLength(endPoint),
+                    map.getBarelyRoads(), map.getBarelyRoute(endPoint), map.getTotalLength(), report);
+        }
+    }
+
+    /**
+     * Applies one change to the map.
+     *
+     * @param update the line of the change
+     * @return {@code true} if the change is applied; {@code false} if the line is not valid or there is no road with
+     * the ID
+     */
+    private boolean apply(String update) {
+        String[] fields = update.split("\t");
+        try {
+            switch (fields[0]) {
+                case "add":
+                    if (fields.length != 5) {
+                        return false;
+                    }
+                    map.addRoad(fields[1], fields[2], Integer.parseInt(fields[3]), Integer.parseInt(fields[4]));
+                    return true;
+                case "remove":
+                    return fields.length == 2 && map.removeRoad(Integer.parseInt(fields[1]));
+                case "change":
+                    return fields.length == 3
+                            && map.changeLength(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                default:
+                    return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}